@@ -1,6 +1,7 @@
 package com.swiftquantum.data.api
 
 import com.swiftquantum.data.dto.ApiResponse
+import com.swiftquantum.domain.model.NoiseModel
 import retrofit2.Response
 import retrofit2.http.Body
 import retrofit2.http.GET
@@ -109,7 +110,15 @@ data class NoiseProfile(
     val t2: Double? = null,
     val gateErrorRate: Double? = null,
     val readoutErrorRate: Double? = null
-)
+) {
+    /** Coherence times are in microseconds. */
+    fun toDomain(): NoiseModel = NoiseModel(
+        t1Us = t1,
+        t2Us = t2,
+        gateErrorRate = gateErrorRate ?: 0.0,
+        readoutErrorRate = readoutErrorRate ?: 0.0
+    )
+}
 
 // ==================== MicroQiskit DTOs ====================
 
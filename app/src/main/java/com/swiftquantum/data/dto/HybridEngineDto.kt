@@ -8,6 +8,8 @@ import com.swiftquantum.domain.model.ExecutionStatus
 import com.swiftquantum.domain.model.HybridEngineConfig
 import com.swiftquantum.domain.model.HybridEngineType
 import com.swiftquantum.domain.model.HybridExecutionResult
+import com.swiftquantum.domain.model.MeasurementCounts
+import com.swiftquantum.domain.model.MeasurementProbabilities
 import com.swiftquantum.domain.model.OptimizationLevel
 import kotlinx.serialization.SerialName
 import kotlinx.serialization.Serializable
@@ -90,9 +92,9 @@ data class HybridExecutionResultDto(
 
     val status: String = "completed",
 
-    val counts: Map<String, Int> = emptyMap(),
+    val counts: MeasurementCounts = MeasurementCounts.EMPTY,
 
-    val probabilities: Map<String, Double> = emptyMap(),
+    val probabilities: MeasurementProbabilities = MeasurementProbabilities.EMPTY,
 
     @SerialName("state_vector")
     val stateVector: List<ComplexNumberDto>? = null,
@@ -9,6 +9,8 @@ import com.swiftquantum.domain.model.ExecutionStatus
 import com.swiftquantum.domain.model.Gate
 import com.swiftquantum.domain.model.GateParameters
 import com.swiftquantum.domain.model.GateType
+import com.swiftquantum.domain.model.MeasurementCounts
+import com.swiftquantum.domain.model.MeasurementProbabilities
 import kotlinx.serialization.SerialName
 import kotlinx.serialization.Serializable
 
@@ -116,8 +118,8 @@ data class ExecutionResultDto(
     val circuitId: String? = null,
     val status: String = "pending",
     val backend: String = "rust_simulator",
-    val counts: Map<String, Int> = emptyMap(),
-    val probabilities: Map<String, Double> = emptyMap(),
+    val counts: MeasurementCounts = MeasurementCounts.EMPTY,
+    val probabilities: MeasurementProbabilities = MeasurementProbabilities.EMPTY,
     @SerialName("state_vector")
     val stateVector: List<ComplexNumberDto>? = null,
     val shots: Int = 1024,
@@ -4,6 +4,9 @@ import com.swiftquantum.data.api.HybridEngineApi
 import com.swiftquantum.data.dto.CircuitDto
 import com.swiftquantum.data.dto.HybridEngineConfigDto
 import com.swiftquantum.data.dto.HybridExecutionRequestDto
+import com.swiftquantum.data.simulator.LocalExecutionScheduler
+import com.swiftquantum.data.simulator.LocalSimulationEngine
+import com.swiftquantum.data.simulator.SimulationOptions
 import com.swiftquantum.domain.model.BenchmarkResult
 import com.swiftquantum.domain.model.Circuit
 import com.swiftquantum.domain.model.EngineBenchmarkEntry
@@ -13,18 +16,24 @@ import com.swiftquantum.domain.model.ExecutionStatus
 import com.swiftquantum.domain.model.HybridEngineConfig
 import com.swiftquantum.domain.model.HybridEngineType
 import com.swiftquantum.domain.model.HybridExecutionResult
+import com.swiftquantum.domain.model.MeasurementCounts
 import com.swiftquantum.domain.model.OptimizationLevel
+import com.swiftquantum.domain.model.ResultCacheStats
 import com.swiftquantum.domain.repository.HybridEngineRepository
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.withContext
+import timber.log.Timber
 import javax.inject.Inject
 import javax.inject.Singleton
 import kotlin.random.Random
 
 @Singleton
 class HybridEngineRepositoryImpl @Inject constructor(
-    private val hybridEngineApi: HybridEngineApi
+    private val hybridEngineApi: HybridEngineApi,
+    private val localSimulationEngine: LocalSimulationEngine,
+    private val localExecutionScheduler: LocalExecutionScheduler
 ) : HybridEngineRepository {
 
     override suspend fun executeWithEngine(
@@ -33,6 +42,19 @@ class HybridEngineRepositoryImpl @Inject constructor(
         shots: Int,
         optimizationLevel: OptimizationLevel,
         config: HybridEngineConfig?
+    ): Result<HybridExecutionResult> {
+        if (engineType == HybridEngineType.LOCAL) {
+            return executeOnDevice(circuit, shots, config)
+        }
+        return executeRemotely(circuit, engineType, shots, optimizationLevel, config)
+    }
+
+    private suspend fun executeRemotely(
+        circuit: Circuit,
+        engineType: HybridEngineType,
+        shots: Int,
+        optimizationLevel: OptimizationLevel,
+        config: HybridEngineConfig?
     ): Result<HybridExecutionResult> = withContext(Dispatchers.IO) {
         try {
             val response = hybridEngineApi.executeWithEngine(
@@ -120,20 +142,23 @@ class HybridEngineRepositoryImpl @Inject constructor(
 
                 if (response.isSuccessful && response.body()?.success == true) {
                     response.body()?.data?.let { dtos ->
-                        return@withContext Result.success(dtos.map { it.toDomain() })
+                        return@withContext Result.success(withLocalStatus(dtos.map { it.toDomain() }))
                     }
                 }
 
                 // Return mock status as fallback
-                Result.success(getMockEngineStatus())
+                Result.success(withLocalStatus(getMockEngineStatus()))
             } catch (e: Exception) {
                 // Return mock status on network error
-                Result.success(getMockEngineStatus())
+                Result.success(withLocalStatus(getMockEngineStatus()))
             }
         }
 
     override suspend fun getEngineStatus(engineType: HybridEngineType): Result<EngineStatus> =
         withContext(Dispatchers.IO) {
+            if (engineType == HybridEngineType.LOCAL) {
+                return@withContext Result.success(localExecutionScheduler.status())
+            }
             try {
                 val response = hybridEngineApi.getEngineStatus(engineType.name.lowercase())
 
@@ -152,6 +177,66 @@ class HybridEngineRepositoryImpl @Inject constructor(
             }
         }
 
+    override suspend fun getResultCacheStats(): Result<ResultCacheStats> = withContext(Dispatchers.IO) {
+        Result.success(localSimulationEngine.cacheStats())
+    }
+
+    override suspend fun clearResultCache(): Result<Unit> = withContext(Dispatchers.IO) {
+        try {
+            localSimulationEngine.clearCache()
+            Result.success(Unit)
+        } catch (e: Exception) {
+            Timber.e(e, "Failed to clear result cache")
+            Result.failure(e)
+        }
+    }
+
+    private suspend fun executeOnDevice(
+        circuit: Circuit,
+        shots: Int,
+        config: HybridEngineConfig?
+    ): Result<HybridExecutionResult> {
+        return try {
+            val run = localExecutionScheduler.run(circuit, shots, SimulationOptions.from(config))
+            val executionSeconds = maxOf(run.executionTimeMs, 1L) / 1000.0
+
+            run.state.use {
+                Result.success(
+                    HybridExecutionResult(
+                        id = "local_${System.currentTimeMillis()}",
+                        engineType = HybridEngineType.LOCAL,
+                        status = ExecutionStatus.COMPLETED,
+                        counts = run.counts,
+                        probabilities = run.counts.toProbabilities(shots),
+                        shots = shots,
+                        metrics = EnginePerformanceMetrics(
+                            executionTimeMs = run.executionTimeMs,
+                            memoryUsedBytes = run.state?.sizeBytes ?: 0L,
+                            speedupFactor = pythonBaselineMs(circuit).toDouble() / maxOf(run.executionTimeMs, 1L),
+                            gatesPerSecond = circuit.gateCount / executionSeconds,
+                            circuitDepth = circuit.depth,
+                            threadsUsed = run.threadsUsed,
+                            parallelSpeedup = run.parallelSpeedup,
+                            truncationError = run.state?.truncationError ?: (1.0 - run.fidelity),
+                            gatesPerSweep = run.gatesPerSweep,
+                            cacheHit = run.cacheHit,
+                            approximate = run.approximate
+                        )
+                    )
+                )
+            }
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Timber.e(e, "On-device execution failed")
+            Result.failure(e)
+        }
+    }
+
+    /** Replaces any reported on-device entry with the scheduler's live one. */
+    private fun withLocalStatus(statuses: List<EngineStatus>): List<EngineStatus> =
+        statuses.filter { it.engineType != HybridEngineType.LOCAL } + localExecutionScheduler.status()
+
     private suspend fun simulateLocally(
         circuit: Circuit,
         engineType: HybridEngineType,
@@ -192,17 +277,16 @@ class HybridEngineRepositoryImpl @Inject constructor(
         }
 
         val executionTime = System.currentTimeMillis() - startTime
-        val pythonBaseline = 500L + (circuit.numQubits * 50L)
-        val speedupFactor = pythonBaseline.toDouble() / maxOf(executionTime, 1L)
+        val speedupFactor = pythonBaselineMs(circuit).toDouble() / maxOf(executionTime, 1L)
 
-        val probabilities = counts.mapValues { it.value.toDouble() / shots }
+        val measured = MeasurementCounts.from(counts)
 
         return HybridExecutionResult(
             id = "local_${System.currentTimeMillis()}",
             engineType = engineType,
             status = ExecutionStatus.COMPLETED,
-            counts = counts,
-            probabilities = probabilities,
+            counts = measured,
+            probabilities = measured.toProbabilities(shots),
             shots = shots,
             metrics = EnginePerformanceMetrics(
                 executionTimeMs = executionTime,
@@ -214,6 +298,9 @@ class HybridEngineRepositoryImpl @Inject constructor(
         )
     }
 
+    /** Reference time of the Python engine that every speedup factor is measured against. */
+    private fun pythonBaselineMs(circuit: Circuit): Long = 500L + (circuit.numQubits * 50L)
+
     private suspend fun generateLocalBenchmark(
         circuit: Circuit,
         shots: Int
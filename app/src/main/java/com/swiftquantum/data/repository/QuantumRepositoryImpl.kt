@@ -6,27 +6,42 @@ import com.swiftquantum.data.dto.CreateCircuitRequest
 import com.swiftquantum.data.dto.GateDto
 import com.swiftquantum.data.dto.SimulationRequest
 import com.swiftquantum.data.dto.UpdateCircuitRequest
+import com.swiftquantum.data.simulator.AdjointGradientSimulator
+import com.swiftquantum.data.simulator.ExpectationSimulator
+import com.swiftquantum.data.simulator.LocalExecutionScheduler
+import com.swiftquantum.data.simulator.SimulationOptions
+import com.swiftquantum.data.simulator.SweepSimulator
 import com.swiftquantum.domain.model.Circuit
-import com.swiftquantum.domain.model.ComplexNumber
 import com.swiftquantum.domain.model.ExecutionBackend
+import com.swiftquantum.domain.model.ExecutionMetadata
+import com.swiftquantum.domain.model.ExecutionPriority
 import com.swiftquantum.domain.model.ExecutionResult
 import com.swiftquantum.domain.model.ExecutionStatus
+import com.swiftquantum.domain.model.ExpectationResult
+import com.swiftquantum.domain.model.GradientResult
+import com.swiftquantum.domain.model.Hamiltonian
+import com.swiftquantum.domain.model.HybridEngineConfig
+import com.swiftquantum.domain.model.ParameterSweep
+import com.swiftquantum.domain.model.SweepPointResult
 import com.swiftquantum.domain.repository.QuantumRepository
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.channels.trySendBlocking
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.channelFlow
 import kotlinx.coroutines.flow.flow
 import timber.log.Timber
 import javax.inject.Inject
 import javax.inject.Singleton
-import kotlin.math.cos
-import kotlin.math.pow
-import kotlin.math.sin
-import kotlin.math.sqrt
-import kotlin.random.Random
 
 @Singleton
 class QuantumRepositoryImpl @Inject constructor(
-    private val quantumApi: QuantumApi
+    private val quantumApi: QuantumApi,
+    private val localExecutionScheduler: LocalExecutionScheduler,
+    private val expectationSimulator: ExpectationSimulator,
+    private val sweepSimulator: SweepSimulator,
+    private val adjointGradientSimulator: AdjointGradientSimulator
 ) : QuantumRepository {
 
     override suspend fun saveCircuit(circuit: Circuit): Result<Circuit> {
@@ -191,136 +206,106 @@ class QuantumRepositoryImpl @Inject constructor(
         }
     }
 
-    override suspend fun runLocalSimulation(circuit: Circuit, shots: Int): Result<ExecutionResult> {
+    override suspend fun runLocalSimulation(
+        circuit: Circuit,
+        shots: Int,
+        config: HybridEngineConfig?,
+        priority: ExecutionPriority
+    ): Result<ExecutionResult> {
         return try {
-            val startTime = System.currentTimeMillis()
-
-            // Simplified local quantum simulation
-            val numStates = 1 shl circuit.numQubits
-            val stateVector = simulateCircuit(circuit)
-
-            // Sample from state vector
-            val counts = mutableMapOf<String, Int>()
-            val probabilities = stateVector.map { it.probability }
-
-            repeat(shots) {
-                val state = sampleState(probabilities)
-                val stateString = state.toString(2).padStart(circuit.numQubits, '0')
-                counts[stateString] = counts.getOrDefault(stateString, 0) + 1
+            val run = localExecutionScheduler.run(circuit, shots, SimulationOptions.from(config), priority)
+            val result = run.state.use {
+                ExecutionResult(
+                    id = "local_${System.currentTimeMillis()}",
+                    circuitId = circuit.id,
+                    status = ExecutionStatus.COMPLETED,
+                    backend = ExecutionBackend.RUST_SIMULATOR,
+                    counts = run.counts,
+                    probabilities = run.counts.toProbabilities(shots),
+                    // A noisy run has no single final state to show
+                    stateVector = if (run.trajectories == 0) run.state?.amplitudes() else null,
+                    shots = shots,
+                    executionTimeMs = run.executionTimeMs,
+                    fidelity = run.fidelity,
+                    metadata = ExecutionMetadata(localBackend = run.backend.configValue, approximate = run.approximate)
+                )
             }
 
-            val probabilitiesMap = counts.mapValues { it.value.toDouble() / shots }
-            val executionTime = System.currentTimeMillis() - startTime
-
-            val result = ExecutionResult(
-                id = "local_${System.currentTimeMillis()}",
-                circuitId = circuit.id,
-                status = ExecutionStatus.COMPLETED,
-                backend = ExecutionBackend.RUST_SIMULATOR,
-                counts = counts,
-                probabilities = probabilitiesMap,
-                stateVector = stateVector,
-                shots = shots,
-                executionTimeMs = executionTime,
-                fidelity = 1.0
-            )
-
             Result.success(result)
+        } catch (e: CancellationException) {
+            throw e
         } catch (e: Exception) {
             Timber.e(e, "Local simulation failed")
             Result.failure(e)
         }
     }
 
-    private fun simulateCircuit(circuit: Circuit): List<ComplexNumber> {
-        val numStates = 1 shl circuit.numQubits
-        var stateVector = MutableList(numStates) { i ->
-            if (i == 0) ComplexNumber(1.0, 0.0) else ComplexNumber(0.0, 0.0)
-        }
-
-        // Apply gates in order
-        circuit.gates.sortedBy { it.position }.forEach { gate ->
-            stateVector = applyGate(stateVector, gate, circuit.numQubits)
+    override suspend fun computeExpectation(
+        circuit: Circuit,
+        hamiltonian: Hamiltonian,
+        config: HybridEngineConfig?
+    ): Result<ExpectationResult> {
+        return try {
+            val bytes = expectationSimulator.plannedBytes(circuit.numQubits)
+            val result = localExecutionScheduler.execute(circuit, bytes) {
+                expectationSimulator.expectation(circuit, hamiltonian, SimulationOptions.from(config))
+            }
+            Result.success(result)
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Timber.e(e, "Expectation value failed")
+            Result.failure(e)
         }
-
-        return stateVector
     }
 
-    private fun applyGate(
-        state: MutableList<ComplexNumber>,
-        gate: com.swiftquantum.domain.model.Gate,
-        numQubits: Int
-    ): MutableList<ComplexNumber> {
-        val newState = state.toMutableList()
-        val target = gate.targetQubits.firstOrNull() ?: return newState
-
-        when (gate.type) {
-            com.swiftquantum.domain.model.GateType.H -> {
-                val factor = 1.0 / sqrt(2.0)
-                for (i in state.indices) {
-                    val bitValue = (i shr target) and 1
-                    val partner = i xor (1 shl target)
-                    if (bitValue == 0 && i < partner) {
-                        val a = state[i]
-                        val b = state[partner]
-                        newState[i] = ComplexNumber(
-                            (a.real + b.real) * factor,
-                            (a.imaginary + b.imaginary) * factor
-                        )
-                        newState[partner] = ComplexNumber(
-                            (a.real - b.real) * factor,
-                            (a.imaginary - b.imaginary) * factor
-                        )
-                    }
-                }
-            }
-            com.swiftquantum.domain.model.GateType.X -> {
-                for (i in state.indices) {
-                    val partner = i xor (1 shl target)
-                    if (i < partner) {
-                        val temp = newState[i]
-                        newState[i] = newState[partner]
-                        newState[partner] = temp
-                    }
-                }
-            }
-            com.swiftquantum.domain.model.GateType.Z -> {
-                for (i in state.indices) {
-                    if ((i shr target) and 1 == 1) {
-                        newState[i] = ComplexNumber(-state[i].real, -state[i].imaginary)
-                    }
-                }
-            }
-            com.swiftquantum.domain.model.GateType.CNOT -> {
-                val control = gate.controlQubits.firstOrNull() ?: return newState
-                for (i in state.indices) {
-                    if ((i shr control) and 1 == 1) {
-                        val partner = i xor (1 shl target)
-                        if (i < partner) {
-                            val temp = newState[i]
-                            newState[i] = newState[partner]
-                            newState[partner] = temp
-                        }
-                    }
-                }
-            }
-            else -> {
-                // For other gates, just return state unchanged (simplified)
+    override suspend fun computeGradient(
+        circuit: Circuit,
+        hamiltonian: Hamiltonian,
+        parameters: List<Double>?,
+        config: HybridEngineConfig?
+    ): Result<GradientResult> {
+        return try {
+            val bytes = adjointGradientSimulator.plannedBytes(circuit.numQubits)
+            // The backward walk costs about two more runs of the circuit
+            val result = localExecutionScheduler.execute(circuit, bytes, runs = 3) {
+                adjointGradientSimulator.gradient(
+                    circuit, hamiltonian, parameters?.toDoubleArray(), SimulationOptions.from(config)
+                )
             }
+            Result.success(result)
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Timber.e(e, "Gradient failed")
+            Result.failure(e)
         }
-
-        return newState
     }
 
-    private fun sampleState(probabilities: List<Double>): Int {
-        val random = Random.nextDouble()
-        var cumulative = 0.0
-        for (i in probabilities.indices) {
-            cumulative += probabilities[i]
-            if (random <= cumulative) {
-                return i
+    override fun runParameterSweep(
+        circuit: Circuit,
+        sweep: ParameterSweep,
+        config: HybridEngineConfig?,
+        priority: ExecutionPriority
+    ): Flow<SweepPointResult> = channelFlow {
+        val options = SimulationOptions.from(config)
+        val bytes = sweepSimulator.plannedBytes(circuit.numQubits, options.parallel)
+        try {
+            localExecutionScheduler.execute(circuit, bytes, priority, runs = sweep.points.size) {
+                // Emits from this scheduler worker only, never from a pool thread, so waiting on a slow
+                // collector holds no kernel threads; a closed channel ends the sweep
+                sweepSimulator.sweep(circuit, sweep, options) { trySendBlocking(it).isSuccess }
             }
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Timber.e(e, "Parameter sweep failed")
+            throw e
         }
-        return probabilities.lastIndex
+    }.buffer(SWEEP_BUFFER)
+
+    private companion object {
+        /** Sweep results held ahead of a slow collector before the sweep waits. */
+        const val SWEEP_BUFFER = 256
     }
 }
@@ -0,0 +1,120 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.ComplexNumber
+import com.swiftquantum.domain.model.MeasurementCounts
+
+/**
+ * Cache-blocked view of [state]: kernels that stay inside a block of 2^[tileQubits] amplitudes
+ * are queued in a [TileBatch] and run block by block, so a run of them costs one pass over
+ * memory. Anything else, including every read, applies the queue first.
+ *
+ * [stats] has already counted each queued kernel as a sweep; a flushed batch counts as one.
+ */
+class BlockedStateVector(
+    val state: StateVector,
+    tileQubits: Int,
+    private val stats: SweepStats = SweepStats()
+) : StateVector {
+
+    private val batch = TileBatch(tileQubits)
+
+    override val numQubits: Int
+        get() = state.numQubits
+
+    override val dimension: Int
+        get() = state.dimension
+
+    override val precision: Precision
+        get() = state.precision
+
+    override val sizeBytes: Long
+        get() = state.sizeBytes
+
+    override fun probability(index: Int): Double {
+        flushTiles()
+        return state.probability(index)
+    }
+
+    override fun probabilities(): DoubleArray {
+        flushTiles()
+        return state.probabilities()
+    }
+
+    override fun setAmplitude(index: Int, re: Double, im: Double) {
+        flushTiles()
+        state.setAmplitude(index, re, im)
+    }
+
+    override fun asComplexList(): List<ComplexNumber> {
+        flushTiles()
+        return state.asComplexList()
+    }
+
+    override fun sample(shots: Int, executor: KernelExecutor, seed: Long?): MeasurementCounts {
+        flushTiles()
+        return state.sample(shots, executor, seed)
+    }
+
+    override fun applyMatrix(target: Int, matrix: DoubleArray, controlMask: Int, controlValue: Int) {
+        if (batch.isLocal(1 shl target)) {
+            batch.matrix(target, matrix, controlMask, controlValue)
+        } else {
+            flushTiles()
+            state.applyMatrix(target, matrix, controlMask, controlValue)
+        }
+    }
+
+    override fun applyMatrix4(q0: Int, q1: Int, matrix: DoubleArray) {
+        if (batch.isLocal((1 shl q0) or (1 shl q1))) {
+            batch.matrix4(q0, q1, matrix)
+        } else {
+            flushTiles()
+            state.applyMatrix4(q0, q1, matrix)
+        }
+    }
+
+    override fun applyX(target: Int, controlMask: Int, controlValue: Int) {
+        if (batch.isLocal(1 shl target)) {
+            batch.flip(target, controlMask, controlValue)
+        } else {
+            flushTiles()
+            state.applyX(target, controlMask, controlValue)
+        }
+    }
+
+    // Phases never pair amplitudes, so they always fit in a block
+    override fun applyPhase(mask: Int, re: Double, im: Double, value: Int) {
+        batch.phase(mask, re, im, value)
+    }
+
+    override fun applySwap(q0: Int, q1: Int, controlMask: Int, re: Double, im: Double, controlValue: Int) {
+        if (batch.isLocal((1 shl q0) or (1 shl q1))) {
+            batch.swap(q0, q1, controlMask, re, im, controlValue)
+        } else {
+            flushTiles()
+            state.applySwap(q0, q1, controlMask, re, im, controlValue)
+        }
+    }
+
+    override fun applyPhaseTable(qubits: Int, table: DoubleArray) {
+        batch.phaseTable(qubits, table)
+    }
+
+    override fun applyTiles(batch: TileBatch) {
+        flushTiles()
+        state.applyTiles(batch)
+    }
+
+    override fun applyPermutation(permutation: LazyPermutation) {
+        flushTiles()
+        state.applyPermutation(permutation)
+    }
+
+    /** Applies the queued kernels in one blocked pass. */
+    fun flushTiles() {
+        if (batch.isEmpty()) return
+        state.applyTiles(batch)
+        stats.mergeSweeps(batch.size)
+        batch.clear()
+    }
+}
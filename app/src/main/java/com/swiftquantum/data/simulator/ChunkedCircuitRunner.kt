@@ -0,0 +1,63 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.OptimizationLevel
+
+/**
+ * Streams a circuit through a [ChunkedStateVector].
+ *
+ * Every pass visits the whole state, so runs of single-qubit gates on a wire are multiplied
+ * into one matrix first (at [OptimizationLevel.BASIC] and above) and applied when another gate
+ * touches the wire.
+ */
+object ChunkedCircuitRunner {
+
+    fun run(
+        state: ChunkedStateVector,
+        circuit: Circuit,
+        stats: SweepStats = SweepStats(),
+        optimizationLevel: OptimizationLevel = OptimizationLevel.BASIC
+    ) {
+        val fuse = optimizationLevel.value >= OptimizationLevel.BASIC.value
+        val wires = arrayOfNulls<DoubleArray>(circuit.numQubits)
+
+        fun flushWires(mask: Long) {
+            for (q in wires.indices) {
+                val wire = wires[q] ?: continue
+                if (mask and (1L shl q) == 0L) continue
+                state.applyMatrix(q, wire)
+                wires[q] = null
+                stats.recordSweep()
+            }
+        }
+
+        val program = CompiledCircuit.of(circuit)
+        for (index in 0 until program.size) {
+            KernelExecutor.ensureActive()
+            stats.recordGate()
+            val controlMask = program.controlMasks[index]
+            val target = program.targets[index]
+            val targetMask = program.qubitMask(index) and controlMask.inv()
+            when (val opcode = program.opcodes[index]) {
+                CompiledCircuit.OP_SWAP, CompiledCircuit.OP_ISWAP -> {
+                    flushWires(controlMask or targetMask)
+                    val (re, im) = if (opcode == CompiledCircuit.OP_ISWAP) 0.0 to 1.0 else 1.0 to 0.0
+                    state.applySwap(target, program.secondTargets[index], controlMask, re, im)
+                    stats.recordSweep()
+                }
+                else -> {
+                    val matrix = program.matrix(index)
+                    val wire = wires[target]
+                    if (fuse && controlMask == 0L) {
+                        wires[target] = if (wire == null) matrix else GateMatrices.multiply(matrix, wire)
+                    } else {
+                        flushWires(controlMask or targetMask)
+                        state.applyMatrix(target, matrix, controlMask)
+                        stats.recordSweep()
+                    }
+                }
+            }
+        }
+        flushWires(-1L)
+    }
+}
@@ -0,0 +1,216 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.BasisKeys
+import com.swiftquantum.domain.model.ComplexNumber
+import com.swiftquantum.domain.model.MeasurementCounts
+import java.util.SplittableRandom
+
+/**
+ * Dense state split into chunks of up to 2^[maxChunkQubits] amplitudes, for storage that
+ * cannot hold the whole state as one array.
+ *
+ * Every gate streams over the chunks: a pair inside a chunk visits each chunk once, and a pair
+ * on a higher qubit visits the two chunks it pairs together. Controls above the chunk skip
+ * whole chunks. Basis indices and masks are Longs, so widths past 31 qubits are limited by
+ * storage only.
+ */
+abstract class ChunkedStateVector(
+    final override val numQubits: Int,
+    maxChunkQubits: Int,
+    protected val executor: KernelExecutor
+) : SimulatedState {
+
+    val dimension: Long = 1L shl numQubits
+
+    protected val chunkQubits = minOf(numQubits, maxChunkQubits)
+    protected val chunkSize = 1 shl chunkQubits
+    protected val chunkCount = 1 shl (numQubits - chunkQubits)
+    private val localMask = chunkSize.toLong() - 1
+
+    /**
+     * True when different chunks may be acquired from several threads at once. Otherwise chunks
+     * are visited one after another and only the work inside a chunk is split across cores.
+     */
+    protected open val concurrentChunks: Boolean
+        get() = true
+
+    /** Chunk [index], ready to read and write until it is handed back to [release]. */
+    protected abstract fun acquire(index: Int): Chunk
+
+    protected open fun release(index: Int, chunk: Chunk, modified: Boolean) {}
+
+    /** True when chunk [index] is known to hold only zeros, which every gate maps to zeros. */
+    protected open fun isZero(index: Int): Boolean = false
+
+    fun probability(index: Long): Double {
+        val c = (index ushr chunkQubits).toInt()
+        val chunk = acquire(c)
+        return chunk.probability((index and localMask).toInt()).also { release(c, chunk, false) }
+    }
+
+    /**
+     * Applies the 2x2 [matrix] to [target] on every basis pair whose [controlMask] bits equal
+     * [controlValue].
+     */
+    fun applyMatrix(target: Int, matrix: DoubleArray, controlMask: Long = 0L, controlValue: Long = controlMask) {
+        val m00r = matrix[0]; val m00i = matrix[1]
+        val m01r = matrix[2]; val m01i = matrix[3]
+        val m10r = matrix[4]; val m10i = matrix[5]
+        val m11r = matrix[6]; val m11i = matrix[7]
+        forEachPair(0L, 1L shl target, controlMask, controlValue) { a, i, b, j ->
+            val ar = a.re(i); val ai = a.im(i)
+            val br = b.re(j); val bi = b.im(j)
+            a.set(
+                i,
+                m00r * ar - m00i * ai + m01r * br - m01i * bi,
+                m00r * ai + m00i * ar + m01r * bi + m01i * br
+            )
+            b.set(
+                j,
+                m10r * ar - m10i * ai + m11r * br - m11i * bi,
+                m10r * ai + m10i * ar + m11r * bi + m11i * br
+            )
+        }
+    }
+
+    /**
+     * Exchanges qubits [q0] and [q1] where the controls match, multiplying the moved
+     * amplitudes by (re, im).
+     */
+    fun applySwap(
+        q0: Int,
+        q1: Int,
+        controlMask: Long = 0L,
+        re: Double = 1.0,
+        im: Double = 0.0,
+        controlValue: Long = controlMask
+    ) {
+        forEachPair(1L shl q0, 1L shl q1, controlMask, controlValue) { a, i, b, j ->
+            val ar = a.re(i); val ai = a.im(i)
+            val br = b.re(j); val bi = b.im(j)
+            a.set(i, br * re - bi * im, br * im + bi * re)
+            b.set(j, ar * re - ai * im, ar * im + ai * re)
+        }
+    }
+
+    /** Chunk storage lives in a file mapping or behind a native codec. */
+    override val holdsNativeResources: Boolean
+        get() = true
+
+    /**
+     * Amplitudes copied out chunk by chunk, so the list stays valid after [close]; null past
+     * [MAX_LISTED_QUBITS], where the copy would not fit in the heap.
+     */
+    override fun amplitudes(): List<ComplexNumber>? {
+        if (numQubits > MAX_LISTED_QUBITS) return null
+        val amplitudes = ArrayList<ComplexNumber>(dimension.toInt())
+        for (c in 0 until chunkCount) {
+            val chunk = acquire(c)
+            for (i in 0 until chunkSize) amplitudes += ComplexNumber(chunk.re(i), chunk.im(i))
+            release(c, chunk, false)
+        }
+        return amplitudes
+    }
+
+    /**
+     * Spreads the shots over chunks by their probability mass, then samples inside each chunk
+     * that received any.
+     */
+    override fun sample(shots: Int, executor: KernelExecutor, seed: Long?): MeasurementCounts {
+        val mass = DoubleArray(chunkCount)
+        forEachChunk(executor) { c ->
+            if (isZero(c)) return@forEachChunk
+            val chunk = acquire(c)
+            var sum = 0.0
+            for (i in 0 until chunkSize) sum += chunk.probability(i)
+            release(c, chunk, false)
+            mass[c] = sum
+        }
+        val seeds = seed?.let { SplittableRandom(it) } ?: SplittableRandom()
+        val perChunk = ShotSampler(executor, seeds.nextLong()).sample(chunkCount, shots) { mass[it] }
+
+        val indices = ArrayList<Long>()
+        val counts = ArrayList<Int>()
+        for (k in 0 until perChunk.size) {
+            val c = perChunk.indices[k]
+            val chunk = acquire(c)
+            val sampled = ShotSampler(executor, seeds.nextLong()).sample(chunkSize, perChunk.counts[k]) {
+                chunk.probability(it)
+            }
+            release(c, chunk, false)
+            val base = c.toLong() shl chunkQubits
+            for (s in 0 until sampled.size) {
+                indices += base + sampled.indices[s]
+                counts += sampled.counts[s]
+            }
+        }
+        return MeasurementCounts(BasisKeys.ofSorted(numQubits, indices.toLongArray()), counts.toIntArray())
+    }
+
+    /**
+     * Calls [kernel] once for every pair (base | [offsetA], base | [offsetB]), where base runs
+     * over the indices with the control and offset bits clear and [controlValue] set. Each base
+     * chunk owns the chunks it pairs, so base chunks never overlap.
+     */
+    private fun forEachPair(offsetA: Long, offsetB: Long, controlMask: Long, controlValue: Long, kernel: PairKernel) {
+        val fixed = controlMask or offsetA or offsetB
+        val highFixed = fixed and localMask.inv()
+        val highValue = controlValue and localMask.inv()
+        val localFixed = StateVector.bitPositions((fixed and localMask).toInt())
+        val localValue = (controlValue and localMask).toInt()
+        val localA = (offsetA and localMask).toInt()
+        val localB = (offsetB and localMask).toInt()
+        val highA = (offsetA ushr chunkQubits).toInt()
+        val highB = (offsetB ushr chunkQubits).toInt()
+        val count = chunkSize shr localFixed.size
+
+        forEachChunk(executor) { c ->
+            if ((c.toLong() shl chunkQubits) and highFixed != highValue) return@forEachChunk
+            if (isZero(c or highA) && isZero(c or highB)) return@forEachChunk
+            val a = acquire(c or highA)
+            val b = if (highB == highA) a else acquire(c or highB)
+            val inner = if (concurrentChunks) KernelExecutor.serial() else executor
+            inner.forRange(count) { from, to ->
+                for (k in from until to) {
+                    val local = StateVector.insertZeroBits(k, localFixed) or localValue
+                    kernel.apply(a, local or localA, b, local or localB)
+                }
+            }
+            if (b !== a) release(c or highB, b, true)
+            release(c or highA, a, true)
+        }
+    }
+
+    /** Runs [body] for every chunk index, across cores when [concurrentChunks]. */
+    private inline fun forEachChunk(executor: KernelExecutor, crossinline body: (Int) -> Unit) {
+        if (concurrentChunks) {
+            executor.forRange(chunkCount, chunkSize) { from, to ->
+                for (c in from until to) body(c)
+            }
+        } else {
+            for (c in 0 until chunkCount) body(c)
+        }
+    }
+
+    private fun interface PairKernel {
+        fun apply(a: Chunk, i: Int, b: Chunk, j: Int)
+    }
+
+    /** One chunk of amplitudes. */
+    abstract class Chunk {
+        abstract fun re(i: Int): Double
+        abstract fun im(i: Int): Double
+        abstract fun set(i: Int, re: Double, im: Double)
+
+        fun probability(i: Int): Double {
+            val re = re(i)
+            val im = im(i)
+            return re * re + im * im
+        }
+    }
+
+    companion object {
+        /** Widest state [amplitudes] copies out: 2^20 amplitudes. */
+        const val MAX_LISTED_QUBITS = 20
+    }
+}
@@ -0,0 +1,167 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.Gate
+import com.swiftquantum.domain.model.GateType
+import timber.log.Timber
+import java.util.Collections
+
+/**
+ * A circuit lowered for the local engines: gates in position order with operands resolved, as
+ * parallel arrays indexed by instruction, so running it again costs no sorting, list reads or
+ * trig calls.
+ *
+ * Each instruction has an [opcodes] entry, a first and second target, a logical control mask
+ * and an index into [matrices], which also holds every matrix conjugated by X for targets whose
+ * stored value is inverted. Gates without enough qubits are dropped at compile time.
+ */
+class CompiledCircuit private constructor(
+    val numQubits: Int,
+    val opcodes: IntArray,
+    val targets: IntArray,
+    val secondTargets: IntArray,
+    val controlMasks: LongArray,
+    private val matrixIndices: IntArray,
+    private val matrices: Array<DoubleArray>,
+    private val flippedMatrices: Array<DoubleArray>,
+    private val types: Array<GateType>
+) {
+    val size: Int
+        get() = opcodes.size
+
+    /** Number of leading instructions that keep real amplitudes real (see [GateMatrices.isReal]). */
+    val realPrefix: Int = types.indexOfFirst { !GateMatrices.isReal(it) }.let { if (it < 0) types.size else it }
+
+    fun type(index: Int): GateType = types[index]
+
+    /** Matrix of instruction [index] on its target; shared and must not be modified. */
+    fun matrix(index: Int): DoubleArray = matrices[matrixIndices[index]]
+
+    /** X·[matrix]·X, for a target stored inverted. */
+    fun flippedMatrix(index: Int): DoubleArray = flippedMatrices[matrixIndices[index]]
+
+    /** Logical qubits instruction [index] acts on, controls included. */
+    fun qubitMask(index: Int): Long {
+        val mask = controlMasks[index] or (1L shl targets[index])
+        return if (secondTargets[index] < 0) mask else mask or (1L shl secondTargets[index])
+    }
+
+    /**
+     * A copy in which instruction `indices[k]` applies `replacements[k]`, for re-binding the
+     * angles of a parameterized circuit without compiling it again. Operands are shared.
+     */
+    fun withMatrices(indices: IntArray, replacements: Array<DoubleArray>): CompiledCircuit {
+        val newOpcodes = opcodes.copyOf()
+        val newIndices = matrixIndices.copyOf()
+        val newMatrices = matrices.copyOf(matrices.size + replacements.size)
+        val newFlipped = flippedMatrices.copyOf(matrices.size + replacements.size)
+        indices.forEachIndexed { k, index ->
+            val matrix = replacements[k]
+            val slot = matrices.size + k
+            newMatrices[slot] = matrix
+            newFlipped[slot] = GateMatrices.conjugateByX(matrix)
+            newIndices[index] = slot
+            newOpcodes[index] = if (GateMatrices.isDiagonal(matrix)) OP_PHASE else OP_MATRIX
+        }
+        @Suppress("UNCHECKED_CAST")
+        return CompiledCircuit(
+            numQubits,
+            newOpcodes,
+            targets,
+            secondTargets,
+            controlMasks,
+            newIndices,
+            newMatrices as Array<DoubleArray>,
+            newFlipped as Array<DoubleArray>,
+            types
+        )
+    }
+
+    companion object {
+        /** Bit flip on the target where the controls are set: X, CNOT and Toffoli. */
+        const val OP_FLIP = 0
+
+        /** Exchange of the two targets: SWAP and Fredkin. */
+        const val OP_SWAP = 1
+
+        /** Exchange with a phase of i. */
+        const val OP_ISWAP = 2
+
+        /** Non-diagonal 2x2 matrix on the target. */
+        const val OP_MATRIX = 3
+
+        /** Diagonal 2x2 matrix on the target: phases only. */
+        const val OP_PHASE = 4
+
+        private const val CACHE_SIZE = 64
+
+        /** Compiled circuits by content, so reruns of an unchanged circuit skip compilation. */
+        private val cache: MutableMap<Key, CompiledCircuit> =
+            Collections.synchronizedMap(object : LinkedHashMap<Key, CompiledCircuit>(16, 0.75f, true) {
+                override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, CompiledCircuit>?) =
+                    size > CACHE_SIZE
+            })
+
+        /** The compiled form of [circuit], shared with every earlier circuit of the same content. */
+        fun of(circuit: Circuit): CompiledCircuit {
+            val key = Key(circuit.numQubits, circuit.gates)
+            cache[key]?.let { return it }
+            return compile(circuit.numQubits, circuit.gates).also { cache[key] = it }
+        }
+
+        /** Compiles [gates] without caching, for one-off fragments. */
+        fun compile(numQubits: Int, gates: List<Gate>): CompiledCircuit {
+            val sorted = gates.sortedBy { it.position }
+            val opcodes = IntArray(sorted.size)
+            val targets = IntArray(sorted.size)
+            val secondTargets = IntArray(sorted.size) { -1 }
+            val controlMasks = LongArray(sorted.size)
+            val matrixIndices = IntArray(sorted.size) { -1 }
+            val types = ArrayList<GateType>(sorted.size)
+            val matrices = ArrayList<DoubleArray>()
+            val slots = HashMap<DoubleArray, Int>()
+
+            var count = 0
+            for (gate in sorted) {
+                val operands = gate.resolveOperands()
+                if (operands == null) {
+                    Timber.w("Skipping ${gate.type.displayName}: not enough qubits")
+                    continue
+                }
+                targets[count] = operands.target
+                controlMasks[count] = operands.controlBits
+                val matrix = when (gate.type) {
+                    GateType.SWAP, GateType.FREDKIN, GateType.ISWAP -> {
+                        opcodes[count] = if (gate.type == GateType.ISWAP) OP_ISWAP else OP_SWAP
+                        secondTargets[count] = operands.targets[1]
+                        null
+                    }
+                    GateType.X, GateType.CNOT, GateType.TOFFOLI -> {
+                        opcodes[count] = OP_FLIP
+                        GateMatrices.X
+                    }
+                    else -> GateMatrices.forGate(gate.type, gate.parameters)?.also {
+                        opcodes[count] = if (GateMatrices.isDiagonal(it)) OP_PHASE else OP_MATRIX
+                    } ?: continue
+                }
+                // Identical matrices (same gate and angles) share one slot
+                if (matrix != null) matrixIndices[count] = slots.getOrPut(matrix) { matrices.size.also { matrices += matrix } }
+                types += gate.type
+                count++
+            }
+            return CompiledCircuit(
+                numQubits,
+                opcodes.copyOf(count),
+                targets.copyOf(count),
+                secondTargets.copyOf(count),
+                controlMasks.copyOf(count),
+                matrixIndices.copyOf(count),
+                matrices.toTypedArray(),
+                Array(matrices.size) { GateMatrices.conjugateByX(matrices[it]) },
+                types.toTypedArray()
+            )
+        }
+    }
+
+    private data class Key(val numQubits: Int, val gates: List<Gate>)
+}
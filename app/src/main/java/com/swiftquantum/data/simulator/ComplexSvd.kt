@@ -0,0 +1,146 @@
+package com.swiftquantum.data.simulator
+
+import kotlin.math.abs
+import kotlin.math.hypot
+import kotlin.math.sqrt
+
+/**
+ * Singular value decomposition of small dense complex matrices (row-major, interleaved
+ * re/im), by one-sided Jacobi rotations. Accurate to working precision, which matters more
+ * here than speed: the matrices are bond-sized, at most a few hundred on a side.
+ */
+object ComplexSvd {
+
+    private const val MAX_SWEEPS = 60
+    private const val EPSILON = 1e-15
+
+    /**
+     * `a = u * diag(s) * vh` with singular values in descending order.
+     * [u] is rows x rank and [vh] is rank x cols, where rank = min(rows, cols).
+     */
+    class Decomposition(
+        val rows: Int,
+        val cols: Int,
+        val rank: Int,
+        val u: DoubleArray,
+        val s: DoubleArray,
+        val vh: DoubleArray
+    )
+
+    fun decompose(a: DoubleArray, rows: Int, cols: Int): Decomposition {
+        if (cols > rows) {
+            // Rotate over the shorter side: a^H = u' s vh'  =>  a = vh'^H s u'^H
+            val d = decompose(conjugateTranspose(a, rows, cols), cols, rows)
+            return Decomposition(
+                rows = rows,
+                cols = cols,
+                rank = d.rank,
+                u = conjugateTranspose(d.vh, d.rank, rows),
+                s = d.s,
+                vh = conjugateTranspose(d.u, cols, d.rank)
+            )
+        }
+
+        val w = a.copyOf()
+        val v = DoubleArray(2 * cols * cols)
+        for (i in 0 until cols) v[2 * (i * cols + i)] = 1.0
+
+        for (sweep in 0 until MAX_SWEEPS) {
+            var rotated = false
+            for (i in 0 until cols - 1) {
+                for (j in i + 1 until cols) {
+                    var alpha = 0.0
+                    var beta = 0.0
+                    var gr = 0.0
+                    var gi = 0.0
+                    for (k in 0 until rows) {
+                        val pi = 2 * (k * cols + i)
+                        val pj = 2 * (k * cols + j)
+                        val xr = w[pi]; val xi = w[pi + 1]
+                        val yr = w[pj]; val yi = w[pj + 1]
+                        alpha += xr * xr + xi * xi
+                        beta += yr * yr + yi * yi
+                        // conj(x) * y
+                        gr += xr * yr + xi * yi
+                        gi += xr * yi - xi * yr
+                    }
+                    val gamma = hypot(gr, gi)
+                    if (gamma <= EPSILON * sqrt(alpha * beta) || gamma == 0.0) continue
+                    rotated = true
+
+                    // Phase column j so that the overlap is real, then rotate as in the real case
+                    val pr = gr / gamma
+                    val pim = -gi / gamma
+                    val zeta = (beta - alpha) / (2 * gamma)
+                    val t = (if (zeta >= 0) 1.0 else -1.0) / (abs(zeta) + sqrt(1 + zeta * zeta))
+                    val c = 1 / sqrt(1 + t * t)
+                    val s = c * t
+                    rotate(w, rows, cols, i, j, pr, pim, c, s)
+                    rotate(v, cols, cols, i, j, pr, pim, c, s)
+                }
+            }
+            if (!rotated) break
+        }
+
+        val norms = DoubleArray(cols) { i ->
+            var sum = 0.0
+            for (k in 0 until rows) {
+                val p = 2 * (k * cols + i)
+                sum += w[p] * w[p] + w[p + 1] * w[p + 1]
+            }
+            sqrt(sum)
+        }
+        val order = (0 until cols).sortedByDescending { norms[it] }
+
+        val u = DoubleArray(2 * rows * cols)
+        val vh = DoubleArray(2 * cols * cols)
+        val singular = DoubleArray(cols)
+        order.forEachIndexed { rank, column ->
+            val sigma = norms[column]
+            singular[rank] = sigma
+            if (sigma > 0.0) {
+                for (k in 0 until rows) {
+                    val from = 2 * (k * cols + column)
+                    val to = 2 * (k * cols + rank)
+                    u[to] = w[from] / sigma
+                    u[to + 1] = w[from + 1] / sigma
+                }
+            }
+            for (k in 0 until cols) {
+                val from = 2 * (k * cols + column)
+                val to = 2 * (rank * cols + k)
+                vh[to] = v[from]
+                vh[to + 1] = -v[from + 1]
+            }
+        }
+        return Decomposition(rows, cols, cols, u, singular, vh)
+    }
+
+    fun conjugateTranspose(a: DoubleArray, rows: Int, cols: Int): DoubleArray {
+        val t = DoubleArray(2 * rows * cols)
+        for (r in 0 until rows) {
+            for (c in 0 until cols) {
+                val from = 2 * (r * cols + c)
+                val to = 2 * (c * rows + r)
+                t[to] = a[from]
+                t[to + 1] = -a[from + 1]
+            }
+        }
+        return t
+    }
+
+    /** Columns (i, j) <- (c * x - s * e^{iφ}y, s * x + c * e^{iφ}y), with e^{iφ} = (pr, pi). */
+    private fun rotate(m: DoubleArray, rows: Int, cols: Int, i: Int, j: Int, pr: Double, pi: Double, c: Double, s: Double) {
+        for (k in 0 until rows) {
+            val p = 2 * (k * cols + i)
+            val q = 2 * (k * cols + j)
+            val xr = m[p]; val xi = m[p + 1]
+            val yr = m[q] * pr - m[q + 1] * pi
+            val yi = m[q] * pi + m[q + 1] * pr
+            m[p] = c * xr - s * yr
+            m[p + 1] = c * xi - s * yi
+            m[q] = s * xr + c * yr
+            m[q + 1] = s * xi + c * yi
+        }
+    }
+}
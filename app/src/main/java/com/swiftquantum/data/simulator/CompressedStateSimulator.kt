@@ -0,0 +1,51 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.OptimizationLevel
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Dense engine on a [CompressedStateVector], for structured registers too wide for a raw state.
+ */
+@Singleton
+class CompressedStateSimulator @Inject constructor() {
+
+    /**
+     * Runs [circuit] keeping at most [maxBytes] of compressed blocks and decompressed LRU. The
+     * caller closes the returned state once it is done with it.
+     *
+     * @throws IllegalStateException once the compressed state outgrows [maxBytes]
+     */
+    fun simulate(
+        circuit: Circuit,
+        precision: Precision = Precision.DOUBLE,
+        errorBound: Double = 0.0,
+        maxBytes: Long = Long.MAX_VALUE,
+        executor: KernelExecutor = KernelExecutor.serial(),
+        stats: SweepStats = SweepStats(),
+        optimizationLevel: OptimizationLevel = OptimizationLevel.BASIC
+    ): CompressedStateVector {
+        // Leave most of the budget to the compressed blocks
+        val hotBlocks = (maxBytes / HOT_SHARE / BLOCK_BYTES)
+            .coerceIn(2L, CompressedStateVector.DEFAULT_HOT_BLOCKS.toLong()).toInt()
+        val state = CompressedStateVector.create(circuit.numQubits, precision, errorBound, hotBlocks, maxBytes, executor)
+        try {
+            ChunkedCircuitRunner.run(state, circuit, stats, optimizationLevel)
+        } catch (e: Throwable) {
+            state.close()
+            throw e
+        }
+        Timber.d(
+            "Compressed ${circuit.numQubits} qubits to ${state.sizeBytes shr 20} MB " +
+                "(ratio ${"%.1f".format(state.compressionRatio)}, ${state.blockLoads} loads, ${state.blockStores} stores)"
+        )
+        return state
+    }
+
+    private companion object {
+        const val HOT_SHARE = 4
+        const val BLOCK_BYTES = 16L shl CompressedStateVector.BLOCK_QUBITS
+    }
+}
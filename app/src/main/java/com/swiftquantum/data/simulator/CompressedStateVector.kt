@@ -0,0 +1,277 @@
+package com.swiftquantum.data.simulator
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.zip.DataFormatException
+import java.util.zip.Deflater
+import java.util.zip.Inflater
+
+/**
+ * Dense state kept as compressed blocks of 2^[BLOCK_QUBITS] amplitudes, for structured
+ * registers whose raw amplitudes would not fit in memory: its size follows how compressible
+ * the state is rather than 2^n.
+ *
+ * All-zero blocks take no storage and are skipped by gates that pair two of them. Other blocks
+ * are deflated, and the last [hotBlocks] blocks touched stay decompressed in an LRU; a modified
+ * block is compressed again only when it leaves the LRU.
+ *
+ * With [errorBound] 0 blocks are stored losslessly at [precision]. Otherwise each real and
+ * imaginary part is rounded to a multiple of 2·[errorBound] before compressing, so every store
+ * moves a component by at most [errorBound] and near-equal magnitudes compress as repeats. The
+ * squared norm of every rounding is summed into [truncationError].
+ *
+ * Gates visit blocks one at a time, with the work inside a block split across cores; block
+ * access is synchronized, so reads from other threads are safe. [close] frees the native zlib
+ * buffers.
+ */
+class CompressedStateVector private constructor(
+    numQubits: Int,
+    val precision: Precision,
+    val errorBound: Double,
+    private val hotBlocks: Int,
+    private val maxBytes: Long,
+    executor: KernelExecutor
+) : ChunkedStateVector(numQubits, BLOCK_QUBITS, executor) {
+
+    /** Compressed blocks; null is a block of zeros. */
+    private val blocks = arrayOfNulls<ByteArray>(chunkCount)
+    private val hot = LinkedHashMap<Int, HotBlock>(16, 0.75f, true)
+    private val blockBytes = 16L * chunkSize
+    private val step = 2 * errorBound
+
+    private val deflater = Deflater(Deflater.BEST_SPEED)
+    private val inflater = Inflater()
+    private val raw = ByteBuffer.allocate(rawBytes()).order(ByteOrder.LITTLE_ENDIAN)
+    private var output = ByteArray(raw.capacity() / 2)
+
+    /** Bytes held by compressed blocks. */
+    var compressedBytes: Long = 0L
+        private set
+
+    /** Blocks decompressed, counting every LRU miss. */
+    var blockLoads: Long = 0L
+        private set
+
+    /** Blocks compressed on leaving the LRU. */
+    var blockStores: Long = 0L
+        private set
+
+    /**
+     * Squared norm of everything lossy stores rounded away. Roundings in different blocks and
+     * passes are close to orthogonal, so like a discarded weight this estimates the lost fidelity.
+     */
+    override var truncationError: Double = 0.0
+        private set
+
+    private var closed = false
+
+    override val sizeBytes: Long
+        get() = compressedBytes + hot.size * blockBytes
+
+    override val concurrentChunks: Boolean
+        get() = false
+
+    /** Raw size over held size, counting the decompressed LRU. */
+    val compressionRatio: Double
+        get() = precision.stateBytes(numQubits).toDouble() / sizeBytes.coerceAtLeast(1L)
+
+    @Synchronized
+    override fun isZero(index: Int): Boolean = blocks[index] == null && !hot.containsKey(index)
+
+    @Synchronized
+    override fun acquire(index: Int): Chunk {
+        check(!closed) { "The compressed state was closed" }
+        val block = hot[index] ?: load(index)
+        block.pins++
+        return block
+    }
+
+    @Synchronized
+    override fun release(index: Int, chunk: Chunk, modified: Boolean) {
+        val block = chunk as HotBlock
+        block.pins--
+        block.dirty = block.dirty || modified
+        evict()
+    }
+
+    /** Ends the deflater and inflater and drops the blocks. */
+    @Synchronized
+    override fun close() {
+        if (closed) return
+        closed = true
+        hot.clear()
+        blocks.fill(null)
+        deflater.end()
+        inflater.end()
+    }
+
+    private fun load(index: Int): HotBlock {
+        val block = HotBlock(DoubleArray(2 * chunkSize))
+        blocks[index]?.let { decode(it, block.values) }
+        blockLoads++
+        hot[index] = block
+        return block
+    }
+
+    /** Compresses least recently used blocks until the LRU is back to [hotBlocks]. */
+    private fun evict() {
+        if (hot.size <= hotBlocks) return
+        val entries = hot.entries.iterator()
+        while (hot.size > hotBlocks && entries.hasNext()) {
+            val (index, block) = entries.next()
+            if (block.pins > 0) continue
+            if (block.dirty) store(index, block.values)
+            entries.remove()
+        }
+    }
+
+    private fun store(index: Int, values: DoubleArray) {
+        val encoded = encode(values)
+        compressedBytes += (encoded?.size ?: 0) - (blocks[index]?.size ?: 0)
+        blocks[index] = encoded
+        blockStores++
+        if (compressedBytes + hot.size * blockBytes > maxBytes) {
+            throw IllegalStateException(
+                "The compressed $numQubits-qubit state grew past ${maxBytes shr 20} MB. " +
+                    "Try a larger compression error bound or the disk backend."
+            )
+        }
+    }
+
+    /** Deflated block, or null when every component stores as zero. */
+    private fun encode(values: DoubleArray): ByteArray? {
+        raw.clear()
+        var zero = true
+        when {
+            step > 0.0 -> {
+                var rounding = 0.0
+                for (value in values) {
+                    val level = Math.round(value / step)
+                    if (level != 0L) zero = false
+                    putVarLong((level shl 1) xor (level shr 63))
+                    val moved = value - level * step
+                    rounding += moved * moved
+                }
+                truncationError += rounding
+            }
+            precision == Precision.SINGLE -> for (value in values) {
+                val bits = value.toFloat().toRawBits()
+                if (bits shl 1 != 0) zero = false
+                raw.putInt(bits)
+            }
+            else -> for (value in values) {
+                val bits = value.toRawBits()
+                if (bits shl 1 != 0L) zero = false
+                raw.putLong(bits)
+            }
+        }
+        if (zero) return null
+
+        deflater.reset()
+        deflater.setInput(raw.array(), 0, raw.position())
+        deflater.finish()
+        var length = 0
+        while (!deflater.finished()) {
+            if (length == output.size) output = output.copyOf(output.size * 2)
+            length += deflater.deflate(output, length, output.size - length)
+        }
+        return output.copyOf(length)
+    }
+
+    private fun decode(encoded: ByteArray, values: DoubleArray) {
+        inflater.reset()
+        inflater.setInput(encoded)
+        raw.clear()
+        try {
+            while (!inflater.finished()) {
+                raw.position(raw.position() + inflater.inflate(raw.array(), raw.position(), raw.remaining()))
+            }
+        } catch (e: DataFormatException) {
+            throw IllegalStateException("Corrupt compressed state block", e)
+        }
+        raw.flip()
+        when {
+            step > 0.0 -> for (i in values.indices) {
+                val zigzag = getVarLong()
+                values[i] = ((zigzag ushr 1) xor -(zigzag and 1L)) * step
+            }
+            precision == Precision.SINGLE -> for (i in values.indices) values[i] = Float.fromBits(raw.getInt()).toDouble()
+            else -> for (i in values.indices) values[i] = Double.fromBits(raw.getLong())
+        }
+    }
+
+    private fun rawBytes(): Int = when {
+        // Worst case for a varint: ten bytes
+        step > 0.0 -> 20 * chunkSize
+        precision == Precision.SINGLE -> 8 * chunkSize
+        else -> 16 * chunkSize
+    }
+
+    private fun putVarLong(value: Long) {
+        var v = value
+        while (v and 0x7FL.inv() != 0L) {
+            raw.put(((v and 0x7FL) or 0x80L).toByte())
+            v = v ushr 7
+        }
+        raw.put(v.toByte())
+    }
+
+    private fun getVarLong(): Long {
+        var result = 0L
+        var shift = 0
+        while (true) {
+            val b = raw.get().toLong()
+            result = result or ((b and 0x7FL) shl shift)
+            if (b and 0x80L == 0L) return result
+            shift += 7
+        }
+    }
+
+    /** Decompressed block of interleaved re/im amplitudes. */
+    private class HotBlock(val values: DoubleArray) : Chunk() {
+        var pins = 0
+        var dirty = false
+
+        override fun re(i: Int): Double = values[2 * i]
+        override fun im(i: Int): Double = values[2 * i + 1]
+        override fun set(i: Int, re: Double, im: Double) {
+            values[2 * i] = re
+            values[2 * i + 1] = im
+        }
+    }
+
+    companion object {
+        const val MAX_QUBITS = 36
+
+        /** 2^16 amplitudes per block: 1 MB decompressed. */
+        const val BLOCK_QUBITS = 16
+
+        /** Decompressed blocks kept by default: 64 MB. */
+        const val DEFAULT_HOT_BLOCKS = 64
+
+        /**
+         * A [numQubits] state initialised to |0...0⟩, failing with [IllegalStateException] once
+         * its compressed blocks and LRU would hold more than [maxBytes].
+         */
+        fun create(
+            numQubits: Int,
+            precision: Precision = Precision.DOUBLE,
+            errorBound: Double = 0.0,
+            hotBlocks: Int = DEFAULT_HOT_BLOCKS,
+            maxBytes: Long = Long.MAX_VALUE,
+            executor: KernelExecutor = KernelExecutor.serial()
+        ): CompressedStateVector {
+            require(numQubits in 1..MAX_QUBITS) {
+                "The compressed state vector supports 1..$MAX_QUBITS qubits, got $numQubits"
+            }
+            require(errorBound >= 0.0) { "The compression error bound must not be negative" }
+            // A gate holds two blocks at once
+            require(hotBlocks >= 2) { "At least two decompressed blocks are needed, got $hotBlocks" }
+            return CompressedStateVector(numQubits, precision, errorBound, hotBlocks, maxBytes, executor).apply {
+                val first = acquire(0)
+                first.set(0, 1.0, 0.0)
+                release(0, first, true)
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.ComplexNumber
+import com.swiftquantum.domain.model.MeasurementCounts
+
+/**
+ * Mixed state of up to [MAX_QUBITS] qubits, stored as a vectorized 2n-qubit state so the dense
+ * kernels apply to it unchanged: entry (r, c) of ρ sits at index `r | (c shl n)`.
+ *
+ * A unitary U becomes U on the row qubits and conj(U) on the column qubits. A channel on one
+ * qubit is a 4x4 superoperator on that qubit's row bit and column bit (see [NoiseChannels]).
+ */
+class DensityMatrix(
+    override val numQubits: Int,
+    executor: KernelExecutor = KernelExecutor.serial()
+) : SimulatedState {
+
+    init {
+        require(numQubits in 1..MAX_QUBITS) { "The density-matrix backend supports 1 to $MAX_QUBITS qubits" }
+    }
+
+    /** Basis states of the register, the side of ρ. */
+    val dimension: Int = 1 shl numQubits
+
+    private val vector = DoubleStateVector(2 * numQubits, executor)
+
+    override val sizeBytes: Long
+        get() = vector.sizeBytes
+
+    /** A mixed state has no amplitudes. */
+    override fun amplitudes(): List<ComplexNumber>? = null
+
+    /** ρ(index, index): the probability of measuring [index]. */
+    fun probability(index: Int): Double = vector.amplitudes[2 * (index or (index shl numQubits))]
+
+    fun trace(): Double = (0 until dimension).sumOf { probability(it) }
+
+    /** Tr(ρ²): 1 for a pure state, 2^-n for the maximally mixed one. */
+    fun purity(): Double {
+        val a = vector.amplitudes
+        var sum = 0.0
+        for (i in 0 until a.size) sum += a[i] * a[i]
+        return sum
+    }
+
+    /** ⟨ψ|ρ|ψ⟩ for the pure state [ideal], given as interleaved amplitudes. */
+    fun fidelity(ideal: DoubleArray): Double {
+        val a = vector.amplitudes
+        // Hermitian ρ makes the sum real
+        var re = 0.0
+        for (c in 0 until dimension) {
+            val cRe = ideal[2 * c]
+            val cIm = ideal[2 * c + 1]
+            if (cRe == 0.0 && cIm == 0.0) continue
+            for (r in 0 until dimension) {
+                val rRe = ideal[2 * r]
+                val rIm = ideal[2 * r + 1]
+                val p = 2 * (r or (c shl numQubits))
+                // conj(ψ_r)·ρ(r, c)·ψ_c
+                val xRe = a[p] * cRe - a[p + 1] * cIm
+                val xIm = a[p] * cIm + a[p + 1] * cRe
+                re += rRe * xRe + rIm * xIm
+            }
+        }
+        return re
+    }
+
+    /** Applies [matrix] to [target] where every [controlMask] qubit is set. */
+    fun applyMatrix(target: Int, matrix: DoubleArray, controlMask: Int = 0) {
+        vector.applyMatrix(target, matrix, controlMask)
+        vector.applyMatrix(target + numQubits, NoiseChannels.conjugate(matrix), controlMask shl numQubits)
+    }
+
+    fun applyX(target: Int, controlMask: Int = 0) {
+        vector.applyX(target, controlMask)
+        vector.applyX(target + numQubits, controlMask shl numQubits)
+    }
+
+    /** Exchanges [q0] and [q1] with the phase re + i·im on the swapped pair. */
+    fun applySwap(q0: Int, q1: Int, controlMask: Int = 0, re: Double = 1.0, im: Double = 0.0) {
+        vector.applySwap(q0, q1, controlMask, re, im)
+        vector.applySwap(q0 + numQubits, q1 + numQubits, controlMask shl numQubits, re, -im)
+    }
+
+    /** Applies the 4x4 [superoperator] to [qubit]'s row and column bits. */
+    fun applySuperoperator(qubit: Int, superoperator: DoubleArray) {
+        vector.applyMatrix4(qubit, qubit + numQubits, superoperator)
+    }
+
+    override fun sample(shots: Int, executor: KernelExecutor, seed: Long?): MeasurementCounts =
+        ShotSampler(executor, seed).sample(dimension, shots) { probability(it).coerceAtLeast(0.0) }
+            .toMeasurementCounts(numQubits)
+
+    companion object {
+        /** 13 qubits hold ρ in 1 GB; the heap check usually stops well before. */
+        const val MAX_QUBITS = 13
+
+        /**
+         * Widest noisy run auto keeps exact. Trajectories are already faster from about 8 qubits
+         * (see NoiseEngineBenchmarkTest), but up to here the matrix still finishes in about a second
+         * and its fidelity has no sampling error.
+         */
+        const val AUTO_MAX_QUBITS = 10
+
+        fun stateBytes(numQubits: Int): Long = Precision.DOUBLE.stateBytes(2 * numQubits)
+    }
+}
@@ -0,0 +1,100 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.NoiseModel
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Exact noisy simulation on a [DensityMatrix], with the channels of [NoiseChannels].
+ *
+ * Single-qubit work is fused per qubit: a gate and the noise after it, and everything else on
+ * that qubit up to its next multi-qubit gate, multiply into one pending 4x4 superoperator that
+ * costs a single pass when it is finally applied.
+ */
+@Singleton
+class DensityMatrixSimulator @Inject constructor(
+    private val stateVectorSimulator: StateVectorSimulator
+) {
+
+    /** Final mixed state, already read out, and its fidelity to the ideal state before readout. */
+    class Result(val state: DensityMatrix, val fidelity: Double)
+
+    fun simulate(
+        circuit: Circuit,
+        noise: NoiseModel?,
+        executor: KernelExecutor = KernelExecutor.serial()
+    ): Result {
+        val numQubits = circuit.numQubits
+        val channels = noise?.takeUnless { it.isIdeal }?.let { NoiseChannels.of(it) }
+        val program = CompiledCircuit.of(circuit)
+        val state = DensityMatrix(numQubits, executor)
+        val pending = arrayOfNulls<DoubleArray>(numQubits)
+
+        fun flush(mask: Long) {
+            for (q in 0 until numQubits) {
+                val superoperator = pending[q] ?: continue
+                if (mask and (1L shl q) == 0L) continue
+                state.applySuperoperator(q, superoperator)
+                pending[q] = null
+            }
+        }
+
+        fun fuse(qubit: Int, superoperator: DoubleArray) {
+            pending[qubit] = pending[qubit]?.let { GateMatrices.multiply4(superoperator, it) } ?: superoperator
+        }
+
+        for (index in 0 until program.size) {
+            KernelExecutor.ensureActive()
+            val controlMask = program.controlMasks[index]
+            val target = program.targets[index]
+            val qubits = program.qubitMask(index)
+            val opcode = program.opcodes[index]
+
+            if (controlMask == 0L && (opcode == CompiledCircuit.OP_MATRIX || opcode == CompiledCircuit.OP_PHASE ||
+                    opcode == CompiledCircuit.OP_FLIP)
+            ) {
+                val u = program.matrix(index)
+                fuse(target, GateMatrices.kron(u, NoiseChannels.conjugate(u)))
+            } else {
+                flush(qubits)
+                when (opcode) {
+                    CompiledCircuit.OP_FLIP -> state.applyX(target, controlMask.toInt())
+                    CompiledCircuit.OP_SWAP, CompiledCircuit.OP_ISWAP -> {
+                        val im = if (opcode == CompiledCircuit.OP_ISWAP) 1.0 else 0.0
+                        state.applySwap(target, program.secondTargets[index], controlMask.toInt(), 1.0 - im, im)
+                    }
+                    else -> state.applyMatrix(target, program.matrix(index), controlMask.toInt())
+                }
+            }
+
+            if (channels != null) {
+                val noiseOp = channels.superoperator(java.lang.Long.bitCount(qubits))
+                var rest = qubits
+                while (rest != 0L) {
+                    fuse(java.lang.Long.numberOfTrailingZeros(rest), noiseOp)
+                    rest = rest and (rest - 1)
+                }
+            }
+        }
+        flush(-1L)
+
+        val ideal = stateVectorSimulator.simulate(circuit, Precision.DOUBLE, realAmplitudes = false)
+        val fidelity = state.fidelity(idealAmplitudes(ideal))
+
+        if (channels != null && channels.readoutError > 0.0) {
+            for (q in 0 until numQubits) state.applySuperoperator(q, channels.readoutSuperoperator)
+        }
+        return Result(state, fidelity)
+    }
+
+    private fun idealAmplitudes(state: StateVector): DoubleArray {
+        if (state is DoubleStateVector) return state.amplitudes
+        val amplitudes = DoubleArray(2 * state.dimension)
+        state.asComplexList().forEachIndexed { i, a ->
+            amplitudes[2 * i] = a.real
+            amplitudes[2 * i + 1] = a.imaginary
+        }
+        return amplitudes
+    }
+}
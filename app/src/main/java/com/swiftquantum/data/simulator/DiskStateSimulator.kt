@@ -0,0 +1,77 @@
+package com.swiftquantum.data.simulator
+
+import android.content.Context
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.OptimizationLevel
+import dagger.hilt.android.qualifiers.ApplicationContext
+import timber.log.Timber
+import java.io.File
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Exact dense engine for registers past the heap, on a [MappedStateVector] in the app cache.
+ */
+@Singleton
+class DiskStateSimulator @Inject constructor(
+    @ApplicationContext private val context: Context
+) {
+
+    private val scratchDirectory: File
+        get() = File(context.cacheDir, SCRATCH_DIRECTORY)
+
+    /** True when a [numQubits] state would fit in the free scratch storage. */
+    fun fits(numQubits: Int, precision: Precision): Boolean =
+        numQubits <= MappedStateVector.MAX_QUBITS && precision.stateBytes(numQubits) <= availableStorage() * STORAGE_HEADROOM
+
+    /**
+     * Fails before creating the scratch file when the state would not fit in the free storage.
+     */
+    fun requireStorage(numQubits: Int, precision: Precision) {
+        require(numQubits <= MappedStateVector.MAX_QUBITS) {
+            "The disk-backed state vector supports up to ${MappedStateVector.MAX_QUBITS} qubits"
+        }
+        val required = precision.stateBytes(numQubits)
+        val available = availableStorage()
+        if (required > available * STORAGE_HEADROOM) {
+            val hint = if (precision == Precision.DOUBLE) " Try float precision." else ""
+            throw IllegalStateException(
+                "A $numQubits-qubit state needs ${required shr 20} MB of storage but only " +
+                    "${available shr 20} MB is free.$hint"
+            )
+        }
+    }
+
+    /** The caller closes the returned state once it is done with it. */
+    fun simulate(
+        circuit: Circuit,
+        precision: Precision = Precision.DOUBLE,
+        executor: KernelExecutor = KernelExecutor.serial(),
+        stats: SweepStats = SweepStats(),
+        optimizationLevel: OptimizationLevel = OptimizationLevel.BASIC
+    ): MappedStateVector {
+        requireStorage(circuit.numQubits, precision)
+        Timber.d("Mapping ${precision.stateBytes(circuit.numQubits) shr 20} MB for ${circuit.numQubits} qubits")
+        val state = MappedStateVector.create(circuit.numQubits, precision, scratchDirectory, executor)
+        try {
+            ChunkedCircuitRunner.run(state, circuit, stats, optimizationLevel)
+        } catch (e: Throwable) {
+            state.close()
+            throw e
+        }
+        return state
+    }
+
+    private fun availableStorage(): Long {
+        val directory = scratchDirectory
+        directory.mkdirs()
+        return directory.usableSpace
+    }
+
+    private companion object {
+        const val SCRATCH_DIRECTORY = "state_vectors"
+
+        /** Share of the free storage a run may fill. */
+        const val STORAGE_HEADROOM = 0.8
+    }
+}
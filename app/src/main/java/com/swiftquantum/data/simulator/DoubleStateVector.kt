@@ -0,0 +1,263 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.ComplexNumber
+
+/**
+ * Double-precision state held in one interleaved re/im [DoubleArray].
+ */
+class DoubleStateVector(
+    override val numQubits: Int,
+    private val executor: KernelExecutor = KernelExecutor.serial()
+) : StateVector {
+
+    init {
+        StateVector.requireSupported(numQubits)
+    }
+
+    override val dimension: Int = 1 shl numQubits
+
+    val amplitudes: DoubleArray = DoubleArray(dimension * 2).also { it[0] = 1.0 }
+
+    override val precision: Precision
+        get() = Precision.DOUBLE
+
+    /** Returns to |0...0⟩, so one buffer can serve many runs. */
+    fun reset() {
+        amplitudes.fill(0.0)
+        amplitudes[0] = 1.0
+    }
+
+    override val sizeBytes: Long
+        get() = amplitudes.size.toLong() * Double.SIZE_BYTES
+
+    override fun probability(index: Int): Double {
+        val re = amplitudes[2 * index]
+        val im = amplitudes[2 * index + 1]
+        return re * re + im * im
+    }
+
+    override fun setAmplitude(index: Int, re: Double, im: Double) {
+        amplitudes[2 * index] = re
+        amplitudes[2 * index + 1] = im
+    }
+
+    override fun probabilities(): DoubleArray {
+        val probabilities = DoubleArray(dimension)
+        executor.forRange(dimension) { from, to ->
+            for (i in from until to) probabilities[i] = probability(i)
+        }
+        return probabilities
+    }
+
+    override fun asComplexList(): List<ComplexNumber> = object : AbstractList<ComplexNumber>() {
+        override val size: Int get() = dimension
+        override fun get(index: Int) = ComplexNumber(amplitudes[2 * index], amplitudes[2 * index + 1])
+    }
+
+    override fun applyMatrix(target: Int, matrix: DoubleArray, controlMask: Int, controlValue: Int) {
+        val fixed = StateVector.bitPositions(controlMask or (1 shl target))
+        executor.forRange(dimension shr fixed.size) { from, to ->
+            matrixRange(target, matrix, fixed, controlValue, from, to)
+        }
+    }
+
+    override fun applyMatrix4(q0: Int, q1: Int, matrix: DoubleArray) {
+        val fixed = StateVector.bitPositions((1 shl q0) or (1 shl q1))
+        executor.forRange(dimension shr 2, cost = 4) { from, to ->
+            matrix4Range(q0, q1, matrix, fixed, 0, from, to)
+        }
+    }
+
+    override fun applyX(target: Int, controlMask: Int, controlValue: Int) {
+        val fixed = StateVector.bitPositions(controlMask or (1 shl target))
+        executor.forRange(dimension shr fixed.size) { from, to ->
+            flipRange(target, fixed, controlValue, from, to)
+        }
+    }
+
+    override fun applyPhase(mask: Int, re: Double, im: Double, value: Int) {
+        val fixed = StateVector.bitPositions(mask)
+        executor.forRange(dimension shr fixed.size) { from, to ->
+            phaseRange(re, im, fixed, value, from, to)
+        }
+    }
+
+    override fun applySwap(q0: Int, q1: Int, controlMask: Int, re: Double, im: Double, controlValue: Int) {
+        val fixed = StateVector.bitPositions(controlMask or (1 shl q0) or (1 shl q1))
+        executor.forRange(dimension shr fixed.size) { from, to ->
+            swapRange(q0, q1, re, im, fixed, controlValue, from, to)
+        }
+    }
+
+    override fun applyPhaseTable(qubits: Int, table: DoubleArray) {
+        val gather = StateVector.gatherTables(qubits, numQubits)
+        executor.forRange(dimension) { from, to ->
+            phaseTableRange(table, gather, from, to)
+        }
+    }
+
+    override fun applyTiles(batch: TileBatch) {
+        val tileQubits = batch.tileQubits
+        val tileSize = 1 shl tileQubits
+        val ops = batch.ops
+        executor.forRange(dimension shr tileQubits, cost = tileSize) { from, to ->
+            for (tile in from until to) {
+                val base = tile shl tileQubits
+                for (op in ops) {
+                    if (!op.appliesTo(base)) continue
+                    val value = op.localValue or base
+                    when (op) {
+                        is TileBatch.Matrix -> matrixRange(op.target, op.matrix, op.fixed, value, 0, op.count)
+                        is TileBatch.Matrix4 -> matrix4Range(op.q0, op.q1, op.matrix, op.fixed, value, 0, op.count)
+                        is TileBatch.Flip -> flipRange(op.target, op.fixed, value, 0, op.count)
+                        is TileBatch.Phase -> phaseRange(op.re, op.im, op.fixed, value, 0, op.count)
+                        is TileBatch.Swap -> swapRange(op.q0, op.q1, op.re, op.im, op.fixed, value, 0, op.count)
+                        is TileBatch.PhaseTable -> phaseTableRange(op.table, op.gather, base, base + tileSize)
+                    }
+                }
+            }
+        }
+    }
+
+    override fun applyPermutation(permutation: LazyPermutation) {
+        val a = amplitudes
+        permutation.applyTo(dimension, executor) { i, j -> swapAmplitudes(a, 2 * i, 2 * j) }
+    }
+
+    // Range kernels: k in [from, to) enumerates the indices with the [fixed] bits clear, and
+    // [value] supplies the bits that must be set (controls, and the block base when tiled).
+
+    private fun matrixRange(target: Int, matrix: DoubleArray, fixed: IntArray, value: Int, from: Int, to: Int) {
+        val a = amplitudes
+        val m00r = matrix[0]; val m00i = matrix[1]
+        val m01r = matrix[2]; val m01i = matrix[3]
+        val m10r = matrix[4]; val m10i = matrix[5]
+        val m11r = matrix[6]; val m11i = matrix[7]
+        val stride = 1 shl target
+        for (k in from until to) {
+            val i0 = StateVector.insertZeroBits(k, fixed) or value
+            val p0 = 2 * i0
+            val p1 = 2 * (i0 or stride)
+            val ar = a[p0]; val ai = a[p0 + 1]
+            val br = a[p1]; val bi = a[p1 + 1]
+            a[p0] = m00r * ar - m00i * ai + m01r * br - m01i * bi
+            a[p0 + 1] = m00r * ai + m00i * ar + m01r * bi + m01i * br
+            a[p1] = m10r * ar - m10i * ai + m11r * br - m11i * bi
+            a[p1 + 1] = m10r * ai + m10i * ar + m11r * bi + m11i * br
+        }
+    }
+
+    private fun matrix4Range(
+        q0: Int,
+        q1: Int,
+        matrix: DoubleArray,
+        fixed: IntArray,
+        value: Int,
+        from: Int,
+        to: Int
+    ) {
+        val a = amplitudes
+        val m = matrix
+        val bit0 = 1 shl q0
+        val bit1 = 1 shl q1
+        for (k in from until to) {
+            val i = StateVector.insertZeroBits(k, fixed) or value
+            val p0 = 2 * i
+            val p1 = 2 * (i or bit1)
+            val p2 = 2 * (i or bit0)
+            val p3 = 2 * (i or bit0 or bit1)
+            val r0 = a[p0]; val i0 = a[p0 + 1]
+            val r1 = a[p1]; val i1 = a[p1 + 1]
+            val r2 = a[p2]; val i2 = a[p2 + 1]
+            val r3 = a[p3]; val i3 = a[p3 + 1]
+            for (row in 0 until 4) {
+                val o = 8 * row
+                val re = m[o] * r0 - m[o + 1] * i0 + m[o + 2] * r1 - m[o + 3] * i1 +
+                    m[o + 4] * r2 - m[o + 5] * i2 + m[o + 6] * r3 - m[o + 7] * i3
+                val im = m[o] * i0 + m[o + 1] * r0 + m[o + 2] * i1 + m[o + 3] * r1 +
+                    m[o + 4] * i2 + m[o + 5] * r2 + m[o + 6] * i3 + m[o + 7] * r3
+                val p = when (row) {
+                    0 -> p0
+                    1 -> p1
+                    2 -> p2
+                    else -> p3
+                }
+                a[p] = re
+                a[p + 1] = im
+            }
+        }
+    }
+
+    private fun flipRange(target: Int, fixed: IntArray, value: Int, from: Int, to: Int) {
+        val a = amplitudes
+        val stride = 1 shl target
+        for (k in from until to) {
+            val i0 = StateVector.insertZeroBits(k, fixed) or value
+            swapAmplitudes(a, 2 * i0, 2 * (i0 or stride))
+        }
+    }
+
+    private fun phaseRange(re: Double, im: Double, fixed: IntArray, value: Int, from: Int, to: Int) {
+        val a = amplitudes
+        for (k in from until to) {
+            val p = 2 * (StateVector.insertZeroBits(k, fixed) or value)
+            val ar = a[p]; val ai = a[p + 1]
+            a[p] = ar * re - ai * im
+            a[p + 1] = ar * im + ai * re
+        }
+    }
+
+    private fun swapRange(
+        q0: Int,
+        q1: Int,
+        re: Double,
+        im: Double,
+        fixed: IntArray,
+        value: Int,
+        from: Int,
+        to: Int
+    ) {
+        val a = amplitudes
+        val bit0 = 1 shl q0
+        val bit1 = 1 shl q1
+        val phased = re != 1.0 || im != 0.0
+        for (k in from until to) {
+            // Each |..1..0..> / |..0..1..> pair once
+            val base = StateVector.insertZeroBits(k, fixed) or value
+            val p0 = 2 * (base or bit0)
+            val p1 = 2 * (base or bit1)
+            if (phased) {
+                val ar = a[p0]; val ai = a[p0 + 1]
+                val br = a[p1]; val bi = a[p1 + 1]
+                a[p0] = br * re - bi * im
+                a[p0 + 1] = br * im + bi * re
+                a[p1] = ar * re - ai * im
+                a[p1 + 1] = ar * im + ai * re
+            } else {
+                swapAmplitudes(a, p0, p1)
+            }
+        }
+    }
+
+    /** Unlike the others, [from] and [to] are basis indices: every amplitude takes a phase. */
+    private fun phaseTableRange(table: DoubleArray, gather: Array<IntArray>, from: Int, to: Int) {
+        val a = amplitudes
+        for (i in from until to) {
+            var k = 0
+            for (b in gather.indices) k = k or gather[b][(i ushr (8 * b)) and 0xFF]
+            val pr = table[2 * k]; val pi = table[2 * k + 1]
+            val p = 2 * i
+            val ar = a[p]; val ai = a[p + 1]
+            a[p] = ar * pr - ai * pi
+            a[p + 1] = ar * pi + ai * pr
+        }
+    }
+
+    private companion object {
+        fun swapAmplitudes(a: DoubleArray, p0: Int, p1: Int) {
+            val re = a[p0]; val im = a[p0 + 1]
+            a[p0] = a[p1]; a[p0 + 1] = a[p1 + 1]
+            a[p1] = re; a[p1 + 1] = im
+        }
+    }
+}
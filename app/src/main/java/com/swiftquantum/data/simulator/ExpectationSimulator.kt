@@ -0,0 +1,141 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.ExpectationResult
+import com.swiftquantum.domain.model.Hamiltonian
+import com.swiftquantum.domain.model.PauliTerm
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.math.sqrt
+
+/**
+ * Exact expectation values of Pauli observables on a circuit's ideal final state.
+ *
+ * Terms are grouped greedily into qubit-wise commuting sets, whose members agree on X, Y or Z
+ * wherever both act. Each group rotates one copy of the state into its shared basis, after
+ * which every term of the group is a Z parity and all of them are summed in the same pass over
+ * the amplitudes, with no probability table built.
+ */
+@Singleton
+class ExpectationSimulator @Inject constructor(
+    private val stateVectorSimulator: StateVectorSimulator
+) {
+
+    /** Terms sharing one measurement basis; [basis] holds X, Y, Z or I per qubit. */
+    class BasisGroup(val basis: CharArray, val terms: MutableList<Int> = mutableListOf())
+
+    /** Heap held at once: the final state and one rotated copy. */
+    fun plannedBytes(numQubits: Int): Long = 2 * Precision.DOUBLE.stateBytes(numQubits)
+
+    fun expectation(
+        circuit: Circuit,
+        hamiltonian: Hamiltonian,
+        options: SimulationOptions = SimulationOptions()
+    ): ExpectationResult {
+        val startTime = System.currentTimeMillis()
+        val validation = hamiltonian.validate(circuit.numQubits)
+        require(validation.isValid) { validation.errors.joinToString(", ") }
+        StateVector.requireSupported(circuit.numQubits)
+
+        val executor = KernelExecutor(options.parallel)
+        val state = stateVectorSimulator.simulate(
+            circuit, Precision.DOUBLE, executor, optimizationLevel = options.optimizationLevel, realAmplitudes = false
+        ) as DoubleStateVector
+        val groups = group(hamiltonian.terms, circuit.numQubits)
+        val termValues = expectations(state, hamiltonian.terms, executor, groups)
+
+        return ExpectationResult(
+            value = hamiltonian.terms.indices.sumOf { hamiltonian.terms[it].coefficient * termValues[it] },
+            termValues = termValues.toList(),
+            basisGroups = groups.size,
+            executionTimeMs = System.currentTimeMillis() - startTime
+        )
+    }
+
+    /** ⟨P⟩ of every term on [state], which is left unchanged; rotations go to [scratch] if given. */
+    fun expectations(
+        state: DoubleStateVector,
+        terms: List<PauliTerm>,
+        executor: KernelExecutor,
+        groups: List<BasisGroup> = group(terms, state.numQubits),
+        scratch: DoubleStateVector? = null
+    ): DoubleArray {
+        val numQubits = state.numQubits
+        val values = DoubleArray(terms.size)
+        for (group in groups) {
+            val diagonal = group.basis.all { it == 'I' || it == 'Z' }
+            // Rotate a copy so the caller's state stays as it was
+            val rotated = if (diagonal) state else copyOf(state, scratch ?: DoubleStateVector(numQubits, executor))
+            if (!diagonal) {
+                for (q in 0 until numQubits) {
+                    when (group.basis[q]) {
+                        'X' -> rotated.applyMatrix(q, GateMatrices.H)
+                        'Y' -> rotated.applyMatrix(q, Y_TO_Z)
+                    }
+                }
+            }
+            val masks = IntArray(group.terms.size) { zMask(terms[group.terms[it]], numQubits) }
+            val sums = paritySums(rotated, masks, executor)
+            group.terms.forEachIndexed { k, term -> values[term] = sums[k] }
+            KernelExecutor.ensureActive()
+        }
+        return values
+    }
+
+    /** Greedy qubit-wise commuting grouping, heaviest terms first. */
+    fun group(terms: List<PauliTerm>, numQubits: Int): List<BasisGroup> {
+        val groups = mutableListOf<BasisGroup>()
+        for (index in terms.indices.sortedByDescending { terms[it].weight }) {
+            val term = terms[index]
+            val group = groups.firstOrNull { group ->
+                (0 until numQubits).all { q ->
+                    val p = term.on(q)
+                    p == 'I' || group.basis[q] == 'I' || group.basis[q] == p
+                }
+            } ?: BasisGroup(CharArray(numQubits) { 'I' }).also { groups += it }
+            for (q in 0 until numQubits) {
+                if (term.on(q) != 'I') group.basis[q] = term.on(q)
+            }
+            group.terms += index
+        }
+        return groups
+    }
+
+    /** Σ |ψ_i|² · (-1)^popcount(i & mask) for each mask, in one pass. */
+    private fun paritySums(state: DoubleStateVector, masks: IntArray, executor: KernelExecutor): DoubleArray {
+        val a = state.amplitudes
+        val totals = DoubleArray(masks.size)
+        executor.forRange(state.dimension, cost = masks.size) { from, to ->
+            val sums = DoubleArray(masks.size)
+            for (i in from until to) {
+                val p = a[2 * i] * a[2 * i] + a[2 * i + 1] * a[2 * i + 1]
+                if (p == 0.0) continue
+                for (k in masks.indices) {
+                    if (Integer.bitCount(i and masks[k]) and 1 == 0) sums[k] += p else sums[k] -= p
+                }
+            }
+            synchronized(totals) {
+                for (k in masks.indices) totals[k] += sums[k]
+            }
+        }
+        return totals
+    }
+
+    private fun copyOf(state: DoubleStateVector, into: DoubleStateVector): DoubleStateVector {
+        state.amplitudes.copyInto(into.amplitudes)
+        return into
+    }
+
+    private fun zMask(term: PauliTerm, numQubits: Int): Int {
+        var mask = 0
+        for (q in 0 until numQubits) if (term.on(q) != 'I') mask = mask or (1 shl q)
+        return mask
+    }
+
+    private companion object {
+        private val INV_SQRT2 = 1.0 / sqrt(2.0)
+
+        /** H·S†: takes the Y eigenstates |+i⟩, |-i⟩ to |0⟩, |1⟩. */
+        val Y_TO_Z = doubleArrayOf(INV_SQRT2, 0.0, 0.0, -INV_SQRT2, INV_SQRT2, 0.0, 0.0, INV_SQRT2)
+    }
+}
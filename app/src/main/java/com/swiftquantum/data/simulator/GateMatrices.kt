@@ -0,0 +1,288 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.GateParameters
+import com.swiftquantum.domain.model.GateType
+import java.util.Collections
+import java.util.EnumSet
+import kotlin.math.PI
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.math.sqrt
+
+/**
+ * 2x2 unitaries for the single-target gates, stored row-major as interleaved
+ * re/im pairs: `[m00, m01, m10, m11]`.
+ */
+object GateMatrices {
+
+    private val INV_SQRT2 = 1.0 / sqrt(2.0)
+
+    val IDENTITY = doubleArrayOf(1.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0, 0.0)
+    val H = doubleArrayOf(INV_SQRT2, 0.0, INV_SQRT2, 0.0, INV_SQRT2, 0.0, -INV_SQRT2, 0.0)
+    val X = doubleArrayOf(0.0, 0.0, 1.0, 0.0, 1.0, 0.0, 0.0, 0.0)
+    val Y = doubleArrayOf(0.0, 0.0, 0.0, -1.0, 0.0, 1.0, 0.0, 0.0)
+    val Z = doubleArrayOf(1.0, 0.0, 0.0, 0.0, 0.0, 0.0, -1.0, 0.0)
+    val S = doubleArrayOf(1.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0)
+    val T = doubleArrayOf(1.0, 0.0, 0.0, 0.0, 0.0, 0.0, INV_SQRT2, INV_SQRT2)
+    val T_DAGGER = doubleArrayOf(1.0, 0.0, 0.0, 0.0, 0.0, 0.0, INV_SQRT2, -INV_SQRT2)
+
+    // Two-qubit gates are 4x4 in the basis 2 * b(q0) + b(q1), same interleaved layout.
+
+    val SWAP_4 = permutation4(intArrayOf(0, 2, 1, 3), 1.0, 0.0)
+    val ISWAP_4 = permutation4(intArrayOf(0, 2, 1, 3), 0.0, 1.0)
+
+    /** Parameterized matrices by gate, so repeated runs of a circuit skip the trig calls. */
+    private val parameterized: MutableMap<Pair<GateType, GateParameters?>, DoubleArray> =
+        Collections.synchronizedMap(object : LinkedHashMap<Pair<GateType, GateParameters?>, DoubleArray>(64, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Pair<GateType, GateParameters?>, DoubleArray>?) =
+                size > PARAMETERIZED_CACHE_SIZE
+        })
+
+    private const val PARAMETERIZED_CACHE_SIZE = 4096
+
+    /**
+     * Matrix applied to the target qubit once all controls are satisfied. Returns null for
+     * the swap family, which the simulator handles as permutations. The result is shared
+     * and must not be modified.
+     */
+    fun forGate(type: GateType, parameters: GateParameters?): DoubleArray? {
+        if (!type.hasParameters) return build(type, parameters)
+        val key = type to parameters
+        parameterized[key]?.let { return it }
+        return build(type, parameters)?.also { parameterized[key] = it }
+    }
+
+    /** As [forGate], but without caching, for angles unlikely to repeat such as sweep points. */
+    fun build(type: GateType, parameters: GateParameters?): DoubleArray? {
+        val theta = parameters?.theta ?: 0.0
+        return when (type) {
+            GateType.H -> H
+            GateType.X, GateType.CNOT, GateType.TOFFOLI -> X
+            GateType.Y, GateType.CY -> Y
+            GateType.Z, GateType.CZ, GateType.CCZ -> Z
+            GateType.S -> S
+            GateType.T -> T
+            GateType.RX, GateType.CRX -> rx(theta)
+            GateType.RY, GateType.CRY -> ry(theta)
+            GateType.RZ, GateType.CRZ -> rz(theta)
+            GateType.U1 -> phase(parameters.u1Lambda())
+            GateType.U2 -> {
+                val (phi, lambda) = parameters.u2Angles()
+                u3(PI / 2, phi, lambda)
+            }
+            GateType.U3 -> u3(theta, parameters?.phi ?: 0.0, parameters?.lambda ?: 0.0)
+            GateType.SWAP, GateType.ISWAP, GateType.FREDKIN -> null
+        }
+    }
+
+    fun rx(theta: Double): DoubleArray {
+        val c = cos(theta / 2)
+        val s = sin(theta / 2)
+        return doubleArrayOf(c, 0.0, 0.0, -s, 0.0, -s, c, 0.0)
+    }
+
+    fun ry(theta: Double): DoubleArray {
+        val c = cos(theta / 2)
+        val s = sin(theta / 2)
+        return doubleArrayOf(c, 0.0, -s, 0.0, s, 0.0, c, 0.0)
+    }
+
+    fun rz(theta: Double): DoubleArray {
+        val c = cos(theta / 2)
+        val s = sin(theta / 2)
+        return doubleArrayOf(c, -s, 0.0, 0.0, 0.0, 0.0, c, s)
+    }
+
+    fun phase(lambda: Double): DoubleArray =
+        doubleArrayOf(1.0, 0.0, 0.0, 0.0, 0.0, 0.0, cos(lambda), sin(lambda))
+
+    fun u3(theta: Double, phi: Double, lambda: Double): DoubleArray {
+        val c = cos(theta / 2)
+        val s = sin(theta / 2)
+        return doubleArrayOf(
+            c, 0.0,
+            -cos(lambda) * s, -sin(lambda) * s,
+            cos(phi) * s, sin(phi) * s,
+            cos(phi + lambda) * c, sin(phi + lambda) * c
+        )
+    }
+
+    /**
+     * Free angles of a parameterized gate, in the order a
+     * [com.swiftquantum.domain.model.ParameterSweep] point lists them.
+     */
+    fun angles(type: GateType, parameters: GateParameters?): DoubleArray = when (type) {
+        GateType.U1 -> doubleArrayOf(parameters.u1Lambda())
+        GateType.U2 -> parameters.u2Angles().let { (phi, lambda) -> doubleArrayOf(phi, lambda) }
+        GateType.U3 -> doubleArrayOf(parameters?.theta ?: 0.0, parameters?.phi ?: 0.0, parameters?.lambda ?: 0.0)
+        else -> if (type.hasParameters) doubleArrayOf(parameters?.theta ?: 0.0) else DoubleArray(0)
+    }
+
+    /**
+     * ∂U/∂(angle [k]) of a parameterized gate at [angles], as a 2x2 on its target; controls
+     * stay as they are. Rotations use ∂R(θ)/∂θ = R(θ + π) / 2.
+     */
+    fun derivative(type: GateType, angles: DoubleArray, k: Int): DoubleArray = when (type) {
+        GateType.RX, GateType.CRX -> scaled(rx(angles[0] + PI), 0.5)
+        GateType.RY, GateType.CRY -> scaled(ry(angles[0] + PI), 0.5)
+        GateType.RZ, GateType.CRZ -> scaled(rz(angles[0] + PI), 0.5)
+        GateType.U1 -> doubleArrayOf(0.0, 0.0, 0.0, 0.0, 0.0, 0.0, -sin(angles[0]), cos(angles[0]))
+        GateType.U2 -> u3Derivative(PI / 2, angles[0], angles[1], k + 1)
+        GateType.U3 -> u3Derivative(angles[0], angles[1], angles[2], k)
+        else -> throw IllegalArgumentException("${type.displayName} has no parameters")
+    }
+
+    /** Conjugate transpose of the 2x2 [u]. */
+    fun adjoint(u: DoubleArray): DoubleArray = doubleArrayOf(
+        u[0], -u[1], u[4], -u[5],
+        u[2], -u[3], u[6], -u[7]
+    )
+
+    // phi multiplies the bottom row by e^(i phi) and lambda the right column by e^(i lambda)
+    private fun u3Derivative(theta: Double, phi: Double, lambda: Double, k: Int): DoubleArray {
+        if (k == 0) return scaled(u3(theta + PI, phi, lambda), 0.5)
+        val u = u3(theta, phi, lambda)
+        val d = DoubleArray(8)
+        for (entry in 0 until 4) {
+            val inRow = entry >= 2
+            val inColumn = entry % 2 == 1
+            if ((k == 1 && inRow) || (k == 2 && inColumn)) {
+                // times i
+                d[2 * entry] = -u[2 * entry + 1]
+                d[2 * entry + 1] = u[2 * entry]
+            }
+        }
+        return d
+    }
+
+    private fun scaled(u: DoubleArray, factor: Double): DoubleArray = DoubleArray(u.size) { u[it] * factor }
+
+    /** 4x4 controlled-[u] with the control on q0 and the target on q1. */
+    fun controlled(u: DoubleArray): DoubleArray {
+        val g = DoubleArray(32)
+        g[0] = 1.0
+        g[2 * 5] = 1.0
+        for (row in 0 until 2) {
+            for (col in 0 until 2) {
+                val p = 2 * ((row + 2) * 4 + col + 2)
+                g[p] = u[2 * (row * 2 + col)]
+                g[p + 1] = u[2 * (row * 2 + col) + 1]
+            }
+        }
+        return g
+    }
+
+    /** The same 4x4 gate with the roles of q0 and q1 exchanged. */
+    fun swapOperands(gate: DoubleArray): DoubleArray {
+        val g = DoubleArray(32)
+        for (row in 0 until 4) {
+            for (col in 0 until 4) {
+                val from = 2 * (exchangeBits(row) * 4 + exchangeBits(col))
+                g[2 * (row * 4 + col)] = gate[from]
+                g[2 * (row * 4 + col) + 1] = gate[from + 1]
+            }
+        }
+        return g
+    }
+
+    /** 2x2 product [a]·[b]: [b] applied first. */
+    fun multiply(a: DoubleArray, b: DoubleArray): DoubleArray = multiply(a, b, 2)
+
+    /** 4x4 product [a]·[b]: [b] applied first. */
+    fun multiply4(a: DoubleArray, b: DoubleArray): DoubleArray = multiply(a, b, 4)
+
+    /** 4x4 [a] ⊗ [b], with [a] on q0 and [b] on q1. */
+    fun kron(a: DoubleArray, b: DoubleArray): DoubleArray {
+        val g = DoubleArray(32)
+        for (row in 0 until 4) {
+            for (col in 0 until 4) {
+                val pa = 2 * ((row shr 1) * 2 + (col shr 1))
+                val pb = 2 * ((row and 1) * 2 + (col and 1))
+                val p = 2 * (row * 4 + col)
+                g[p] = a[pa] * b[pb] - a[pa + 1] * b[pb + 1]
+                g[p + 1] = a[pa] * b[pb + 1] + a[pa + 1] * b[pb]
+            }
+        }
+        return g
+    }
+
+    /** 4x4 gate applying [u] to q1 when q0 reads [controlBit] and the identity otherwise. */
+    fun controlledOn(u: DoubleArray, controlBit: Int): DoubleArray {
+        val g = DoubleArray(32)
+        val idle = 1 - controlBit
+        for (k in 0 until 2) g[2 * ((2 * idle + k) * 4 + 2 * idle + k)] = 1.0
+        for (row in 0 until 2) {
+            for (col in 0 until 2) {
+                val p = 2 * ((2 * controlBit + row) * 4 + 2 * controlBit + col)
+                g[p] = u[2 * (row * 2 + col)]
+                g[p + 1] = u[2 * (row * 2 + col) + 1]
+            }
+        }
+        return g
+    }
+
+    private fun multiply(a: DoubleArray, b: DoubleArray, size: Int): DoubleArray {
+        val g = DoubleArray(2 * size * size)
+        for (row in 0 until size) {
+            for (col in 0 until size) {
+                var re = 0.0
+                var im = 0.0
+                for (k in 0 until size) {
+                    val pa = 2 * (row * size + k)
+                    val pb = 2 * (k * size + col)
+                    re += a[pa] * b[pb] - a[pa + 1] * b[pb + 1]
+                    im += a[pa] * b[pb + 1] + a[pa + 1] * b[pb]
+                }
+                g[2 * (row * size + col)] = re
+                g[2 * (row * size + col) + 1] = im
+            }
+        }
+        return g
+    }
+
+    /** True when the 2x2 [u] only multiplies |0⟩ and |1⟩ by phases. */
+    fun isDiagonal(u: DoubleArray): Boolean = u[2] == 0.0 && u[3] == 0.0 && u[4] == 0.0 && u[5] == 0.0
+
+    /** Gates whose matrices are real for every parameter value. */
+    private val REAL_GATES = EnumSet.of(
+        GateType.H, GateType.X, GateType.Z, GateType.RY,
+        GateType.CNOT, GateType.CZ, GateType.CRY, GateType.SWAP,
+        GateType.TOFFOLI, GateType.FREDKIN, GateType.CCZ
+    )
+
+    /** True when [type] maps real amplitudes to real amplitudes whatever its parameters. */
+    fun isReal(type: GateType): Boolean = type in REAL_GATES
+
+    /** X·U·X: the 2x2 gate as seen by a qubit whose stored value is inverted. */
+    fun conjugateByX(u: DoubleArray): DoubleArray = doubleArrayOf(
+        u[6], u[7], u[4], u[5],
+        u[2], u[3], u[0], u[1]
+    )
+
+    private fun exchangeBits(index: Int): Int = ((index and 1) shl 1) or (index shr 1)
+
+    /** Maps |j> to |order[j]>, with phase (re, im) on the basis states that move. */
+    private fun permutation4(order: IntArray, re: Double, im: Double): DoubleArray {
+        val g = DoubleArray(32)
+        for (j in 0 until 4) {
+            val p = 2 * (order[j] * 4 + j)
+            if (order[j] == j) {
+                g[p] = 1.0
+            } else {
+                g[p] = re
+                g[p + 1] = im
+            }
+        }
+        return g
+    }
+
+    // The builder stores U1 as lambda, while the QASM importer puts the first argument in theta.
+    private fun GateParameters?.u1Lambda(): Double = this?.lambda ?: this?.theta ?: 0.0
+
+    // u2(phi, lambda) arrives either as phi/lambda or, from QASM, as theta/phi.
+    private fun GateParameters?.u2Angles(): Pair<Double, Double> = when {
+        this == null -> 0.0 to 0.0
+        lambda != null -> (phi ?: 0.0) to lambda
+        else -> (theta ?: 0.0) to (phi ?: 0.0)
+    }
+}
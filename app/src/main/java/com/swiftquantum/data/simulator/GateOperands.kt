@@ -0,0 +1,60 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Gate
+import com.swiftquantum.domain.model.GateType
+
+/**
+ * Control and target qubits of a gate, normalized for the local engines.
+ *
+ * Circuits reach the simulator from the circuit builder (one target plus explicit
+ * controls) and from the QASM importer (every operand except the last is stored as
+ * a control), so operands are read as `controlQubits + targetQubits` and split by
+ * gate type.
+ */
+class GateOperands(
+    val controls: IntArray,
+    val targets: IntArray
+) {
+    val controlMask: Int
+        get() = controls.fold(0) { mask, qubit -> mask or (1 shl qubit) }
+
+    /** [controlMask] for registers wider than an Int. */
+    val controlBits: Long
+        get() = controls.fold(0L) { mask, qubit -> mask or (1L shl qubit) }
+
+    val target: Int
+        get() = targets[0]
+}
+
+/**
+ * Returns the normalized operands, or null if the gate does not reference enough qubits
+ * to be applied.
+ */
+fun Gate.resolveOperands(): GateOperands? {
+    val operands = controlQubits + targetQubits
+    return when (type) {
+        GateType.SWAP, GateType.ISWAP, GateType.FREDKIN -> {
+            if (operands.size < 2) return null
+            GateOperands(
+                controls = operands.dropLast(2).toIntArray(),
+                targets = operands.takeLast(2).toIntArray()
+            )
+        }
+        GateType.CNOT, GateType.CZ, GateType.CY,
+        GateType.CRX, GateType.CRY, GateType.CRZ,
+        GateType.TOFFOLI, GateType.CCZ -> {
+            if (operands.size < 2) return null
+            GateOperands(
+                controls = operands.dropLast(1).toIntArray(),
+                targets = intArrayOf(operands.last())
+            )
+        }
+        else -> {
+            val target = targetQubits.firstOrNull() ?: return null
+            GateOperands(
+                controls = controlQubits.toIntArray(),
+                targets = intArrayOf(target)
+            )
+        }
+    }
+}
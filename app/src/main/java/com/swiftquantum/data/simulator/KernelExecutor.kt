@@ -0,0 +1,119 @@
+package com.swiftquantum.data.simulator
+
+import android.os.Debug
+import java.util.concurrent.Callable
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Splits a kernel's index range across cores.
+ *
+ * One executor is created per simulation run so its counters describe that run only;
+ * the worker pool itself is shared and bounded to the number of cores.
+ */
+class KernelExecutor(
+    val parallel: Boolean,
+    private val threshold: Int = PARALLEL_THRESHOLD
+) {
+    val threads: Int = if (parallel) pool.parallelism else 1
+
+    private val cpuNanos = AtomicLong()
+    private val wallNanos = AtomicLong()
+
+    var parallelKernels: Int = 0
+        private set
+    var serialKernels: Int = 0
+        private set
+
+    /**
+     * Measured speedup of the parallel kernels: CPU time spent in chunks divided by the
+     * wall time of those kernels. 1.0 when nothing ran in parallel.
+     */
+    val parallelSpeedup: Double
+        get() {
+            val wall = wallNanos.get()
+            return if (wall == 0L) 1.0 else (cpuNanos.get().toDouble() / wall).coerceAtLeast(1.0)
+        }
+
+    /**
+     * Runs [body] over `[0, count)`, in chunks on the shared pool when the range is large enough.
+     * [cost] is the number of amplitudes each item touches, for ranges over blocks of the state.
+     */
+    fun forRange(count: Int, cost: Int = 1, body: (from: Int, to: Int) -> Unit) {
+        val work = count.toLong() * cost
+        if (!parallel || threads < 2 || count < 2 || work < threshold) {
+            serialKernels++
+            body(0, count)
+            return
+        }
+        parallelKernels++
+
+        val chunks = minOf(threads * CHUNKS_PER_THREAD.toLong(), work / MIN_CHUNK, count.toLong())
+            .toInt()
+            .coerceAtLeast(2)
+        val chunkSize = (count + chunks - 1) / chunks
+        // Nested ranges share the outer one's flag, so one cancellation reaches every level
+        val cancelled = cancellation.get() ?: AtomicBoolean()
+        val tasks = (0 until chunks).map { chunk ->
+            Callable {
+                val from = chunk * chunkSize
+                val to = minOf(from + chunkSize, count)
+                if (from < to) {
+                    val outer = cancellation.get()
+                    cancellation.set(cancelled)
+                    val start = Debug.threadCpuTimeNanos()
+                    try {
+                        body(from, to)
+                    } finally {
+                        cpuNanos.addAndGet(Debug.threadCpuTimeNanos() - start)
+                        cancellation.set(outer)
+                    }
+                }
+            }
+        }
+
+        val start = System.nanoTime()
+        val futures = tasks.map { pool.submit(it) }
+        try {
+            futures.forEach { it.get() }
+        } catch (e: InterruptedException) {
+            // Pool threads never see the caller's interrupt, so flag them to stop at their next gate
+            cancelled.set(true)
+            throw e
+        } finally {
+            // No chunk may still be writing the state once this returns or throws
+            futures.forEach { it.quietlyJoin() }
+        }
+        wallNanos.addAndGet(System.nanoTime() - start)
+    }
+
+    companion object {
+        /** Kernels over fewer indices than this stay on the calling thread. */
+        const val PARALLEL_THRESHOLD = 1 shl 14
+
+        /** Chunks a parallel range is split into per pool thread. */
+        const val CHUNKS_PER_THREAD = 4
+        private const val MIN_CHUNK = 1 shl 12
+
+        private val pool: ForkJoinPool by lazy {
+            ForkJoinPool(Runtime.getRuntime().availableProcessors().coerceAtLeast(1))
+        }
+
+        fun serial() = KernelExecutor(parallel = false)
+
+        /** Cancellation flag of the [forRange] call whose chunk this pool thread is running. */
+        private val cancellation = ThreadLocal<AtomicBoolean>()
+
+        /**
+         * Stops a run whose thread was interrupted, which is how [LocalExecutionScheduler]
+         * cancels it. Simulators call this between gates. Inside a [forRange] chunk it also
+         * stops once the thread waiting on that range has been interrupted.
+         */
+        fun ensureActive() {
+            if (Thread.currentThread().isInterrupted || cancellation.get()?.get() == true) {
+                throw InterruptedException("Simulation cancelled")
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.swiftquantum.data.simulator
+
+/**
+ * Qubit relabeling plus XOR mask that has not been applied to the amplitudes yet.
+ *
+ * Logical qubit q is stored in physical bit [physical] (q), inverted when that bit is set in
+ * [flips]. Uncontrolled X and SWAP gates only update this mapping; other gates are rewritten
+ * onto physical qubits, and [StateVector.applyPermutation] moves the data once at the end.
+ */
+class LazyPermutation(private val numQubits: Int) {
+
+    private val physical = IntArray(numQubits) { it }
+
+    /** Physical bits whose stored value is the inverse of the logical one. */
+    var flips = 0
+        private set
+
+    val isIdentity: Boolean
+        get() = flips == 0 && isRelabelingIdentity()
+
+    fun physical(qubit: Int): Int = physical[qubit]
+
+    /** Physical bits of the logical qubits set in [logicalMask]. */
+    fun physicalMask(logicalMask: Int): Int {
+        var mask = 0
+        var rest = logicalMask
+        while (rest != 0) {
+            mask = mask or (1 shl physical[Integer.numberOfTrailingZeros(rest)])
+            rest = rest and (rest - 1)
+        }
+        return mask
+    }
+
+    fun isFlipped(qubit: Int): Boolean = flips and (1 shl physical[qubit]) != 0
+
+    /** Records an X gate on logical [qubit]. */
+    fun flip(qubit: Int) {
+        flips = flips xor (1 shl physical[qubit])
+    }
+
+    /** Records a SWAP of logical qubits [q0] and [q1]. */
+    fun swap(q0: Int, q1: Int) {
+        val p = physical[q0]
+        physical[q0] = physical[q1]
+        physical[q1] = p
+    }
+
+    /** Applies the pending inversion of logical [qubit] to [state] and drops it from the mapping. */
+    fun materializeFlip(state: StateVector, qubit: Int) {
+        val bit = 1 shl physical[qubit]
+        if (flips and bit == 0) return
+        state.applyX(physical[qubit])
+        flips = flips xor bit
+    }
+
+    /**
+     * Moves every amplitude of a [dimension]-sized state from its physical index to its logical
+     * index using only transpositions, calling [swap] (i, j) for each, then resets the mapping.
+     */
+    fun applyTo(dimension: Int, executor: KernelExecutor, swap: IndexSwap) {
+        if (isRelabelingIdentity()) {
+            val mask = flips
+            if (mask != 0) {
+                executor.forRange(dimension) { from, to ->
+                    for (i in from until to) {
+                        val j = i xor mask
+                        if (i < j) swap.swap(i, j)
+                    }
+                }
+            }
+        } else if (isInvolution()) {
+            // Every index trades places with its image, so disjoint pairs can move in parallel
+            val logical = logicalLookup()
+            executor.forRange(dimension) { from, to ->
+                for (i in from until to) {
+                    val j = logical.of(i)
+                    if (i < j) swap.swap(i, j)
+                }
+            }
+        } else {
+            val logical = logicalLookup()
+            // Follow each cycle from its smallest index: swapping the start with the next element
+            // in turn carries every amplitude one step along the cycle
+            val visited = LongArray((dimension + 63) ushr 6)
+            for (start in 0 until dimension) {
+                if (visited[start ushr 6] and (1L shl start) != 0L) continue
+                var next = logical.of(start)
+                while (next != start) {
+                    visited[next ushr 6] = visited[next ushr 6] or (1L shl next)
+                    swap.swap(start, next)
+                    next = logical.of(next)
+                }
+            }
+        }
+        for (q in 0 until numQubits) physical[q] = q
+        flips = 0
+    }
+
+    /** Records that the data in physical bits [p0] and [p1] has been exchanged, e.g. by [StateVector.applySwap]. */
+    fun exchange(p0: Int, p1: Int) {
+        for (q in 0 until numQubits) {
+            when (physical[q]) {
+                p0 -> physical[q] = p1
+                p1 -> physical[q] = p0
+            }
+        }
+        val bit0 = (flips ushr p0) and 1
+        val bit1 = (flips ushr p1) and 1
+        if (bit0 != bit1) flips = flips xor (1 shl p0) xor (1 shl p1)
+    }
+
+    /**
+     * Physical bit pairs which, exchanged in order, put every logical qubit back on its own bit.
+     * Leaves the mapping unchanged.
+     */
+    fun homingSwaps(): List<Pair<Int, Int>> {
+        val current = physical.copyOf()
+        val holder = IntArray(numQubits)
+        for (q in 0 until numQubits) holder[current[q]] = q
+        val swaps = ArrayList<Pair<Int, Int>>()
+        for (q in 0 until numQubits) {
+            val p = current[q]
+            if (p == q) continue
+            val other = holder[q]
+            current[other] = p
+            holder[p] = other
+            current[q] = q
+            holder[q] = q
+            swaps += q to p
+        }
+        return swaps
+    }
+
+    private fun isRelabelingIdentity(): Boolean = (0 until numQubits).all { physical[it] == it }
+
+    /** True when moving every amplitude twice restores it: the relabeling is its own inverse and preserves [flips]. */
+    private fun isInvolution(): Boolean {
+        if ((0 until numQubits).any { physical[physical[it]] != it }) return false
+        var mapped = 0
+        for (q in 0 until numQubits) if (flips and (1 shl q) != 0) mapped = mapped or (1 shl physical[q])
+        return mapped == flips
+    }
+
+    /** Physical-to-logical index map, looked up one byte of the index at a time. */
+    private fun logicalLookup(): LogicalIndex {
+        val tables = Array((numQubits + 7) / 8) { IntArray(256) }
+        for (q in 0 until numQubits) {
+            val p = physical[q]
+            val table = tables[p / 8]
+            for (byte in 0 until 256) {
+                if ((byte ushr (p % 8)) and 1 != 0) table[byte] = table[byte] or (1 shl q)
+            }
+        }
+        return LogicalIndex(tables, flips)
+    }
+
+    private class LogicalIndex(private val tables: Array<IntArray>, private val flips: Int) {
+        fun of(index: Int): Int {
+            val bits = index xor flips
+            var result = 0
+            for (t in tables.indices) result = result or tables[t][(bits ushr (8 * t)) and 0xFF]
+            return result
+        }
+    }
+
+    /** Exchanges the amplitudes at two basis indices; a fun interface so the indices stay unboxed. */
+    fun interface IndexSwap {
+        fun swap(i: Int, j: Int)
+    }
+}
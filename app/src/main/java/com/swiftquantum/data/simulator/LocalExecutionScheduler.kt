@@ -0,0 +1,170 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.EngineStatus
+import com.swiftquantum.domain.model.ExecutionPriority
+import com.swiftquantum.domain.model.HybridEngineType
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runInterruptible
+import timber.log.Timber
+import java.util.EnumMap
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Runs local simulations off the caller's thread, at most [workers] at a time.
+ *
+ * Waiting runs sit in one FIFO lane per [ExecutionPriority]; interactive runs start before any
+ * batch run. A run is admitted only while the planned heap of everything running stays within
+ * [memoryBudget], except that a run always starts when nothing else is running, so an
+ * oversized one still gets the engine's own out-of-memory message.
+ *
+ * Cancelling the calling coroutine removes a queued run, or interrupts a running one, which
+ * stops at the next gate (see [KernelExecutor.ensureActive]).
+ */
+@Singleton
+class LocalExecutionScheduler @Inject constructor(
+    private val localSimulationEngine: LocalSimulationEngine
+) {
+
+    private class Ticket(
+        val priority: ExecutionPriority,
+        val bytes: Long,
+        val work: Double
+    ) {
+        val admitted = CompletableDeferred<Unit>()
+        var startedAt = 0L
+    }
+
+    val workers: Int = (Runtime.getRuntime().availableProcessors() / 2).coerceIn(1, MAX_WORKERS)
+
+    private val lock = Any()
+    private val lanes = EnumMap<ExecutionPriority, ArrayDeque<Ticket>>(ExecutionPriority::class.java).apply {
+        ExecutionPriority.entries.forEach { put(it, ArrayDeque()) }
+    }
+    private val running = mutableSetOf<Ticket>()
+    private var runningBytes = 0L
+
+    /** Measured milliseconds per unit of [workOf], smoothed over recent runs. */
+    private var msPerWork = INITIAL_MS_PER_WORK
+
+    private val memoryBudget: Long
+        get() = (Runtime.getRuntime().maxMemory() * HEAP_SHARE).toLong()
+
+    /** Simulates [circuit] once admitted; see [LocalSimulationEngine.run]. */
+    suspend fun run(
+        circuit: Circuit,
+        shots: Int,
+        options: SimulationOptions = SimulationOptions(),
+        priority: ExecutionPriority = ExecutionPriority.INTERACTIVE
+    ): LocalSimulationResult {
+        val bytes = localSimulationEngine.plannedBytes(circuit, options)
+        return execute(priority, bytes, workOf(circuit, bytes)) {
+            localSimulationEngine.run(circuit, shots, options)
+        }
+    }
+
+    /**
+     * Runs other work on [circuit], such as an expectation value, in the same queue; [runs]
+     * scales the wait estimate for work that simulates the circuit many times.
+     */
+    suspend fun <T> execute(
+        circuit: Circuit,
+        bytes: Long,
+        priority: ExecutionPriority = ExecutionPriority.INTERACTIVE,
+        runs: Int = 1,
+        block: () -> T
+    ): T = execute(priority, bytes, runs * workOf(circuit, bytes), block)
+
+    /**
+     * Runs [block] on a background thread once a worker and [bytes] of heap are free. [work]
+     * feeds the wait estimate; [block] should call [KernelExecutor.ensureActive] to be cancellable.
+     */
+    suspend fun <T> execute(
+        priority: ExecutionPriority,
+        bytes: Long,
+        work: Double,
+        block: () -> T
+    ): T {
+        val ticket = Ticket(priority, bytes, work)
+        synchronized(lock) {
+            lanes.getValue(priority).addLast(ticket)
+            dispatch()
+        }
+        try {
+            ticket.admitted.await()
+        } catch (e: CancellationException) {
+            synchronized(lock) {
+                // Admitted between the cancellation and this lock: give the slot back
+                if (!lanes.getValue(priority).remove(ticket)) finish(ticket, measured = false)
+            }
+            throw e
+        }
+        var completed = false
+        try {
+            return runInterruptible(Dispatchers.Default) { block() }.also { completed = true }
+        } finally {
+            synchronized(lock) { finish(ticket, measured = completed) }
+        }
+    }
+
+    /** Live status of the on-device engine, in the same shape the remote engines report. */
+    fun status(): EngineStatus = synchronized(lock) {
+        val now = System.currentTimeMillis()
+        val queued = lanes.values.sumOf { it.size }
+        val remaining = running.sumOf { ticket ->
+            (ticket.work * msPerWork - (now - ticket.startedAt)).coerceAtLeast(0.0)
+        }
+        val waiting = lanes.values.sumOf { lane -> lane.sumOf { it.work * msPerWork } }
+        EngineStatus(
+            engineType = HybridEngineType.LOCAL,
+            isAvailable = true,
+            currentLoad = running.size.toDouble() / workers,
+            queueLength = queued,
+            estimatedWaitMs = if (queued == 0 && running.size < workers) 0L else ((remaining + waiting) / workers).toLong(),
+            version = "on-device"
+        )
+    }
+
+    /** Starts queued runs while a worker is free and the next run's heap fits. */
+    private fun dispatch() {
+        while (running.size < workers) {
+            val lane = ExecutionPriority.entries.map { lanes.getValue(it) }.firstOrNull { it.isNotEmpty() } ?: return
+            val next = lane.first()
+            if (running.isNotEmpty() && runningBytes + next.bytes > memoryBudget) return
+            lane.removeFirst()
+            running += next
+            runningBytes += next.bytes
+            next.startedAt = System.currentTimeMillis()
+            next.admitted.complete(Unit)
+        }
+    }
+
+    private fun finish(ticket: Ticket, measured: Boolean) {
+        if (!running.remove(ticket)) return
+        runningBytes -= ticket.bytes
+        if (measured && ticket.work > 0.0) {
+            val elapsed = (System.currentTimeMillis() - ticket.startedAt).coerceAtLeast(1L)
+            msPerWork += SMOOTHING * (elapsed / ticket.work - msPerWork)
+        }
+        Timber.d("Local run finished; ${running.size} running, ${lanes.values.sumOf { it.size }} queued")
+        dispatch()
+    }
+
+    /** Rough cost of a run: gates times megabytes of state touched per gate. */
+    private fun workOf(circuit: Circuit, bytes: Long): Double =
+        circuit.gateCount.coerceAtLeast(1) * (bytes.toDouble() / (1 shl 20)).coerceAtLeast(1.0)
+
+    private companion object {
+        /** Concurrent runs; each one already spreads its kernels over every core. */
+        const val MAX_WORKERS = 2
+
+        /** Share of the maximum heap that admitted runs may plan to hold together. */
+        const val HEAP_SHARE = 0.75
+
+        const val INITIAL_MS_PER_WORK = 0.05
+        const val SMOOTHING = 0.2
+    }
+}
@@ -0,0 +1,393 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.MeasurementCounts
+import com.swiftquantum.domain.model.ResultCacheStats
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Output of one local run: the final state, sampled counts and engine statistics. The caller
+ * closes [state] once it has read it, which releases disk mappings and compression buffers.
+ */
+data class LocalSimulationResult(
+    /** Null when a cache hit replayed counts that were stored without their state. */
+    val state: SimulatedState?,
+    val backend: LocalBackend,
+    val counts: MeasurementCounts,
+    /** Independent qubit groups the circuit was split into. */
+    val components: Int,
+    /** Gates per full pass over a dense state; null when no dense state was used. */
+    val gatesPerSweep: Double?,
+    val executionTimeMs: Long,
+    val threadsUsed: Int,
+    val parallelSpeedup: Double,
+    /** True when the state came from [ResultCache] instead of a simulation. */
+    val cacheHit: Boolean = false,
+    /** Noisy trajectories averaged into [counts]; 0 for an ideal run, whose [state] is the result. */
+    val trajectories: Int = 0,
+    /** Expected overlap of the produced state with the ideal one. */
+    val fidelity: Double = 1.0 - (state?.truncationError ?: 0.0),
+    /** True when auto found no exact backend that fits and fell back to bounded-bond MPS. */
+    val approximate: Boolean = false
+)
+
+/**
+ * Entry point for on-device execution shared by the quantum and hybrid engine repositories.
+ */
+@Singleton
+class LocalSimulationEngine @Inject constructor(
+    private val stateVectorSimulator: StateVectorSimulator,
+    private val stabilizerSimulator: StabilizerSimulator,
+    private val sparseSimulator: SparseSimulator,
+    private val mpsSimulator: MpsSimulator,
+    private val diskStateSimulator: DiskStateSimulator,
+    private val compressedStateSimulator: CompressedStateSimulator,
+    private val resultCache: ResultCache,
+    private val trajectorySimulator: TrajectorySimulator,
+    private val densityMatrixSimulator: DensityMatrixSimulator
+) {
+
+    companion object {
+        /** Share of the free heap a run may plan to use. */
+        private const val HEAP_HEADROOM = 0.9
+
+        /** Auto picks the sparse backend only while its worst-case support stays this small. */
+        private const val MAX_AUTO_SPARSE_BRANCHING = 24
+    }
+
+    fun run(
+        circuit: Circuit,
+        shots: Int,
+        options: SimulationOptions = SimulationOptions()
+    ): LocalSimulationResult {
+        val startTime = System.currentTimeMillis()
+        val executor = KernelExecutor(parallel = options.parallel)
+
+        // Noisy runs leave the cache alone: their counts are not draws from one cached state
+        if (options.noise?.isIdeal == false || options.backend == LocalBackend.DENSITY_MATRIX) {
+            return runNoisy(circuit, shots, options, executor, startTime)
+        }
+
+        val backend = selectBackend(circuit, options)
+
+        val cacheKey = if (options.cacheEnabled) resultCache.key(circuit, shots, options) else null
+        if (cacheKey != null) {
+            resultCache.get(cacheKey, options.diskCacheEnabled, resample = options.seed == null)?.let { cached ->
+                val state = (cached as? ResultCache.StateEntry)?.state
+                // A seeded run would draw the same shots again; sampling may move an MPS center
+                val counts = if (options.seed != null || state == null) {
+                    cached.counts
+                } else {
+                    synchronized(state) { state.sample(shots, executor, null) }
+                }
+                return LocalSimulationResult(
+                    state = state,
+                    backend = cached.backend,
+                    counts = counts,
+                    components = cached.components,
+                    gatesPerSweep = cached.gatesPerSweep,
+                    executionTimeMs = System.currentTimeMillis() - startTime,
+                    threadsUsed = 1,
+                    parallelSpeedup = 1.0,
+                    cacheHit = true,
+                    fidelity = 1.0 - cached.truncationError,
+                    approximate = options.backend == LocalBackend.AUTO && cached.backend == LocalBackend.MPS
+                )
+            }
+        }
+
+        val stats = SweepStats()
+
+        val components = QubitComponents.of(circuit)
+        var usedMps = false
+        val (state, stateBackend) = if (components.size == 1 && components[0].size == circuit.numQubits) {
+            usedMps = backend == LocalBackend.MPS
+            simulate(circuit, backend, options, executor, stats)
+        } else {
+            // Disconnected groups: each runs on the backend that suits it, and the widest one
+            // names the result
+            val parts = components.map { qubits ->
+                val sub = QubitComponents.subCircuit(circuit, qubits)
+                val (partState, partBackend) = simulate(sub, selectBackend(sub, options), options, executor, stats)
+                if (partBackend == LocalBackend.MPS) usedMps = true
+                Triple(qubits, partState, partBackend)
+            }
+            Timber.d("Simulating ${circuit.numQubits} qubits as ${parts.size} independent groups")
+            ProductState(circuit.numQubits, parts.map { ProductState.Part(it.first, it.second) }) to
+                (parts.maxByOrNull { it.first.size }?.third ?: backend)
+        }
+
+        val approximate = options.backend == LocalBackend.AUTO && usedMps
+        if (approximate) {
+            Timber.w("No exact backend fits ${circuit.numQubits} qubits; ran MPS with bond cap ${options.maxBondDimension}")
+        }
+
+        val counts = try {
+            state.sample(shots, executor, options.seed).also { counts ->
+                if (cacheKey != null) {
+                    resultCache.put(
+                        cacheKey,
+                        ResultCache.StateEntry(state, stateBackend, counts, components.size, stats.gatesPerSweep),
+                        options.diskCacheEnabled
+                    )
+                }
+            }
+        } catch (e: Throwable) {
+            state.close()
+            throw e
+        }
+
+        return LocalSimulationResult(
+            state = state,
+            backend = stateBackend,
+            counts = counts,
+            components = components.size,
+            gatesPerSweep = stats.gatesPerSweep,
+            executionTimeMs = System.currentTimeMillis() - startTime,
+            threadsUsed = if (executor.parallelKernels > 0) executor.threads else 1,
+            parallelSpeedup = executor.parallelSpeedup,
+            approximate = approximate
+        )
+    }
+
+    /**
+     * Runs [options].noise exactly on a density matrix when asked for or when auto finds the
+     * register small enough, otherwise by sampling trajectories.
+     */
+    private fun runNoisy(
+        circuit: Circuit,
+        shots: Int,
+        options: SimulationOptions,
+        executor: KernelExecutor,
+        startTime: Long
+    ): LocalSimulationResult {
+        val numQubits = circuit.numQubits
+        val noise = options.noise?.takeUnless { it.isIdeal }
+        if (usesDensityMatrix(circuit, options)) {
+            require(numQubits <= DensityMatrix.MAX_QUBITS) {
+                "The density-matrix backend supports up to ${DensityMatrix.MAX_QUBITS} qubits"
+            }
+            requireHeap(numQubits, DensityMatrix.stateBytes(numQubits), hint = " Try the trajectory simulation.")
+            val exact = densityMatrixSimulator.simulate(circuit, noise, executor)
+            return LocalSimulationResult(
+                state = exact.state,
+                backend = LocalBackend.DENSITY_MATRIX,
+                counts = exact.state.sample(shots, executor, options.seed),
+                components = 1,
+                gatesPerSweep = null,
+                executionTimeMs = System.currentTimeMillis() - startTime,
+                threadsUsed = if (executor.parallelKernels > 0) executor.threads else 1,
+                parallelSpeedup = executor.parallelSpeedup,
+                fidelity = exact.fidelity
+            )
+        }
+
+        requireHeap(numQubits, trajectorySimulator.plannedBytes(numQubits, executor), hint = "")
+        val noisy = trajectorySimulator.simulate(circuit, shots, noise!!, executor, options.seed)
+        return LocalSimulationResult(
+            state = noisy.idealState,
+            backend = LocalBackend.STATE_VECTOR,
+            counts = noisy.counts,
+            components = 1,
+            gatesPerSweep = null,
+            executionTimeMs = System.currentTimeMillis() - startTime,
+            threadsUsed = if (executor.parallelKernels > 0) executor.threads else 1,
+            parallelSpeedup = executor.parallelSpeedup,
+            trajectories = noisy.trajectories,
+            fidelity = noisy.fidelity
+        )
+    }
+
+    private fun usesDensityMatrix(circuit: Circuit, options: SimulationOptions): Boolean =
+        options.backend == LocalBackend.DENSITY_MATRIX || (
+            options.backend == LocalBackend.AUTO &&
+                circuit.numQubits <= DensityMatrix.AUTO_MAX_QUBITS &&
+                fitsHeap(DensityMatrix.stateBytes(circuit.numQubits))
+            )
+
+    /**
+     * Heap a run of [circuit] is expected to hold at its peak, for admission by
+     * [LocalExecutionScheduler]. Scratch-file states count only their in-memory part.
+     */
+    fun plannedBytes(circuit: Circuit, options: SimulationOptions): Long {
+        val numQubits = circuit.numQubits
+        if (options.noise?.isIdeal == false || options.backend == LocalBackend.DENSITY_MATRIX) {
+            return if (usesDensityMatrix(circuit, options)) {
+                DensityMatrix.stateBytes(numQubits)
+            } else {
+                trajectorySimulator.plannedBytes(numQubits, KernelExecutor(options.parallel))
+            }
+        }
+        return when (selectBackend(circuit, options)) {
+            LocalBackend.STABILIZER -> StabilizerTableau.tableauBytes(numQubits)
+            LocalBackend.SPARSE -> {
+                val branching = sparseSimulator.branchingGates(circuit).coerceAtMost(numQubits)
+                val sparseBytes = SparseStateVector.tableBytes(1L shl branching)
+                if (fitsDense(numQubits, options.precision)) {
+                    minOf(sparseBytes, options.precision.stateBytes(numQubits))
+                } else {
+                    sparseBytes
+                }
+            }
+            LocalBackend.MPS -> MatrixProductState.chainBytes(numQubits, options.maxBondDimension)
+            LocalBackend.DISK -> 0L
+            LocalBackend.COMPRESSED ->
+                Precision.DOUBLE.stateBytes(CompressedStateVector.BLOCK_QUBITS) * CompressedStateVector.DEFAULT_HOT_BLOCKS
+            else -> if (fitsDense(circuit, options.precision)) {
+                stateVectorSimulator.peakStateBytes(circuit, options.precision)
+            } else {
+                0L
+            }
+        }
+    }
+
+    fun cacheStats(): ResultCacheStats = resultCache.stats()
+
+    fun clearCache() = resultCache.clear()
+
+    /** Runs [circuit] on [backend]; the sparse backend reports STATE_VECTOR once it densifies. */
+    private fun simulate(
+        circuit: Circuit,
+        backend: LocalBackend,
+        options: SimulationOptions,
+        executor: KernelExecutor,
+        stats: SweepStats
+    ): Pair<SimulatedState, LocalBackend> {
+        val numQubits = circuit.numQubits
+        val state: SimulatedState = when (backend) {
+            LocalBackend.STABILIZER -> {
+                requireHeap(numQubits, StabilizerTableau.tableauBytes(numQubits), hint = "")
+                stabilizerSimulator.simulate(circuit)
+            }
+            LocalBackend.SPARSE -> {
+                val canDensify = fitsDense(numQubits, options.precision)
+                val maxEntries = (availableHeap() * HEAP_HEADROOM).toLong() / SparseStateVector.tableBytes(1)
+                sparseSimulator.simulate(
+                    circuit, options.precision, executor, canDensify, maxEntries, stats, options.optimizationLevel
+                )
+            }
+            LocalBackend.MPS -> {
+                requireHeap(numQubits, MatrixProductState.chainBytes(numQubits, options.maxBondDimension), hint = "")
+                mpsSimulator.simulate(circuit, options.maxBondDimension)
+            }
+            LocalBackend.DISK -> {
+                diskStateSimulator.simulate(circuit, options.precision, executor, stats, options.optimizationLevel)
+            }
+            LocalBackend.COMPRESSED -> {
+                compressedStateSimulator.simulate(
+                    circuit,
+                    options.precision,
+                    options.compressionErrorBound,
+                    (availableHeap() * HEAP_HEADROOM).toLong(),
+                    executor,
+                    stats,
+                    options.optimizationLevel
+                )
+            }
+            else -> {
+                if (!fitsDense(circuit, options.precision) && diskStateSimulator.fits(numQubits, options.precision)) {
+                    // Same dense state, kept in scratch storage instead of the heap
+                    return simulate(circuit, LocalBackend.DISK, options, executor, stats)
+                }
+                StateVector.requireSupported(numQubits)
+                val hint = if (options.precision == Precision.DOUBLE) " Try float precision." else ""
+                // Real amplitudes halve a real circuit, but one that turns complex holds both copies briefly
+                val realAmplitudes = fitsHeap(stateVectorSimulator.peakStateBytes(circuit, options.precision))
+                requireHeap(numQubits, stateVectorSimulator.peakStateBytes(circuit, options.precision, realAmplitudes), hint)
+                stateVectorSimulator.simulate(
+                    circuit, options.precision, executor, stats, options.optimizationLevel, realAmplitudes
+                )
+            }
+        }
+        return state to if (backend == LocalBackend.SPARSE && state is StateVector) LocalBackend.STATE_VECTOR else backend
+    }
+
+    /**
+     * Resolves [LocalBackend.AUTO]: Clifford-only circuits go to the stabilizer tableau, circuits
+     * with few branching gates to the sparse state, circuits whose dense state fits to the
+     * state vector, and wider ones fall back to MPS. Circuits MPS cannot run use the state
+     * vector, which moves to scratch storage when the heap is too small.
+     */
+    fun selectBackend(circuit: Circuit, options: SimulationOptions): LocalBackend = when (options.backend) {
+        LocalBackend.AUTO -> when {
+            stabilizerSimulator.supports(circuit) -> LocalBackend.STABILIZER
+            staysSparse(circuit) -> LocalBackend.SPARSE
+            fitsDense(circuit, options.precision) -> LocalBackend.STATE_VECTOR
+            mpsSimulator.supports(circuit) -> LocalBackend.MPS
+            else -> LocalBackend.STATE_VECTOR
+        }
+        LocalBackend.STABILIZER -> {
+            require(stabilizerSimulator.supports(circuit)) {
+                "The stabilizer backend only runs H, S, X, Y, Z, CNOT, CZ and SWAP circuits"
+            }
+            options.backend
+        }
+        LocalBackend.SPARSE -> {
+            require(circuit.numQubits <= SparseStateVector.MAX_QUBITS) {
+                "The sparse backend supports up to ${SparseStateVector.MAX_QUBITS} qubits"
+            }
+            options.backend
+        }
+        LocalBackend.MPS -> {
+            require(mpsSimulator.supports(circuit)) {
+                "The MPS backend runs gates on at most three qubits"
+            }
+            options.backend
+        }
+        LocalBackend.DISK -> {
+            require(circuit.numQubits <= MappedStateVector.MAX_QUBITS) {
+                "The disk backend supports up to ${MappedStateVector.MAX_QUBITS} qubits"
+            }
+            options.backend
+        }
+        LocalBackend.COMPRESSED -> {
+            require(circuit.numQubits <= CompressedStateVector.MAX_QUBITS) {
+                "The compressed backend supports up to ${CompressedStateVector.MAX_QUBITS} qubits"
+            }
+            require(options.compressionErrorBound >= 0.0) { "The compression error bound must not be negative" }
+            options.backend
+        }
+        else -> options.backend
+    }
+
+    /** True when every branching gate could double the support and it would still be far below 2^n. */
+    private fun staysSparse(circuit: Circuit): Boolean {
+        val branching = sparseSimulator.branchingGates(circuit)
+        return circuit.numQubits <= SparseStateVector.MAX_QUBITS &&
+            branching <= MAX_AUTO_SPARSE_BRANCHING &&
+            branching <= circuit.numQubits - 3
+    }
+
+    private fun fitsDense(numQubits: Int, precision: Precision): Boolean =
+        numQubits <= StateVector.MAX_QUBITS && fitsHeap(precision.stateBytes(numQubits))
+
+    /** Like [fitsDense], counting real-only circuits at half size. */
+    private fun fitsDense(circuit: Circuit, precision: Precision): Boolean =
+        circuit.numQubits <= StateVector.MAX_QUBITS && (
+            fitsHeap(stateVectorSimulator.peakStateBytes(circuit, precision)) ||
+                fitsHeap(precision.stateBytes(circuit.numQubits))
+            )
+
+    private fun fitsHeap(bytes: Long): Boolean = bytes <= availableHeap() * HEAP_HEADROOM
+
+    /**
+     * Fails before allocating when the state would not fit in the heap that is still free,
+     * rather than letting the allocation throw [OutOfMemoryError].
+     */
+    private fun requireHeap(numQubits: Int, required: Long, hint: String) {
+        val available = availableHeap()
+        if (required > available * HEAP_HEADROOM) {
+            throw IllegalStateException(
+                "A $numQubits-qubit state needs ${required shr 20} MB but only " +
+                    "${available shr 20} MB of memory is available.$hint"
+            )
+        }
+    }
+
+    private fun availableHeap(): Long {
+        val runtime = Runtime.getRuntime()
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory())
+    }
+}
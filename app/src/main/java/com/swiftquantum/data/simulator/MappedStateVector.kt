@@ -0,0 +1,164 @@
+package com.swiftquantum.data.simulator
+
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.lang.reflect.Method
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.DoubleBuffer
+import java.nio.FloatBuffer
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+
+/**
+ * Dense state in a memory-mapped scratch file, for registers whose amplitudes do not fit in
+ * the Java heap. The file is mapped in windows of up to [MAPPING_BYTES], so even a 40-qubit
+ * state stays far below the kernel's limit on mappings per process, and each window is cut
+ * into chunks of 2^[CHUNK_QUBITS] amplitudes.
+ *
+ * The file is unlinked as soon as it is mapped. [close] unmaps the windows at once, giving the
+ * space back to the system; otherwise that happens when they are collected, or when the
+ * process dies.
+ */
+class MappedStateVector private constructor(
+    numQubits: Int,
+    val precision: Precision,
+    private val mappings: Array<MappedByteBuffer>,
+    private val chunks: Array<Chunk>,
+    executor: KernelExecutor
+) : ChunkedStateVector(numQubits, CHUNK_QUBITS, executor) {
+
+    @Volatile
+    private var closed = false
+
+    override val sizeBytes: Long
+        get() = precision.stateBytes(numQubits)
+
+    override fun acquire(index: Int): Chunk {
+        check(!closed) { "The disk-backed state was closed" }
+        return chunks[index]
+    }
+
+    override fun close() {
+        synchronized(this) {
+            if (closed) return
+            closed = true
+        }
+        mappings.forEach { unmap(it) }
+    }
+
+    private class DoubleChunk(buffer: ByteBuffer) : Chunk() {
+        private val values: DoubleBuffer = buffer.order(ByteOrder.nativeOrder()).asDoubleBuffer()
+
+        override fun re(i: Int): Double = values.get(2 * i)
+        override fun im(i: Int): Double = values.get(2 * i + 1)
+        override fun set(i: Int, re: Double, im: Double) {
+            values.put(2 * i, re)
+            values.put(2 * i + 1, im)
+        }
+    }
+
+    private class FloatChunk(buffer: ByteBuffer) : Chunk() {
+        private val values: FloatBuffer = buffer.order(ByteOrder.nativeOrder()).asFloatBuffer()
+
+        override fun re(i: Int): Double = values.get(2 * i).toDouble()
+        override fun im(i: Int): Double = values.get(2 * i + 1).toDouble()
+        override fun set(i: Int, re: Double, im: Double) {
+            values.put(2 * i, re.toFloat())
+            values.put(2 * i + 1, im.toFloat())
+        }
+    }
+
+    companion object {
+        /** Widest register: the MASTER tier limit. */
+        const val MAX_QUBITS = 40
+
+        /** 2^20 amplitudes per chunk: 16 MB in double precision. */
+        const val CHUNK_QUBITS = 20
+
+        /** Largest single mapping: 1 GB, or 16384 mappings for a 40-qubit double state. */
+        const val MAPPING_BYTES = 1L shl 30
+
+        /** The runtime's way to unmap a buffer before it is collected, if it exposes one. */
+        private val unmapper: Pair<Any?, Method>? by lazy {
+            try {
+                // Android
+                null to Class.forName("java.nio.NioUtils").getMethod("freeDirectBuffer", ByteBuffer::class.java)
+            } catch (e: ReflectiveOperationException) {
+                try {
+                    // JVM 9+
+                    val unsafe = Class.forName("sun.misc.Unsafe")
+                    val instance = unsafe.getDeclaredField("theUnsafe").apply { isAccessible = true }.get(null)
+                    instance to unsafe.getMethod("invokeCleaner", ByteBuffer::class.java)
+                } catch (e: ReflectiveOperationException) {
+                    Timber.d("No way to unmap buffers early; mappings are released when collected")
+                    null
+                }
+            }
+        }
+
+        private fun unmap(buffer: MappedByteBuffer) {
+            val (target, method) = unmapper ?: return
+            try {
+                method.invoke(target, buffer)
+            } catch (e: ReflectiveOperationException) {
+                Timber.w(e, "Could not unmap a state mapping; it is released when collected")
+            }
+        }
+
+        /**
+         * Maps a zeroed [numQubits] state initialised to |0...0⟩ in a scratch file under [directory].
+         *
+         * @throws IllegalStateException if the file cannot be created or mapped
+         */
+        fun create(
+            numQubits: Int,
+            precision: Precision,
+            directory: File,
+            executor: KernelExecutor = KernelExecutor.serial()
+        ): MappedStateVector {
+            require(numQubits in 1..MAX_QUBITS) {
+                "The disk-backed state vector supports 1..$MAX_QUBITS qubits, got $numQubits"
+            }
+            val chunkQubits = minOf(numQubits, CHUNK_QUBITS)
+            val chunkBytes = precision.stateBytes(chunkQubits)
+            val totalBytes = precision.stateBytes(numQubits)
+            val mappingBytes = minOf(totalBytes, MAPPING_BYTES)
+            val chunksPerMapping = (mappingBytes / chunkBytes).toInt()
+
+            val mappings = ArrayList<MappedByteBuffer>()
+            val chunks = try {
+                directory.mkdirs()
+                val file = File.createTempFile("state", ".amp", directory)
+                try {
+                    RandomAccessFile(file, "rw").use { raf ->
+                        raf.setLength(totalBytes)
+                        for (offset in 0 until totalBytes step mappingBytes) {
+                            mappings += raf.channel.map(FileChannel.MapMode.READ_WRITE, offset, mappingBytes)
+                        }
+                    }
+                } finally {
+                    file.delete()
+                }
+                Array(1 shl (numQubits - chunkQubits)) { c ->
+                    val start = (c % chunksPerMapping) * chunkBytes.toInt()
+                    val slice = mappings[c / chunksPerMapping].duplicate().apply {
+                        position(start)
+                        limit(start + chunkBytes.toInt())
+                    }.slice()
+                    when (precision) {
+                        Precision.SINGLE -> FloatChunk(slice)
+                        Precision.DOUBLE -> DoubleChunk(slice)
+                    }
+                }
+            } catch (e: IOException) {
+                mappings.forEach { unmap(it) }
+                throw IllegalStateException("Could not map scratch storage for a $numQubits-qubit state: ${e.message}", e)
+            }
+            chunks[0].set(0, 1.0, 0.0)
+            return MappedStateVector(numQubits, precision, mappings.toTypedArray(), chunks, executor)
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.ComplexNumber
+import com.swiftquantum.domain.model.MeasurementCounts
+import java.util.SplittableRandom
+import kotlin.math.sqrt
+
+/**
+ * n-qubit state as a chain of (left x 2 x right) tensors, one site per qubit.
+ *
+ * The chain is kept in mixed canonical form around [center], so the singular values of a
+ * two-site update are the Schmidt coefficients of that cut and dropping the smallest ones is
+ * the optimal truncation. Bonds are capped at [maxBondDimension]; the discarded weight is
+ * accumulated into [truncationError]. Memory grows with entanglement, not with 2^n.
+ */
+class MatrixProductState(
+    override val numQubits: Int,
+    val maxBondDimension: Int
+) : SimulatedState {
+
+    init {
+        require(numQubits >= 1) { "MPS needs at least one qubit, got $numQubits" }
+        require(maxBondDimension >= 1) { "Bond dimension cap must be positive, got $maxBondDimension" }
+    }
+
+    // Site k: bonds[k] x 2 x bonds[k + 1], interleaved re/im, index ((l * 2 + s) * right + r)
+    private val tensors = Array(numQubits) { DoubleArray(4).also { it[0] = 1.0 } }
+    private val bonds = IntArray(numQubits + 1) { 1 }
+    private var center = 0
+    private var keptWeight = 1.0
+
+    /** 1 - product of the weights kept at every truncation; bounds 1 - fidelity. */
+    override val truncationError: Double
+        get() = 1.0 - keptWeight
+
+    val largestBond: Int
+        get() = bonds.max()
+
+    override val sizeBytes: Long
+        get() = tensors.sumOf { it.size.toLong() } * Double.SIZE_BYTES
+
+    fun applySingle(q: Int, m: DoubleArray) {
+        val t = tensors[q]
+        val left = bonds[q]
+        val right = bonds[q + 1]
+        for (l in 0 until left) {
+            for (r in 0 until right) {
+                val p0 = 2 * ((l * 2) * right + r)
+                val p1 = 2 * ((l * 2 + 1) * right + r)
+                val ar = t[p0]; val ai = t[p0 + 1]
+                val br = t[p1]; val bi = t[p1 + 1]
+                t[p0] = m[0] * ar - m[1] * ai + m[2] * br - m[3] * bi
+                t[p0 + 1] = m[0] * ai + m[1] * ar + m[2] * bi + m[3] * br
+                t[p1] = m[4] * ar - m[5] * ai + m[6] * br - m[7] * bi
+                t[p1 + 1] = m[4] * ai + m[5] * ar + m[6] * bi + m[7] * br
+            }
+        }
+    }
+
+    /**
+     * Applies the 4x4 [gate], written in the basis `2 * b(q0) + b(q1)`. Distant qubits are
+     * brought next to each other with swaps and moved back afterwards.
+     */
+    fun applyTwo(q0: Int, q1: Int, gate: DoubleArray) {
+        require(q0 != q1) { "Two-qubit gate needs distinct qubits, got $q0 twice" }
+        if (q0 > q1) return applyTwo(q1, q0, GateMatrices.swapOperands(gate))
+        for (site in q1 - 1 downTo q0 + 1) applyAdjacent(site, GateMatrices.SWAP_4)
+        applyAdjacent(q0, gate)
+        for (site in q0 + 1 until q1) applyAdjacent(site, GateMatrices.SWAP_4)
+    }
+
+    /** Gate on sites (k, k + 1): contract, apply, split by SVD and truncate. */
+    private fun applyAdjacent(k: Int, gate: DoubleArray) {
+        moveCenter(k)
+        val left = bonds[k]
+        val mid = bonds[k + 1]
+        val right = bonds[k + 2]
+        val a = tensors[k]
+        val b = tensors[k + 1]
+
+        // theta[l, s1, s2, r] = sum_m a[l, s1, m] * b[m, s2, r]
+        val theta = DoubleArray(2 * left * 4 * right)
+        for (ls in 0 until left * 2) {
+            for (m in 0 until mid) {
+                val pa = 2 * (ls * mid + m)
+                val ar = a[pa]; val ai = a[pa + 1]
+                if (ar == 0.0 && ai == 0.0) continue
+                for (s2r in 0 until 2 * right) {
+                    val pb = 2 * (m * 2 * right + s2r)
+                    val pt = 2 * (ls * 2 * right + s2r)
+                    theta[pt] += ar * b[pb] - ai * b[pb + 1]
+                    theta[pt + 1] += ar * b[pb + 1] + ai * b[pb]
+                }
+            }
+        }
+
+        val v = DoubleArray(8)
+        for (l in 0 until left) {
+            for (r in 0 until right) {
+                for (t in 0 until 4) {
+                    val p = 2 * ((l * 4 + t) * right + r)
+                    v[2 * t] = theta[p]
+                    v[2 * t + 1] = theta[p + 1]
+                }
+                for (o in 0 until 4) {
+                    var re = 0.0
+                    var im = 0.0
+                    for (t in 0 until 4) {
+                        val gr = gate[2 * (o * 4 + t)]
+                        val gi = gate[2 * (o * 4 + t) + 1]
+                        re += gr * v[2 * t] - gi * v[2 * t + 1]
+                        im += gr * v[2 * t + 1] + gi * v[2 * t]
+                    }
+                    val p = 2 * ((l * 4 + o) * right + r)
+                    theta[p] = re
+                    theta[p + 1] = im
+                }
+            }
+        }
+
+        val svd = ComplexSvd.decompose(theta, left * 2, 2 * right)
+        val keep = keptRank(svd.s, svd.rank, maxBondDimension)
+        var total = 0.0
+        var kept = 0.0
+        for (i in 0 until svd.rank) {
+            val w = svd.s[i] * svd.s[i]
+            total += w
+            if (i < keep) kept += w
+        }
+        if (kept < total) keptWeight *= kept / total
+        val scale = 1.0 / sqrt(kept)
+
+        tensors[k] = leadingColumns(svd.u, left * 2, svd.rank, keep)
+        tensors[k + 1] = scaledRows(svd.vh, svd.s, scale, keep, 2 * right)
+        bonds[k + 1] = keep
+        center = k + 1
+    }
+
+    /** Moves the orthogonality center to [site] with exact SVDs, dropping only zero weights. */
+    private fun moveCenter(site: Int) {
+        while (center < site) {
+            val k = center
+            val left = bonds[k]
+            val right = bonds[k + 1]
+            val svd = ComplexSvd.decompose(tensors[k], left * 2, right)
+            val keep = keptRank(svd.s, svd.rank, Int.MAX_VALUE)
+            tensors[k] = leadingColumns(svd.u, left * 2, svd.rank, keep)
+            val carry = scaledRows(svd.vh, svd.s, 1.0, keep, right)
+            tensors[k + 1] = multiply(carry, keep, right, tensors[k + 1], 2 * bonds[k + 2])
+            bonds[k + 1] = keep
+            center++
+        }
+        while (center > site) {
+            val k = center
+            val left = bonds[k]
+            val right = bonds[k + 1]
+            val svd = ComplexSvd.decompose(tensors[k], left, 2 * right)
+            val keep = keptRank(svd.s, svd.rank, Int.MAX_VALUE)
+            tensors[k] = scaledRows(svd.vh, svd.s, null, keep, 2 * right)
+            val carry = leadingColumns(svd.u, left, svd.rank, keep)
+            for (row in 0 until left) {
+                for (c in 0 until keep) {
+                    val p = 2 * (row * keep + c)
+                    carry[p] *= svd.s[c]
+                    carry[p + 1] *= svd.s[c]
+                }
+            }
+            tensors[k - 1] = multiply(tensors[k - 1], 2 * bonds[k - 1], left, carry, keep)
+            bonds[k] = keep
+            center--
+        }
+    }
+
+    /**
+     * Samples site by site from the left: with the center at site 0 every other site is
+     * right-orthonormal, so each conditional probability is a norm of the running vector.
+     */
+    override fun sample(shots: Int, executor: KernelExecutor, seed: Long?): MeasurementCounts {
+        require(shots >= 0) { "Shots must be non-negative, got $shots" }
+        moveCenter(0)
+        val random = seed?.let { SplittableRandom(it) } ?: SplittableRandom()
+        val words = (numQubits + 63) ushr 6
+        val width = 2 * largestBond
+        val chunks = (shots + SHOT_CHUNK - 1) / SHOT_CHUNK
+        val streams = Array(chunks) { random.split() }
+        val outcomes = LongArray(shots * words)
+        val cost = (SHOT_CHUNK.toLong() * numQubits * largestBond * largestBond)
+            .coerceAtMost(Int.MAX_VALUE.toLong()).toInt()
+
+        executor.forRange(chunks, cost) { from, to ->
+            var vector = DoubleArray(width)
+            var zero = DoubleArray(width)
+            var one = DoubleArray(width)
+            for (chunk in from until to) {
+                val rng = streams[chunk]
+                for (shot in chunk * SHOT_CHUNK until minOf((chunk + 1) * SHOT_CHUNK, shots)) {
+                    vector[0] = 1.0
+                    vector[1] = 0.0
+                    for (k in 0 until numQubits) {
+                        val t = tensors[k]
+                        val left = bonds[k]
+                        val right = bonds[k + 1]
+                        zero.fill(0.0, 0, 2 * right)
+                        one.fill(0.0, 0, 2 * right)
+                        for (l in 0 until left) {
+                            val vr = vector[2 * l]; val vi = vector[2 * l + 1]
+                            if (vr == 0.0 && vi == 0.0) continue
+                            for (r in 0 until right) {
+                                val p0 = 2 * ((l * 2) * right + r)
+                                val p1 = 2 * ((l * 2 + 1) * right + r)
+                                zero[2 * r] += vr * t[p0] - vi * t[p0 + 1]
+                                zero[2 * r + 1] += vr * t[p0 + 1] + vi * t[p0]
+                                one[2 * r] += vr * t[p1] - vi * t[p1 + 1]
+                                one[2 * r + 1] += vr * t[p1 + 1] + vi * t[p1]
+                            }
+                        }
+                        var p0 = 0.0
+                        var p1 = 0.0
+                        for (i in 0 until 2 * right) {
+                            p0 += zero[i] * zero[i]
+                            p1 += one[i] * one[i]
+                        }
+                        val outcome = rng.nextDouble() * (p0 + p1) >= p0
+                        val chosen = if (outcome) one else zero
+                        val scale = 1.0 / sqrt(if (outcome) p1 else p0)
+                        for (i in 0 until 2 * right) chosen[i] *= scale
+                        if (outcome) {
+                            val p = shot * words + (k ushr 6)
+                            outcomes[p] = outcomes[p] or (1L shl k)
+                            one = vector
+                        } else {
+                            zero = vector
+                        }
+                        vector = chosen
+                    }
+                }
+            }
+        }
+        return ShotSampler.countOutcomes(numQubits, outcomes, shots)
+    }
+
+    /** Contracts the chain into dense amplitudes, up to [MAX_AMPLITUDE_QUBITS]. */
+    override fun amplitudes(): List<ComplexNumber>? {
+        if (numQubits > MAX_AMPLITUDE_QUBITS) return null
+        // current[p, l]: amplitude of prefix p (bits 0 until k) with open bond l
+        var current = doubleArrayOf(1.0, 0.0)
+        var prefixes = 1
+        for (k in 0 until numQubits) {
+            val t = tensors[k]
+            val left = bonds[k]
+            val right = bonds[k + 1]
+            val next = DoubleArray(2 * prefixes * 2 * right)
+            for (p in 0 until prefixes) {
+                for (l in 0 until left) {
+                    val cr = current[2 * (p * left + l)]
+                    val ci = current[2 * (p * left + l) + 1]
+                    if (cr == 0.0 && ci == 0.0) continue
+                    for (s in 0 until 2) {
+                        val prefix = p + s * prefixes
+                        for (r in 0 until right) {
+                            val pt = 2 * ((l * 2 + s) * right + r)
+                            val pn = 2 * (prefix * right + r)
+                            next[pn] += cr * t[pt] - ci * t[pt + 1]
+                            next[pn + 1] += cr * t[pt + 1] + ci * t[pt]
+                        }
+                    }
+                }
+            }
+            current = next
+            prefixes *= 2
+        }
+        val state = DoubleStateVector(numQubits)
+        current.copyInto(state.amplitudes)
+        return state.asComplexList()
+    }
+
+    companion object {
+        /** Widest state for which [amplitudes] contracts the chain into a dense vector. */
+        const val MAX_AMPLITUDE_QUBITS = 20
+
+        /** Default bond cap; about 2 MB per site at the worst. */
+        const val DEFAULT_MAX_BOND_DIMENSION = 64
+
+        /** Singular values below this fraction of the largest are treated as zero. */
+        private const val SINGULAR_CUTOFF = 1e-12
+
+        private const val SHOT_CHUNK = 256
+
+        /** Upper bound on the tensor storage of an n-qubit chain at the given bond cap. */
+        fun chainBytes(numQubits: Int, maxBondDimension: Int): Long =
+            numQubits.toLong() * 2 * maxBondDimension * maxBondDimension * 2 * Double.SIZE_BYTES
+
+        private fun keptRank(s: DoubleArray, rank: Int, cap: Int): Int {
+            var keep = 0
+            while (keep < rank && keep < cap && s[keep] > SINGULAR_CUTOFF * s[0]) keep++
+            return keep.coerceAtLeast(1)
+        }
+
+        private fun leadingColumns(u: DoubleArray, rows: Int, cols: Int, keep: Int): DoubleArray {
+            val out = DoubleArray(2 * rows * keep)
+            for (row in 0 until rows) {
+                System.arraycopy(u, 2 * row * cols, out, 2 * row * keep, 2 * keep)
+            }
+            return out
+        }
+
+        /** First [keep] rows of [vh], each multiplied by `s[i] * scale` (or left as is when null). */
+        private fun scaledRows(vh: DoubleArray, s: DoubleArray, scale: Double?, keep: Int, cols: Int): DoubleArray {
+            val out = vh.copyOf(2 * keep * cols)
+            if (scale == null) return out
+            for (i in 0 until keep) {
+                val factor = s[i] * scale
+                for (c in 0 until 2 * cols) out[2 * i * cols + c] *= factor
+            }
+            return out
+        }
+
+        private fun multiply(a: DoubleArray, n: Int, m: Int, b: DoubleArray, p: Int): DoubleArray {
+            val out = DoubleArray(2 * n * p)
+            for (i in 0 until n) {
+                for (k in 0 until m) {
+                    val ar = a[2 * (i * m + k)]
+                    val ai = a[2 * (i * m + k) + 1]
+                    if (ar == 0.0 && ai == 0.0) continue
+                    for (j in 0 until p) {
+                        val pb = 2 * (k * p + j)
+                        val po = 2 * (i * p + j)
+                        out[po] += ar * b[pb] - ai * b[pb + 1]
+                        out[po + 1] += ar * b[pb + 1] + ai * b[pb]
+                    }
+                }
+            }
+            return out
+        }
+    }
+}
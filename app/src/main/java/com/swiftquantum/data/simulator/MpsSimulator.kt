@@ -0,0 +1,94 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.Gate
+import com.swiftquantum.domain.model.GateType
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Local engine for wide, weakly entangled circuits. Runs a [Circuit] on a
+ * [MatrixProductState] with a bounded bond dimension.
+ */
+@Singleton
+class MpsSimulator @Inject constructor() {
+
+    /** True when every gate reduces to one- and two-qubit operations. */
+    fun supports(circuit: Circuit): Boolean = circuit.gates.all { gate ->
+        val operands = gate.resolveOperands() ?: return@all true
+        when (gate.type) {
+            GateType.SWAP, GateType.ISWAP -> operands.controls.isEmpty()
+            GateType.FREDKIN -> operands.controls.size == 1
+            GateType.TOFFOLI, GateType.CCZ -> operands.controls.size == 2
+            else -> operands.controls.size <= 1
+        }
+    }
+
+    fun simulate(circuit: Circuit, maxBondDimension: Int): MatrixProductState {
+        val state = MatrixProductState(circuit.numQubits, maxBondDimension)
+        circuit.gates.sortedBy { it.position }.forEach { gate ->
+            KernelExecutor.ensureActive()
+            applyGate(state, gate)
+        }
+        return state
+    }
+
+    fun applyGate(state: MatrixProductState, gate: Gate) {
+        val operands = gate.resolveOperands()
+        if (operands == null) {
+            Timber.w("Skipping ${gate.type.displayName}: not enough qubits")
+            return
+        }
+        val controls = operands.controls
+        val target = operands.target
+
+        when (gate.type) {
+            GateType.SWAP -> state.applyTwo(operands.targets[0], operands.targets[1], GateMatrices.SWAP_4)
+            GateType.ISWAP -> state.applyTwo(operands.targets[0], operands.targets[1], GateMatrices.ISWAP_4)
+            GateType.TOFFOLI -> {
+                state.applySingle(target, GateMatrices.H)
+                applyCcz(state, controls[0], controls[1], target)
+                state.applySingle(target, GateMatrices.H)
+            }
+            GateType.CCZ -> applyCcz(state, controls[0], controls[1], target)
+            GateType.FREDKIN -> {
+                val a = operands.targets[0]
+                val b = operands.targets[1]
+                val cnot = GateMatrices.controlled(GateMatrices.X)
+                state.applyTwo(b, a, cnot)
+                state.applySingle(b, GateMatrices.H)
+                applyCcz(state, controls[0], a, b)
+                state.applySingle(b, GateMatrices.H)
+                state.applyTwo(b, a, cnot)
+            }
+            else -> {
+                val matrix = GateMatrices.forGate(gate.type, gate.parameters) ?: return
+                require(controls.size <= 1) { "${gate.type.displayName} with ${controls.size} controls is not supported by MPS" }
+                if (controls.isEmpty()) {
+                    state.applySingle(target, matrix)
+                } else {
+                    state.applyTwo(controls[0], target, GateMatrices.controlled(matrix))
+                }
+            }
+        }
+    }
+
+    /** CCZ from six CNOTs and T gates, as in the standard Toffoli circuit without its H pair. */
+    private fun applyCcz(state: MatrixProductState, c1: Int, c2: Int, target: Int) {
+        val cnot = GateMatrices.controlled(GateMatrices.X)
+        state.applyTwo(c2, target, cnot)
+        state.applySingle(target, GateMatrices.T_DAGGER)
+        state.applyTwo(c1, target, cnot)
+        state.applySingle(target, GateMatrices.T)
+        state.applyTwo(c2, target, cnot)
+        state.applySingle(target, GateMatrices.T_DAGGER)
+        state.applyTwo(c1, target, cnot)
+        state.applySingle(c2, GateMatrices.T)
+        state.applySingle(target, GateMatrices.T)
+        state.applyTwo(c1, c2, cnot)
+        state.applySingle(c1, GateMatrices.T)
+        state.applySingle(c2, GateMatrices.T_DAGGER)
+        state.applyTwo(c1, c2, cnot)
+    }
+}
@@ -0,0 +1,108 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.NoiseModel
+import kotlin.math.exp
+import kotlin.math.sqrt
+
+/**
+ * Per-qubit noise after a gate, derived from a [NoiseModel]: a depolarizing Pauli, then
+ * amplitude damping and a dephasing phase flip over the gate's duration.
+ *
+ * [TrajectorySimulator] samples these as jumps; [DensityMatrixSimulator] applies them exactly
+ * as 4x4 superoperators on a qubit's (row, column) pair.
+ */
+class NoiseChannels private constructor(
+    val depolarizing: Double,
+    val readoutError: Double,
+    private val singleQubit: Relaxation,
+    private val multiQubit: Relaxation
+) {
+    /** Jump probabilities over one gate duration. */
+    class Relaxation(val damping: Double, val phaseFlip: Double)
+
+    /** Relaxation during a gate on [qubits] qubits. */
+    fun relaxation(qubits: Int): Relaxation = if (qubits == 1) singleQubit else multiQubit
+
+    private val singleQubitSuperoperator by lazy { superoperator(singleQubit) }
+    private val multiQubitSuperoperator by lazy { superoperator(multiQubit) }
+
+    /** Superoperator of the whole per-qubit channel after a gate on [qubits] qubits; shared, do not modify. */
+    fun superoperator(qubits: Int): DoubleArray =
+        if (qubits == 1) singleQubitSuperoperator else multiQubitSuperoperator
+
+    /** Bit flips with the readout error rate, which on the diagonal are misread outcomes. */
+    val readoutSuperoperator: DoubleArray by lazy {
+        superoperator(listOf(scaled(GateMatrices.IDENTITY, 1.0 - readoutError), scaled(GateMatrices.X, readoutError)))
+    }
+
+    private fun superoperator(relaxation: Relaxation): DoubleArray {
+        val p = depolarizing
+        val depolarize = superoperator(
+            listOf(
+                scaled(GateMatrices.IDENTITY, 1.0 - p),
+                scaled(GateMatrices.X, p / 3),
+                scaled(GateMatrices.Y, p / 3),
+                scaled(GateMatrices.Z, p / 3)
+            )
+        )
+        val gamma = relaxation.damping
+        val damp = superoperator(
+            listOf(
+                doubleArrayOf(1.0, 0.0, 0.0, 0.0, 0.0, 0.0, sqrt(1.0 - gamma), 0.0),
+                doubleArrayOf(0.0, 0.0, sqrt(gamma), 0.0, 0.0, 0.0, 0.0, 0.0)
+            )
+        )
+        val pz = relaxation.phaseFlip
+        val dephase = superoperator(listOf(scaled(GateMatrices.IDENTITY, 1.0 - pz), scaled(GateMatrices.Z, pz)))
+        return GateMatrices.multiply4(dephase, GateMatrices.multiply4(damp, depolarize))
+    }
+
+    companion object {
+        fun of(noise: NoiseModel): NoiseChannels {
+            require(noise.gateErrorRate in 0.0..1.0) { "The gate error rate must be between 0 and 1" }
+            require(noise.readoutErrorRate in 0.0..1.0) { "The readout error rate must be between 0 and 1" }
+            val t1 = noise.t1Us
+            val t2 = noise.t2Us
+            require(t1 == null || t1 > 0.0) { "T1 must be positive" }
+            require(t2 == null || t2 > 0.0) { "T2 must be positive" }
+            // Pure dephasing rate: 1/T2 - 1/(2·T1), which T2 <= 2·T1 keeps non-negative
+            val dephasingRate = if (t2 == null) 0.0 else 1.0 / t2 - (if (t1 == null) 0.0 else 0.5 / t1)
+            require(dephasingRate >= -1e-12) { "T2 cannot exceed 2 * T1" }
+
+            fun relaxation(durationNs: Double): Relaxation {
+                val us = durationNs / 1000.0
+                return Relaxation(
+                    damping = if (t1 == null) 0.0 else 1.0 - exp(-us / t1),
+                    phaseFlip = (1.0 - exp(-us * dephasingRate.coerceAtLeast(0.0))) / 2.0
+                )
+            }
+            return NoiseChannels(
+                noise.gateErrorRate,
+                noise.readoutErrorRate,
+                relaxation(noise.singleQubitGateNs),
+                relaxation(noise.multiQubitGateNs)
+            )
+        }
+
+        /**
+         * Σ K ⊗ conj(K) over the Kraus operators [kraus], acting on a qubit's row bit (q0) and
+         * column bit (q1) of a vectorized density matrix.
+         */
+        fun superoperator(kraus: List<DoubleArray>): DoubleArray {
+            val s = DoubleArray(32)
+            for (k in kraus) {
+                val term = GateMatrices.kron(k, conjugate(k))
+                for (i in s.indices) s[i] += term[i]
+            }
+            return s
+        }
+
+        fun conjugate(u: DoubleArray): DoubleArray = DoubleArray(u.size) { if (it % 2 == 0) u[it] else -u[it] }
+
+        /** [u] scaled so that [weight] is the probability of that Kraus branch. */
+        private fun scaled(u: DoubleArray, weight: Double): DoubleArray {
+            val s = sqrt(weight)
+            return DoubleArray(u.size) { u[it] * s }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.ParameterSweep
+
+/**
+ * The parameterized instructions of a compiled circuit and where each one's angles sit in a
+ * point of [ParameterSweep] order, so new angles can be bound without compiling again.
+ */
+class ParameterBindings private constructor(
+    val program: CompiledCircuit,
+    /** Instruction index of each parameterized gate that survived compilation. */
+    val instructions: IntArray,
+    /** Position of each instruction's first angle in a point. */
+    val offsets: IntArray,
+    /** Values a point holds, including angles of gates the compiler dropped. */
+    val parameterCount: Int,
+    /** The angles stored on the circuit's gates. */
+    val initialValues: DoubleArray
+) {
+
+    /** [program] with [values] bound; [matrices] is scratch of one slot per instruction. */
+    fun bind(values: DoubleArray, matrices: Array<DoubleArray?> = arrayOfNulls(instructions.size)): CompiledCircuit {
+        for (k in instructions.indices) {
+            val type = program.type(instructions[k])
+            matrices[k] = GateMatrices.build(type, ParameterSweep.parametersFor(type, values, offsets[k]))
+        }
+        @Suppress("UNCHECKED_CAST")
+        return program.withMatrices(instructions, matrices as Array<DoubleArray>)
+    }
+
+    companion object {
+        fun of(circuit: Circuit): ParameterBindings {
+            val program = CompiledCircuit.of(circuit)
+            val offsets = ArrayList<Int>()
+            val values = DoubleArray(ParameterSweep.parameterCount(circuit))
+            var offset = 0
+            for (gate in circuit.gates.sortedBy { it.position }) {
+                if (!gate.type.hasParameters) continue
+                if (gate.resolveOperands() != null) offsets += offset
+                GateMatrices.angles(gate.type, gate.parameters).copyInto(values, offset)
+                offset += ParameterSweep.angleCount(gate.type)
+            }
+            val instructions = (0 until program.size).filter { program.type(it).hasParameters }
+            check(instructions.size == offsets.size) { "Compiled circuit does not match its parameterized gates" }
+            return ParameterBindings(program, instructions.toIntArray(), offsets.toIntArray(), offset, values)
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.swiftquantum.data.simulator
+
+/**
+ * Consecutive diagonal gates, kept as phase terms until they are applied together.
+ *
+ * Each term multiplies the amplitudes whose [mask] bits equal its value by a phase. The product
+ * of all terms depends only on the bits in [qubits], so the batch becomes one table of
+ * 2^k phases and a single sweep over the state.
+ */
+class PhaseBatch {
+
+    private var masks = IntArray(INITIAL_CAPACITY)
+    private var values = IntArray(INITIAL_CAPACITY)
+    private var phases = DoubleArray(2 * INITIAL_CAPACITY)
+
+    /** Number of recorded terms. */
+    var size = 0
+        private set
+
+    /** Union of the qubits the terms read. */
+    var qubits = 0
+        private set
+
+    fun isEmpty(): Boolean = size == 0
+
+    /** True when a term on [mask] still fits in a table of at most [MAX_TABLE_QUBITS] qubits. */
+    fun fits(mask: Int): Boolean = Integer.bitCount(qubits or mask) <= MAX_TABLE_QUBITS
+
+    fun add(mask: Int, value: Int, re: Double, im: Double) {
+        if (size == masks.size) {
+            masks = masks.copyOf(size * 2)
+            values = values.copyOf(size * 2)
+            phases = phases.copyOf(size * 4)
+        }
+        masks[size] = mask
+        values[size] = value
+        phases[2 * size] = re
+        phases[2 * size + 1] = im
+        size++
+        qubits = qubits or mask
+    }
+
+    /** Applies the batch to [state], as one [StateVector.applyPhase] when it holds a single term. */
+    fun applyTo(state: StateVector) {
+        if (size == 1) {
+            state.applyPhase(masks[0], phases[0], phases[1], values[0])
+        } else if (size > 1) {
+            state.applyPhaseTable(qubits, table())
+        }
+        clear()
+    }
+
+    fun clear() {
+        size = 0
+        qubits = 0
+    }
+
+    /**
+     * Interleaved phases indexed by the bits of [qubits] packed together, lowest qubit first:
+     * entry k is the product of every term matching the basis states that pack to k.
+     */
+    private fun table(): DoubleArray {
+        val width = Integer.bitCount(qubits)
+        val table = DoubleArray(2 shl width)
+        for (k in 0 until (1 shl width)) {
+            val index = StateVector.scatterBits(k, qubits)
+            var re = 1.0
+            var im = 0.0
+            for (t in 0 until size) {
+                if (index and masks[t] != values[t]) continue
+                val pr = phases[2 * t]
+                val pi = phases[2 * t + 1]
+                val r = re * pr - im * pi
+                im = re * pi + im * pr
+                re = r
+            }
+            table[2 * k] = re
+            table[2 * k + 1] = im
+        }
+        return table
+    }
+
+    companion object {
+        /** Widest table: 2^12 complex phases, 64 KB, stays in cache during the sweep. */
+        const val MAX_TABLE_QUBITS = 12
+
+        private const val INITIAL_CAPACITY = 16
+    }
+}
@@ -0,0 +1,143 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.ComplexNumber
+import com.swiftquantum.domain.model.MeasurementCounts
+import java.util.SplittableRandom
+
+/**
+ * Tensor product of independently simulated qubit groups. Qubits outside every part are |0⟩.
+ *
+ * Nothing is expanded to 2^n: amplitudes and probabilities are products of the parts,
+ * computed per index, and shots combine one sample of each part.
+ */
+class ProductState(
+    override val numQubits: Int,
+    val parts: List<Part>
+) : SimulatedState {
+
+    /** A group's [state], whose local qubit j is register qubit `qubits[j]`. */
+    class Part(val qubits: IntArray, val state: SimulatedState)
+
+    private val words = (numQubits + 63) ushr 6
+
+    private val partAmplitudes by lazy { parts.map { it.state.amplitudes() } }
+
+    private val idleMask by lazy {
+        var mask = if (numQubits >= Long.SIZE_BITS) -1L else (1L shl numQubits) - 1
+        for (part in parts) for (q in part.qubits) if (q < Long.SIZE_BITS) mask = mask and (1L shl q).inv()
+        mask
+    }
+
+    override val sizeBytes: Long
+        get() = parts.sumOf { it.state.sizeBytes }
+
+    override val truncationError: Double
+        get() = 1.0 - parts.fold(1.0) { fidelity, part -> fidelity * (1.0 - part.state.truncationError) }
+
+    override val holdsNativeResources: Boolean
+        get() = parts.any { it.state.holdsNativeResources }
+
+    override fun close() {
+        parts.forEach { it.state.close() }
+    }
+
+    /** Amplitude of basis state [index], or null when a part cannot produce amplitudes. */
+    fun amplitude(index: Long): ComplexNumber? {
+        if (index and idleMask != 0L) return ComplexNumber(0.0, 0.0)
+        var re = 1.0
+        var im = 0.0
+        for ((p, part) in parts.withIndex()) {
+            val a = partAmplitudes[p]?.get(localIndex(index, part.qubits)) ?: return null
+            val r = re * a.real - im * a.imaginary
+            im = re * a.imaginary + im * a.real
+            re = r
+        }
+        return ComplexNumber(re, im)
+    }
+
+    /** Marginal probability that the qubits in [qubits] read [outcome], from the owning parts only. */
+    fun marginal(qubits: IntArray, outcome: Long): Double? {
+        var probability = 1.0
+        qubits.forEachIndexed { k, q ->
+            if ((outcome ushr k) and 1L != 0L && parts.none { q in it.qubits }) return 0.0
+        }
+        for ((p, part) in parts.withIndex()) {
+            val inPart = qubits.indices.filter { qubits[it] in part.qubits }
+            if (inPart.isEmpty()) continue
+            val amplitudes = partAmplitudes[p] ?: return null
+            var sum = 0.0
+            var fixedMask = 0
+            var fixedBits = 0
+            for (k in inPart) {
+                val local = part.qubits.indexOf(qubits[k])
+                fixedMask = fixedMask or (1 shl local)
+                if ((outcome ushr k) and 1L != 0L) fixedBits = fixedBits or (1 shl local)
+            }
+            for (i in amplitudes.indices) {
+                if (i and fixedMask != fixedBits) continue
+                val a = amplitudes[i]
+                sum += a.real * a.real + a.imaginary * a.imaginary
+            }
+            probability *= sum
+        }
+        return probability
+    }
+
+    override fun amplitudes(): List<ComplexNumber>? {
+        if (numQubits > StateVector.MAX_QUBITS || partAmplitudes.any { it == null }) return null
+        return object : AbstractList<ComplexNumber>() {
+            override val size: Int get() = 1 shl numQubits
+            override fun get(index: Int) = amplitude(index.toLong())!!
+        }
+    }
+
+    /**
+     * Samples every part for all [shots] and pairs the samples at random. The parts are
+     * independent, so a random pairing of per-part counts is distributed like joint shots.
+     */
+    override fun sample(shots: Int, executor: KernelExecutor, seed: Long?): MeasurementCounts {
+        val random = seed?.let { SplittableRandom(it) } ?: SplittableRandom()
+        val outcomes = LongArray(shots * words)
+        for (part in parts) {
+            val stream = random.split()
+            val counts = part.state.sample(shots, executor, stream.nextLong())
+            val scattered = Array(counts.size) { scatter(counts, it, part.qubits) }
+            val order = IntArray(shots)
+            var s = 0
+            for (position in 0 until counts.size) {
+                repeat(counts.countAt(position)) { order[s++] = position }
+            }
+            for (i in shots - 1 downTo 1) {
+                val j = stream.nextInt(i + 1)
+                val t = order[i]
+                order[i] = order[j]
+                order[j] = t
+            }
+            for (shot in 0 until shots) {
+                val bits = scattered[order[shot]]
+                for (w in 0 until words) outcomes[shot * words + w] = outcomes[shot * words + w] or bits[w]
+            }
+        }
+        return ShotSampler.countOutcomes(numQubits, outcomes, shots)
+    }
+
+    /** Register-wide bit words for outcome [position] of a part's counts. */
+    private fun scatter(counts: MeasurementCounts, position: Int, qubits: IntArray): LongArray {
+        val bits = LongArray(words)
+        val index = counts.basisKeys.indexAt(position)
+        val label = if (index < 0) counts.basisKeys.keyAt(position) else null
+        for (j in qubits.indices) {
+            val set = if (label != null) label[label.length - 1 - j] == '1' else (index ushr j) and 1L != 0L
+            if (set) bits[qubits[j] ushr 6] = bits[qubits[j] ushr 6] or (1L shl qubits[j])
+        }
+        return bits
+    }
+
+    private fun localIndex(index: Long, qubits: IntArray): Int {
+        var local = 0
+        for (j in qubits.indices) {
+            if ((index ushr qubits[j]) and 1L != 0L) local = local or (1 shl j)
+        }
+        return local
+    }
+}
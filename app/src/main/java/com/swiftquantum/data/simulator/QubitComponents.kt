@@ -0,0 +1,76 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+
+/**
+ * Splits a circuit into groups of qubits that no multi-qubit gate connects.
+ *
+ * The state of such a circuit is a tensor product of the groups, so each group can be
+ * simulated on its own at 2^k cost instead of 2^n.
+ */
+object QubitComponents {
+
+    /**
+     * Connected qubit groups, each sorted and ordered by its lowest qubit. Qubits that no gate
+     * touches stay in |0⟩ and belong to no group.
+     */
+    fun of(circuit: Circuit): List<IntArray> {
+        val n = circuit.numQubits
+        val parent = IntArray(n) { it }
+        val rank = IntArray(n)
+        val touched = BooleanArray(n)
+
+        fun find(q: Int): Int {
+            var root = q
+            while (parent[root] != root) root = parent[root]
+            var node = q
+            while (parent[node] != root) {
+                val next = parent[node]
+                parent[node] = root
+                node = next
+            }
+            return root
+        }
+
+        fun union(a: Int, b: Int) {
+            val ra = find(a)
+            val rb = find(b)
+            if (ra == rb) return
+            when {
+                rank[ra] < rank[rb] -> parent[ra] = rb
+                rank[ra] > rank[rb] -> parent[rb] = ra
+                else -> {
+                    parent[rb] = ra
+                    rank[ra]++
+                }
+            }
+        }
+
+        for (gate in circuit.gates) {
+            val operands = gate.controlQubits + gate.targetQubits
+            operands.forEach { touched[it] = true }
+            for (k in 1 until operands.size) union(operands[0], operands[k])
+        }
+
+        val groups = LinkedHashMap<Int, MutableList<Int>>()
+        for (q in 0 until n) {
+            if (touched[q]) groups.getOrPut(find(q)) { ArrayList() }.add(q)
+        }
+        return groups.values.map { it.toIntArray() }
+    }
+
+    /** [circuit] restricted to the gates on [qubits], renumbered to `0 until qubits.size`. */
+    fun subCircuit(circuit: Circuit, qubits: IntArray): Circuit {
+        val local = HashMap<Int, Int>(qubits.size * 2)
+        qubits.forEachIndexed { index, q -> local[q] = index }
+        val gates = circuit.gates
+            .filter { gate -> (gate.targetQubits + gate.controlQubits).all { it in local } }
+            .map { gate ->
+                gate.copy(
+                    targetQubits = gate.targetQubits.map { local.getValue(it) },
+                    controlQubits = gate.controlQubits.map { local.getValue(it) }
+                )
+            }
+        return circuit.copy(numQubits = qubits.size, gates = gates)
+    }
+}
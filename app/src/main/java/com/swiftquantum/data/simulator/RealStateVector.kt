@@ -0,0 +1,252 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.ComplexNumber
+
+/**
+ * Double-precision state whose amplitudes are all real, one [DoubleArray] entry per basis state:
+ * half the memory of [DoubleStateVector] and half the arithmetic per kernel.
+ *
+ * Only real matrices and phases keep it real, so kernels reject any with an imaginary part;
+ * [StateVectorSimulator] moves to [toComplex] before the first gate that has one.
+ */
+class RealStateVector(
+    override val numQubits: Int,
+    private val executor: KernelExecutor = KernelExecutor.serial()
+) : StateVector {
+
+    init {
+        StateVector.requireSupported(numQubits)
+    }
+
+    override val dimension: Int = 1 shl numQubits
+
+    val amplitudes: DoubleArray = DoubleArray(dimension).also { it[0] = 1.0 }
+
+    override val precision: Precision
+        get() = Precision.DOUBLE
+
+    override val sizeBytes: Long
+        get() = amplitudes.size.toLong() * Double.SIZE_BYTES
+
+    override fun probability(index: Int): Double {
+        val a = amplitudes[index]
+        return a * a
+    }
+
+    override fun setAmplitude(index: Int, re: Double, im: Double) {
+        requireReal(im)
+        amplitudes[index] = re
+    }
+
+    override fun probabilities(): DoubleArray {
+        val probabilities = DoubleArray(dimension)
+        executor.forRange(dimension) { from, to ->
+            for (i in from until to) probabilities[i] = probability(i)
+        }
+        return probabilities
+    }
+
+    override fun asComplexList(): List<ComplexNumber> = object : AbstractList<ComplexNumber>() {
+        override val size: Int get() = dimension
+        override fun get(index: Int) = ComplexNumber(amplitudes[index], 0.0)
+    }
+
+    /** The same state as interleaved complex amplitudes. */
+    fun toComplex(): DoubleStateVector {
+        val complex = DoubleStateVector(numQubits, executor)
+        val a = amplitudes
+        val c = complex.amplitudes
+        executor.forRange(dimension) { from, to ->
+            for (i in from until to) c[2 * i] = a[i]
+        }
+        return complex
+    }
+
+    override fun applyMatrix(target: Int, matrix: DoubleArray, controlMask: Int, controlValue: Int) {
+        requireReal(matrix)
+        val fixed = StateVector.bitPositions(controlMask or (1 shl target))
+        executor.forRange(dimension shr fixed.size) { from, to ->
+            matrixRange(target, matrix, fixed, controlValue, from, to)
+        }
+    }
+
+    override fun applyMatrix4(q0: Int, q1: Int, matrix: DoubleArray) {
+        requireReal(matrix)
+        val fixed = StateVector.bitPositions((1 shl q0) or (1 shl q1))
+        executor.forRange(dimension shr 2, cost = 4) { from, to ->
+            matrix4Range(q0, q1, matrix, fixed, 0, from, to)
+        }
+    }
+
+    override fun applyX(target: Int, controlMask: Int, controlValue: Int) {
+        val fixed = StateVector.bitPositions(controlMask or (1 shl target))
+        executor.forRange(dimension shr fixed.size) { from, to ->
+            flipRange(target, fixed, controlValue, from, to)
+        }
+    }
+
+    override fun applyPhase(mask: Int, re: Double, im: Double, value: Int) {
+        requireReal(im)
+        val fixed = StateVector.bitPositions(mask)
+        executor.forRange(dimension shr fixed.size) { from, to ->
+            phaseRange(re, fixed, value, from, to)
+        }
+    }
+
+    override fun applySwap(q0: Int, q1: Int, controlMask: Int, re: Double, im: Double, controlValue: Int) {
+        requireReal(im)
+        val fixed = StateVector.bitPositions(controlMask or (1 shl q0) or (1 shl q1))
+        executor.forRange(dimension shr fixed.size) { from, to ->
+            swapRange(q0, q1, re, fixed, controlValue, from, to)
+        }
+    }
+
+    override fun applyPhaseTable(qubits: Int, table: DoubleArray) {
+        requireReal(table)
+        val gather = StateVector.gatherTables(qubits, numQubits)
+        executor.forRange(dimension) { from, to ->
+            phaseTableRange(table, gather, from, to)
+        }
+    }
+
+    override fun applyTiles(batch: TileBatch) {
+        val tileQubits = batch.tileQubits
+        val tileSize = 1 shl tileQubits
+        val ops = batch.ops
+        for (op in ops) {
+            when (op) {
+                is TileBatch.Matrix -> requireReal(op.matrix)
+                is TileBatch.Matrix4 -> requireReal(op.matrix)
+                is TileBatch.Phase -> requireReal(op.im)
+                is TileBatch.Swap -> requireReal(op.im)
+                is TileBatch.PhaseTable -> requireReal(op.table)
+                is TileBatch.Flip -> Unit
+            }
+        }
+        executor.forRange(dimension shr tileQubits, cost = tileSize) { from, to ->
+            for (tile in from until to) {
+                val base = tile shl tileQubits
+                for (op in ops) {
+                    if (!op.appliesTo(base)) continue
+                    val value = op.localValue or base
+                    when (op) {
+                        is TileBatch.Matrix -> matrixRange(op.target, op.matrix, op.fixed, value, 0, op.count)
+                        is TileBatch.Matrix4 -> matrix4Range(op.q0, op.q1, op.matrix, op.fixed, value, 0, op.count)
+                        is TileBatch.Flip -> flipRange(op.target, op.fixed, value, 0, op.count)
+                        is TileBatch.Phase -> phaseRange(op.re, op.fixed, value, 0, op.count)
+                        is TileBatch.Swap -> swapRange(op.q0, op.q1, op.re, op.fixed, value, 0, op.count)
+                        is TileBatch.PhaseTable -> phaseTableRange(op.table, op.gather, base, base + tileSize)
+                    }
+                }
+            }
+        }
+    }
+
+    override fun applyPermutation(permutation: LazyPermutation) {
+        val a = amplitudes
+        permutation.applyTo(dimension, executor) { i, j -> swapAmplitudes(a, i, j) }
+    }
+
+    // Range kernels as in DoubleStateVector, reading only the real parts of matrices and phases.
+
+    private fun matrixRange(target: Int, matrix: DoubleArray, fixed: IntArray, value: Int, from: Int, to: Int) {
+        val a = amplitudes
+        val m00 = matrix[0]
+        val m01 = matrix[2]
+        val m10 = matrix[4]
+        val m11 = matrix[6]
+        val stride = 1 shl target
+        for (k in from until to) {
+            val i0 = StateVector.insertZeroBits(k, fixed) or value
+            val i1 = i0 or stride
+            val x = a[i0]
+            val y = a[i1]
+            a[i0] = m00 * x + m01 * y
+            a[i1] = m10 * x + m11 * y
+        }
+    }
+
+    private fun matrix4Range(
+        q0: Int,
+        q1: Int,
+        matrix: DoubleArray,
+        fixed: IntArray,
+        value: Int,
+        from: Int,
+        to: Int
+    ) {
+        val a = amplitudes
+        val m = matrix
+        val bit0 = 1 shl q0
+        val bit1 = 1 shl q1
+        for (k in from until to) {
+            val i = StateVector.insertZeroBits(k, fixed) or value
+            val j1 = i or bit1
+            val j2 = i or bit0
+            val j3 = i or bit0 or bit1
+            val x0 = a[i]; val x1 = a[j1]; val x2 = a[j2]; val x3 = a[j3]
+            a[i] = m[0] * x0 + m[2] * x1 + m[4] * x2 + m[6] * x3
+            a[j1] = m[8] * x0 + m[10] * x1 + m[12] * x2 + m[14] * x3
+            a[j2] = m[16] * x0 + m[18] * x1 + m[20] * x2 + m[22] * x3
+            a[j3] = m[24] * x0 + m[26] * x1 + m[28] * x2 + m[30] * x3
+        }
+    }
+
+    private fun flipRange(target: Int, fixed: IntArray, value: Int, from: Int, to: Int) {
+        val a = amplitudes
+        val stride = 1 shl target
+        for (k in from until to) {
+            val i0 = StateVector.insertZeroBits(k, fixed) or value
+            swapAmplitudes(a, i0, i0 or stride)
+        }
+    }
+
+    private fun phaseRange(re: Double, fixed: IntArray, value: Int, from: Int, to: Int) {
+        val a = amplitudes
+        for (k in from until to) {
+            val i = StateVector.insertZeroBits(k, fixed) or value
+            a[i] *= re
+        }
+    }
+
+    private fun swapRange(q0: Int, q1: Int, re: Double, fixed: IntArray, value: Int, from: Int, to: Int) {
+        val a = amplitudes
+        val bit0 = 1 shl q0
+        val bit1 = 1 shl q1
+        for (k in from until to) {
+            val base = StateVector.insertZeroBits(k, fixed) or value
+            val i0 = base or bit0
+            val i1 = base or bit1
+            val x = a[i0]
+            a[i0] = a[i1] * re
+            a[i1] = x * re
+        }
+    }
+
+    /** Unlike the others, [from] and [to] are basis indices: every amplitude takes a phase. */
+    private fun phaseTableRange(table: DoubleArray, gather: Array<IntArray>, from: Int, to: Int) {
+        val a = amplitudes
+        for (i in from until to) {
+            var k = 0
+            for (b in gather.indices) k = k or gather[b][(i ushr (8 * b)) and 0xFF]
+            a[i] *= table[2 * k]
+        }
+    }
+
+    private companion object {
+        fun swapAmplitudes(a: DoubleArray, i: Int, j: Int) {
+            val x = a[i]
+            a[i] = a[j]
+            a[j] = x
+        }
+
+        fun requireReal(im: Double) {
+            require(im == 0.0) { "A real state cannot take a complex phase" }
+        }
+
+        /** Checks the imaginary halves of an interleaved matrix or table. */
+        fun requireReal(values: DoubleArray) {
+            for (p in 1 until values.size step 2) requireReal(values[p])
+        }
+    }
+}
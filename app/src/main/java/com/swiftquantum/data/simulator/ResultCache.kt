@@ -0,0 +1,263 @@
+package com.swiftquantum.data.simulator
+
+import android.content.Context
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.MeasurementCounts
+import com.swiftquantum.domain.model.ResultCacheStats
+import dagger.hilt.android.qualifiers.ApplicationContext
+import timber.log.Timber
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.security.MessageDigest
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Final states and counts of earlier local runs, addressed by a hash of everything that
+ * decides the result: the circuit's gates in position order, shots, backend, precision,
+ * truncation settings and seed.
+ *
+ * The memory tier is an LRU bounded by [MEMORY_BUDGET] bytes of state. The optional disk tier
+ * keeps dense amplitudes up to [DISK_MAX_QUBITS] qubits plus counts in the app cache, bounded
+ * by [DISK_BUDGET] bytes and dropping the least recently used files first.
+ *
+ * A hit on a seeded run replays its counts; an unseeded run draws fresh shots from the cached
+ * state, so only the simulation is skipped.
+ */
+@Singleton
+class ResultCache @Inject constructor(
+    @ApplicationContext private val context: Context
+) {
+
+    /** One cached run. [counts] are the shots drawn when it was stored. */
+    sealed class Entry(
+        val numQubits: Int,
+        val backend: LocalBackend,
+        val counts: MeasurementCounts,
+        val components: Int,
+        val gatesPerSweep: Double?,
+        /** The run's [SimulatedState.truncationError], kept even when its state is not. */
+        val truncationError: Double
+    )
+
+    /** A run whose final state was kept, so new shots can be drawn from it. */
+    class StateEntry(
+        val state: SimulatedState,
+        backend: LocalBackend,
+        counts: MeasurementCounts,
+        components: Int,
+        gatesPerSweep: Double?,
+        truncationError: Double = state.truncationError
+    ) : Entry(state.numQubits, backend, counts, components, gatesPerSweep, truncationError) {
+
+        fun countsOnly() = CountsEntry(numQubits, backend, counts, components, gatesPerSweep, truncationError)
+    }
+
+    /** A run stored by its counts alone; it can replay them but not draw new shots. */
+    class CountsEntry(
+        numQubits: Int,
+        backend: LocalBackend,
+        counts: MeasurementCounts,
+        components: Int,
+        gatesPerSweep: Double?,
+        truncationError: Double
+    ) : Entry(numQubits, backend, counts, components, gatesPerSweep, truncationError)
+
+    private val memory = object : LinkedHashMap<String, Entry>(16, 0.75f, true) {}
+    private var memoryBytes = 0L
+    private var memoryHits = 0L
+    private var diskHits = 0L
+    private var misses = 0L
+
+    private val directory: File
+        get() = File(context.cacheDir, DISK_DIRECTORY)
+
+    /** Content address of a run of [circuit] with [shots] under [options]. */
+    fun key(circuit: Circuit, shots: Int, options: SimulationOptions): String {
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { out ->
+            out.writeInt(KEY_VERSION)
+            out.writeInt(circuit.numQubits)
+            for (gate in circuit.gates.sortedBy { it.position }) {
+                out.writeUTF(gate.type.name)
+                out.writeInt(gate.targetQubits.size)
+                gate.targetQubits.forEach { out.writeInt(it) }
+                out.writeInt(gate.controlQubits.size)
+                gate.controlQubits.forEach { out.writeInt(it) }
+                val parameters = gate.parameters
+                for (value in listOf(parameters?.theta, parameters?.phi, parameters?.lambda)) {
+                    out.writeBoolean(value != null)
+                    out.writeDouble(value ?: 0.0)
+                }
+            }
+            out.writeInt(shots)
+            out.writeUTF(options.backend.configValue)
+            out.writeUTF(options.precision.name)
+            out.writeInt(options.maxBondDimension)
+            out.writeDouble(options.compressionErrorBound)
+            out.writeBoolean(options.seed != null)
+            out.writeLong(options.seed ?: 0L)
+        }
+        return MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray())
+            .joinToString("") { "%02x".format(it) }
+    }
+
+    /**
+     * The run stored under [key], looking in storage too when [useDisk]. With [resample] only
+     * entries that kept their state count, since counts alone cannot give new shots.
+     */
+    @Synchronized
+    fun get(key: String, useDisk: Boolean, resample: Boolean): Entry? {
+        memory[key]?.takeIf { !resample || it is StateEntry }?.let {
+            memoryHits++
+            return it
+        }
+        val loaded = if (useDisk) read(key)?.takeIf { !resample || it is StateEntry } else null
+        if (loaded == null) {
+            misses++
+            return null
+        }
+        diskHits++
+        putInMemory(key, loaded)
+        return loaded
+    }
+
+    @Synchronized
+    fun put(key: String, entry: Entry, useDisk: Boolean) {
+        putInMemory(key, entry)
+        if (useDisk) write(key, entry)
+    }
+
+    @Synchronized
+    fun stats(): ResultCacheStats = ResultCacheStats(
+        memoryHits = memoryHits,
+        diskHits = diskHits,
+        misses = misses,
+        entries = memory.size,
+        memoryBytes = memoryBytes,
+        diskBytes = directory.listFiles()?.sumOf { it.length() } ?: 0L
+    )
+
+    @Synchronized
+    fun clear() {
+        memory.clear()
+        memoryBytes = 0L
+        directory.listFiles()?.forEach { it.delete() }
+    }
+
+    private fun putInMemory(key: String, entry: Entry) {
+        // The run's caller closes states with native resources, so only their counts stay
+        val stored = if (entry is StateEntry && entry.state.holdsNativeResources) entry.countsOnly() else entry
+        val bytes = cost(stored)
+        // One huge state would flush everything else
+        if (bytes > MEMORY_BUDGET / 4) return
+        memory.put(key, stored)?.let { memoryBytes -= cost(it) }
+        memoryBytes += bytes
+        val eldest = memory.entries.iterator()
+        while ((memoryBytes > MEMORY_BUDGET || memory.size > MAX_ENTRIES) && eldest.hasNext()) {
+            memoryBytes -= cost(eldest.next().value)
+            eldest.remove()
+        }
+    }
+
+    /** State bytes plus a rough 16 bytes per distinct outcome. */
+    private fun cost(entry: Entry): Long =
+        ((entry as? StateEntry)?.state?.sizeBytes ?: 0L) + entry.counts.size * 16L
+
+    private fun write(key: String, entry: Entry) {
+        val amplitudes = if (entry is StateEntry && entry.numQubits <= DISK_MAX_QUBITS) entry.state.amplitudes() else null
+        try {
+            directory.mkdirs()
+            val file = File(directory, "$key$DISK_SUFFIX")
+            DataOutputStream(BufferedOutputStream(FileOutputStream(file))).use { out ->
+                out.writeInt(entry.numQubits)
+                out.writeUTF(entry.backend.configValue)
+                out.writeInt(entry.components)
+                out.writeDouble(entry.gatesPerSweep ?: Double.NaN)
+                out.writeDouble(entry.truncationError)
+                out.writeInt(entry.counts.size)
+                for (position in 0 until entry.counts.size) {
+                    out.writeUTF(entry.counts.basisKeys.keyAt(position))
+                    out.writeInt(entry.counts.countAt(position))
+                }
+                out.writeBoolean(amplitudes != null)
+                amplitudes?.forEach {
+                    out.writeDouble(it.real)
+                    out.writeDouble(it.imaginary)
+                }
+            }
+            trimDisk()
+        } catch (e: IOException) {
+            Timber.w(e, "Could not store a cached result")
+        }
+    }
+
+    /** Reads a stored run; entries saved without amplitudes can only replay their counts. */
+    private fun read(key: String): Entry? {
+        val file = File(directory, "$key$DISK_SUFFIX")
+        if (!file.exists()) return null
+        return try {
+            DataInputStream(BufferedInputStream(FileInputStream(file))).use { input ->
+                val numQubits = input.readInt()
+                val backend = LocalBackend.fromConfig(input.readUTF())
+                val components = input.readInt()
+                val gatesPerSweep = input.readDouble().takeUnless { it.isNaN() }
+                val truncationError = input.readDouble()
+                val counts = LinkedHashMap<String, Int>()
+                repeat(input.readInt()) { counts[input.readUTF()] = input.readInt() }
+                val measured = MeasurementCounts.from(counts)
+                val entry = if (input.readBoolean()) {
+                    val state = DoubleStateVector(numQubits).apply {
+                        for (i in 0 until dimension) setAmplitude(i, input.readDouble(), input.readDouble())
+                    }
+                    StateEntry(state, backend, measured, components, gatesPerSweep, truncationError)
+                } else {
+                    CountsEntry(numQubits, backend, measured, components, gatesPerSweep, truncationError)
+                }
+                file.setLastModified(System.currentTimeMillis())
+                entry
+            }
+        } catch (e: IOException) {
+            Timber.w(e, "Dropping unreadable cached result")
+            file.delete()
+            null
+        }
+    }
+
+    private fun trimDisk() {
+        val files = directory.listFiles()?.sortedBy { it.lastModified() } ?: return
+        var total = files.sumOf { it.length() }
+        for (file in files) {
+            if (total <= DISK_BUDGET) break
+            total -= file.length()
+            file.delete()
+        }
+    }
+
+    companion object {
+        /** Bytes of state the memory tier may hold: 64 MB. */
+        const val MEMORY_BUDGET = 64L shl 20
+
+        /** Runs the memory tier may hold, however small. */
+        const val MAX_ENTRIES = 256
+
+        /** Bytes the disk tier may fill: 256 MB. */
+        const val DISK_BUDGET = 256L shl 20
+
+        /** Widest state whose amplitudes are written to disk (16 MB). */
+        const val DISK_MAX_QUBITS = 20
+
+        private const val DISK_DIRECTORY = "results"
+        private const val DISK_SUFFIX = ".run"
+
+        /** Bump when the key or file layout changes, so old entries stop matching. */
+        private const val KEY_VERSION = 2
+    }
+}
@@ -0,0 +1,198 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.BasisKeys
+import com.swiftquantum.domain.model.MeasurementCounts
+import java.util.SplittableRandom
+import kotlin.math.pow
+
+/**
+ * Sampled outcomes of a run: basis-state indices in ascending order with their shot counts.
+ */
+class SampledCounts(
+    val indices: IntArray,
+    val counts: IntArray
+) {
+    val size: Int
+        get() = indices.size
+
+    fun toMeasurementCounts(numQubits: Int): MeasurementCounts = MeasurementCounts(
+        BasisKeys.ofSorted(numQubits, LongArray(size) { indices[it].toLong() }),
+        counts
+    )
+}
+
+/**
+ * Weight of each outcome of a discrete distribution, read without boxing.
+ */
+fun interface OutcomeWeights {
+    fun weight(index: Int): Double
+}
+
+/**
+ * Draws measurement shots from a [StateVector] in one pass over the distribution.
+ *
+ * Shots are generated as sorted uniforms and merged against the running cumulative
+ * probability, so the cost is O(2^n + shots) instead of O(2^n) per shot. Large states are
+ * sampled in two levels: shots are first spread over fixed-size blocks by block mass, then
+ * every block is merged on its own, across cores. Each block draws from a stream split off
+ * the root generator in block order, so a seeded run gives the same counts on any number
+ * of cores.
+ */
+class ShotSampler(
+    private val executor: KernelExecutor = KernelExecutor.serial(),
+    seed: Long? = null
+) {
+    private val random = seed?.let { SplittableRandom(it) } ?: SplittableRandom()
+
+    fun sample(state: StateVector, shots: Int): SampledCounts =
+        sample(state.dimension, shots) { state.probability(it) }
+
+    /** Samples outcomes `[0, size)` with the given (unnormalized) [weights]. */
+    fun sample(size: Int, shots: Int, weights: OutcomeWeights): SampledCounts {
+        require(shots >= 0) { "Shots must be non-negative, got $shots" }
+        if (shots == 0 || size == 0) return SampledCounts(IntArray(0), IntArray(0))
+
+        val blockSize = minOf(BLOCK_SIZE, size)
+        val blocks = (size + blockSize - 1) / blockSize
+
+        val blockMass = DoubleArray(blocks)
+        executor.forRange(blocks, blockSize) { from, to ->
+            for (b in from until to) {
+                val start = b * blockSize
+                var mass = 0.0
+                for (i in start until minOf(start + blockSize, size)) {
+                    mass += weights.weight(i)
+                }
+                blockMass[b] = mass
+            }
+        }
+
+        // First level: shots per block
+        val blockShots = IntArray(blocks)
+        merge(0, blocks, blockMass.sum(), shots, random, { blockMass[it] }) { block, count ->
+            blockShots[block] = count
+        }
+
+        // Second level: each block writes at most min(shots, blockSize) distinct outcomes
+        val offsets = IntArray(blocks + 1)
+        val streams = arrayOfNulls<SplittableRandom>(blocks)
+        for (b in 0 until blocks) {
+            offsets[b + 1] = offsets[b] + minOf(blockShots[b], blockSize)
+            if (blockShots[b] > 0) streams[b] = random.split()
+        }
+        val outIndices = IntArray(offsets[blocks])
+        val outCounts = IntArray(offsets[blocks])
+        val distinct = IntArray(blocks)
+
+        executor.forRange(blocks, blockSize) { from, to ->
+            for (b in from until to) {
+                val rng = streams[b] ?: continue
+                val start = b * blockSize
+                val end = minOf(start + blockSize, size)
+                var written = 0
+                merge(start, end, blockMass[b], blockShots[b], rng, { weights.weight(it) }) { index, count ->
+                    outIndices[offsets[b] + written] = index
+                    outCounts[offsets[b] + written] = count
+                    written++
+                }
+                distinct[b] = written
+            }
+        }
+
+        val size = distinct.sum()
+        val indices = IntArray(size)
+        val counts = IntArray(size)
+        var position = 0
+        for (b in 0 until blocks) {
+            System.arraycopy(outIndices, offsets[b], indices, position, distinct[b])
+            System.arraycopy(outCounts, offsets[b], counts, position, distinct[b])
+            position += distinct[b]
+        }
+        return SampledCounts(indices, counts)
+    }
+
+    /**
+     * Merges [shots] sorted uniforms over `[0, total)` against the weights of `[from, to)`,
+     * emitting each hit index once with its count, in ascending order.
+     *
+     * The uniforms come out in order without sorting: the largest of k uniforms is
+     * `V^(1/k)`, and the rest are the largest of the k - 1 below it.
+     */
+    private inline fun merge(
+        from: Int,
+        to: Int,
+        total: Double,
+        shots: Int,
+        rng: SplittableRandom,
+        weight: (Int) -> Double,
+        emit: (index: Int, count: Int) -> Unit
+    ) {
+        var index = from
+        var p = weight(index)
+        var cumulative = 0.0
+        var lastPositive = if (p > 0.0) index else -1
+        var current = -1
+        var currentCount = 0
+        var u = 1.0
+
+        for (k in shots downTo 1) {
+            u *= rng.nextDouble().pow(1.0 / k)
+            val position = (1.0 - u) * total
+            while (index < to - 1 && position >= cumulative + p) {
+                cumulative += p
+                index++
+                p = weight(index)
+                if (p > 0.0) lastPositive = index
+            }
+            // Rounding can carry the last uniforms past a zero-probability tail
+            val outcome = if (p > 0.0 || lastPositive < 0) index else lastPositive
+            if (outcome != current) {
+                if (currentCount > 0) emit(current, currentCount)
+                current = outcome
+                currentCount = 0
+            }
+            currentCount++
+        }
+        if (currentCount > 0) emit(current, currentCount)
+    }
+
+    companion object {
+        /** Amplitudes per second-level block. */
+        const val BLOCK_SIZE = 1 shl 12
+
+        /**
+         * Tallies per-shot outcomes for backends that sample bit patterns directly. [outcomes]
+         * holds one packed bit pattern per shot, 64 qubits per word; registers wider than a
+         * Long are keyed by bitstring.
+         */
+        fun countOutcomes(numQubits: Int, outcomes: LongArray, shots: Int): MeasurementCounts {
+            if (shots == 0) return MeasurementCounts.EMPTY
+            if (numQubits < Long.SIZE_BITS) {
+                outcomes.sort(0, shots)
+                var distinct = 1
+                for (s in 1 until shots) if (outcomes[s] != outcomes[s - 1]) distinct++
+                val indices = LongArray(distinct)
+                val counts = IntArray(distinct)
+                var k = 0
+                indices[0] = outcomes[0]
+                for (s in 0 until shots) {
+                    if (outcomes[s] != indices[k]) indices[++k] = outcomes[s]
+                    counts[k]++
+                }
+                return MeasurementCounts(BasisKeys.ofSorted(numQubits, indices), counts)
+            }
+            val words = (numQubits + 63) ushr 6
+            val counts = HashMap<String, Int>()
+            val chars = CharArray(numQubits)
+            for (s in 0 until shots) {
+                for (q in 0 until numQubits) {
+                    val set = (outcomes[s * words + (q ushr 6)] ushr q) and 1L != 0L
+                    chars[numQubits - 1 - q] = if (set) '1' else '0'
+                }
+                val key = String(chars)
+                counts[key] = (counts[key] ?: 0) + 1
+            }
+            return MeasurementCounts.from(counts)
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.ComplexNumber
+import com.swiftquantum.domain.model.MeasurementCounts
+
+/**
+ * Final state of a local run, whichever backend produced it.
+ */
+interface SimulatedState : AutoCloseable {
+    val numQubits: Int
+
+    /** Bytes held by the backend's state storage. */
+    val sizeBytes: Long
+
+    /**
+     * Dense amplitudes in basis-index order, or null when the backend cannot produce them
+     * at this width.
+     */
+    fun amplitudes(): List<ComplexNumber>?
+
+    /** Probability weight discarded by approximating backends; 0 for exact ones. */
+    val truncationError: Double
+        get() = 0.0
+
+    /** Draws [shots] computational-basis measurements of every qubit. */
+    fun sample(shots: Int, executor: KernelExecutor, seed: Long?): MeasurementCounts
+
+    /** True when the state holds file mappings or native buffers that [close] releases. */
+    val holdsNativeResources: Boolean
+        get() = false
+
+    /** Releases native resources; the state cannot be read afterwards. Closing twice is harmless. */
+    override fun close() {}
+}
@@ -0,0 +1,85 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.HybridEngineConfig
+import com.swiftquantum.domain.model.NoiseModel
+import com.swiftquantum.domain.model.OptimizationLevel
+
+/**
+ * Local engine settings derived from [HybridEngineConfig].
+ */
+data class SimulationOptions(
+    val parallel: Boolean = true,
+    val precision: Precision = Precision.DOUBLE,
+    val backend: LocalBackend = LocalBackend.AUTO,
+    val maxBondDimension: Int = MatrixProductState.DEFAULT_MAX_BOND_DIMENSION,
+    /** Gate fusion in the dense engine; see [PendingGates]. */
+    val optimizationLevel: OptimizationLevel = OptimizationLevel.BASIC,
+    /** Per-store rounding of the compressed backend; 0 keeps it lossless. */
+    val compressionErrorBound: Double = 0.0,
+    /** Seeds the shot sampler for reproducible counts; null draws a fresh seed. */
+    val seed: Long? = null,
+    /** Reuses the final state of an identical earlier run; see [ResultCache]. */
+    val cacheEnabled: Boolean = false,
+    /** Also keeps cached results in app storage across restarts. */
+    val diskCacheEnabled: Boolean = false,
+    /**
+     * Runs noisy trajectories instead of one ideal state; see [TrajectorySimulator]. Only the
+     * auto, state-vector and density-matrix backends simulate noise.
+     */
+    val noise: NoiseModel? = null
+) {
+    init {
+        require(maxBondDimension >= 1) { "The MPS bond dimension must be at least 1, got $maxBondDimension" }
+        require(noise == null || noise.isIdeal || backend in NOISY_BACKENDS) {
+            "The ${backend.configValue} backend cannot simulate noise; use auto, state_vector or " +
+                "density_matrix, or drop the noise model"
+        }
+    }
+
+    companion object {
+        /** Backends a non-ideal [noise] model may run on. */
+        val NOISY_BACKENDS = setOf(LocalBackend.AUTO, LocalBackend.STATE_VECTOR, LocalBackend.DENSITY_MATRIX)
+
+        fun from(config: HybridEngineConfig?): SimulationOptions {
+            if (config == null) return SimulationOptions()
+            return SimulationOptions(
+                parallel = config.parallelShots,
+                precision = Precision.fromConfig(config.precision),
+                backend = LocalBackend.fromConfig(config.localBackend),
+                maxBondDimension = config.maxBondDimension,
+                optimizationLevel = config.optimizationLevel,
+                compressionErrorBound = config.compressionErrorBound,
+                seed = config.seed,
+                cacheEnabled = config.cacheEnabled,
+                diskCacheEnabled = config.cacheEnabled && config.diskCacheEnabled,
+                noise = config.noiseModel?.takeUnless { it.isIdeal }
+            )
+        }
+    }
+}
+
+/**
+ * On-device simulation backend, selected by `HybridEngineConfig.localBackend`.
+ */
+enum class LocalBackend(val configValue: String) {
+    /** Picks the cheapest backend that can run the circuit exactly. */
+    AUTO("auto"),
+    STATE_VECTOR("state_vector"),
+    STABILIZER("stabilizer"),
+    SPARSE("sparse"),
+    MPS("mps"),
+
+    /** Dense state in a memory-mapped scratch file, for registers past the heap. */
+    DISK("disk"),
+
+    /** Dense state in compressed blocks, for wide registers with little entropy. */
+    COMPRESSED("compressed"),
+
+    /** Exact mixed state for small noisy runs; auto uses it up to [DensityMatrix.AUTO_MAX_QUBITS]. */
+    DENSITY_MATRIX("density_matrix");
+
+    companion object {
+        fun fromConfig(value: String?): LocalBackend =
+            entries.firstOrNull { it.configValue == value?.lowercase() } ?: AUTO
+    }
+}
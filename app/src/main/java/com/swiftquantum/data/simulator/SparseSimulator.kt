@@ -0,0 +1,110 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.Gate
+import com.swiftquantum.domain.model.GateType
+import com.swiftquantum.domain.model.OptimizationLevel
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Local engine for circuits whose state stays on few basis states, such as oracles,
+ * arithmetic and GHZ-style preparation. Runs on a [SparseStateVector] and hands over to a
+ * dense [StateVector] once the support grows past [DENSE_FILL_RATIO] of the basis.
+ */
+@Singleton
+class SparseSimulator @Inject constructor(
+    private val stateVectorSimulator: StateVectorSimulator
+) {
+
+    companion object {
+        /** Fill ratio above which the dense kernels are cheaper than the hash table. */
+        const val DENSE_FILL_RATIO = 0.125
+
+        /** Gates that can split one basis state into two. */
+        private val BRANCHING = setOf(
+            GateType.H, GateType.RX, GateType.RY, GateType.U2, GateType.U3, GateType.CRX, GateType.CRY
+        )
+    }
+
+    /** Upper bound on log2 of the final support: one doubling per branching gate. */
+    fun branchingGates(circuit: Circuit): Int = circuit.gates.count { it.type in BRANCHING }
+
+    /**
+     * Runs [circuit] sparsely. When [canDensify] and the support passes [DENSE_FILL_RATIO],
+     * the state is copied into a dense vector and the remaining gates run there.
+     *
+     * @throws IllegalStateException before a gate that could grow the support past [maxEntries]
+     *     amplitudes, unless the run can densify instead
+     */
+    fun simulate(
+        circuit: Circuit,
+        precision: Precision = Precision.DOUBLE,
+        executor: KernelExecutor = KernelExecutor.serial(),
+        canDensify: Boolean = circuit.numQubits <= StateVector.MAX_QUBITS,
+        maxEntries: Long = Long.MAX_VALUE,
+        stats: SweepStats = SweepStats(),
+        optimizationLevel: OptimizationLevel = OptimizationLevel.BASIC
+    ): SimulatedState {
+        val numQubits = circuit.numQubits
+        val sparse = SparseStateVector(numQubits)
+        val program = CompiledCircuit.of(circuit)
+        val denseThreshold = DENSE_FILL_RATIO * Math.pow(2.0, numQubits.toDouble())
+
+        fun continueDense(from: Int): StateVector {
+            Timber.d("Sparse state reached ${sparse.entries} entries; continuing dense at gate $from")
+            val dense = StateVector.create(numQubits, precision, executor)
+            sparse.copyInto(dense)
+            val pending = PendingGates(numQubits, stats, optimizationLevel)
+            stateVectorSimulator.run(dense, program, pending, from)
+            return dense
+        }
+
+        for (index in 0 until program.size) {
+            KernelExecutor.ensureActive()
+            // A branching gate builds its table next to the old one at up to twice the size,
+            // so check the projection before it allocates
+            val projected = if (branches(program, index)) 2L * sparse.entries else sparse.entries.toLong()
+            if (projected > maxEntries) {
+                if (canDensify) return continueDense(index)
+                throw IllegalStateException(
+                    "The sparse state could grow to $projected amplitudes, more than the $maxEntries " +
+                        "that fit in memory. Try the MPS backend."
+                )
+            }
+            applyGate(sparse, program, index)
+            if (canDensify && sparse.entries > denseThreshold) return continueDense(index + 1)
+        }
+        return sparse
+    }
+
+    /** True when instruction [index] can split a basis state in two; diagonal gates compile to OP_PHASE. */
+    private fun branches(program: CompiledCircuit, index: Int): Boolean =
+        program.opcodes[index] == CompiledCircuit.OP_MATRIX
+
+    fun applyGate(state: SparseStateVector, gate: Gate) {
+        val program = CompiledCircuit.compile(state.numQubits, listOf(gate))
+        if (program.size == 1) applyGate(state, program, 0)
+    }
+
+    /** Applies instruction [index] of [program]. */
+    fun applyGate(state: SparseStateVector, program: CompiledCircuit, index: Int) {
+        val target = program.targets[index]
+        val controlBits = program.controlMasks[index]
+
+        when (program.opcodes[index]) {
+            CompiledCircuit.OP_FLIP -> state.applyX(target, controlBits)
+            CompiledCircuit.OP_SWAP -> state.applySwap(target, program.secondTargets[index], controlBits)
+            CompiledCircuit.OP_ISWAP -> state.applySwap(target, program.secondTargets[index], controlBits, 0.0, 1.0)
+            else -> {
+                val matrix = program.matrix(index)
+                if (matrix === GateMatrices.Z) {
+                    state.applyPhase(controlBits or (1L shl target), -1.0, 0.0)
+                } else {
+                    state.applyMatrix(target, matrix, controlBits)
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.BasisKeys
+import com.swiftquantum.domain.model.ComplexNumber
+import com.swiftquantum.domain.model.MeasurementCounts
+
+/**
+ * n-qubit state that stores only its non-zero amplitudes, keyed by basis index.
+ *
+ * Storage is an open-addressing table on primitive arrays, so memory follows the support of
+ * the state (about 48 bytes per amplitude) rather than 2^n. Each gate rebuilds the table;
+ * amplitudes that cancel below [NEGLIGIBLE] are dropped.
+ */
+class SparseStateVector(override val numQubits: Int) : SimulatedState {
+
+    init {
+        require(numQubits in 1..MAX_QUBITS) {
+            "Sparse state supports 1..$MAX_QUBITS qubits, got $numQubits"
+        }
+    }
+
+    private var table = AmplitudeTable(1).also { it.add(0L, 1.0, 0.0) }
+
+    /** Number of stored (non-zero) amplitudes. */
+    val entries: Int
+        get() = table.size
+
+    /** Share of the 2^n basis states that carry amplitude. */
+    val fillRatio: Double
+        get() = table.size / Math.pow(2.0, numQubits.toDouble())
+
+    override val sizeBytes: Long
+        get() = table.capacity.toLong() * BYTES_PER_SLOT
+
+    fun amplitude(index: Long): ComplexNumber {
+        val slot = table.find(index)
+        return if (slot < 0) ComplexNumber(0.0, 0.0) else ComplexNumber(table.re[slot], table.im[slot])
+    }
+
+    fun applyMatrix(target: Int, matrix: DoubleArray, controlBits: Long = 0L) {
+        val bit = 1L shl target
+        val next = AmplitudeTable(table.size * 2)
+        table.forEach { key, ar, ai ->
+            if (key and controlBits != controlBits) {
+                next.add(key, ar, ai)
+                return@forEach
+            }
+            // Column b of the matrix sends this amplitude to both halves of the pair
+            val b = if (key and bit != 0L) 2 else 0
+            val k0 = key and bit.inv()
+            val k1 = key or bit
+            val m0r = matrix[b]; val m0i = matrix[b + 1]
+            val m1r = matrix[4 + b]; val m1i = matrix[5 + b]
+            if (m0r != 0.0 || m0i != 0.0) next.add(k0, m0r * ar - m0i * ai, m0r * ai + m0i * ar)
+            if (m1r != 0.0 || m1i != 0.0) next.add(k1, m1r * ar - m1i * ai, m1r * ai + m1i * ar)
+        }
+        table = next.withoutNegligible()
+    }
+
+    fun applyX(target: Int, controlBits: Long = 0L) {
+        val bit = 1L shl target
+        remap { key -> if (key and controlBits == controlBits) key xor bit else key }
+    }
+
+    fun applyPhase(maskBits: Long, re: Double, im: Double) {
+        val t = table
+        for (slot in 0 until t.capacity) {
+            val key = t.keys[slot]
+            if (key == AmplitudeTable.EMPTY || key and maskBits != maskBits) continue
+            val ar = t.re[slot]; val ai = t.im[slot]
+            t.re[slot] = ar * re - ai * im
+            t.im[slot] = ar * im + ai * re
+        }
+    }
+
+    fun applySwap(q0: Int, q1: Int, controlBits: Long = 0L, re: Double = 1.0, im: Double = 0.0) {
+        val bit0 = 1L shl q0
+        val bit1 = 1L shl q1
+        val next = AmplitudeTable(table.size)
+        table.forEach { key, ar, ai ->
+            val moves = key and controlBits == controlBits && (key and bit0 != 0L) != (key and bit1 != 0L)
+            if (moves) {
+                next.add(key xor bit0 xor bit1, ar * re - ai * im, ar * im + ai * re)
+            } else {
+                next.add(key, ar, ai)
+            }
+        }
+        table = next
+    }
+
+    /** Copies the amplitudes into a dense [state] of the same width. */
+    fun copyInto(state: StateVector) {
+        require(state.numQubits == numQubits) { "Width mismatch: $numQubits vs ${state.numQubits}" }
+        state.setAmplitude(0, 0.0, 0.0)
+        table.forEach { key, ar, ai -> state.setAmplitude(key.toInt(), ar, ai) }
+    }
+
+    override fun amplitudes(): List<ComplexNumber>? {
+        if (numQubits > StateVector.MAX_QUBITS) return null
+        return object : AbstractList<ComplexNumber>() {
+            override val size: Int get() = 1 shl numQubits
+            override fun get(index: Int) = amplitude(index.toLong())
+        }
+    }
+
+    override fun sample(shots: Int, executor: KernelExecutor, seed: Long?): MeasurementCounts {
+        val keys = LongArray(table.size)
+        var k = 0
+        table.forEach { key, _, _ -> keys[k++] = key }
+        keys.sort()
+        val weights = DoubleArray(keys.size) { i ->
+            val slot = table.find(keys[i])
+            table.re[slot] * table.re[slot] + table.im[slot] * table.im[slot]
+        }
+        val sampled = ShotSampler(executor, seed).sample(weights.size, shots) { weights[it] }
+        val indices = LongArray(sampled.size) { keys[sampled.indices[it]] }
+        return MeasurementCounts(BasisKeys.ofSorted(numQubits, indices), sampled.counts)
+    }
+
+    private inline fun remap(transform: (Long) -> Long) {
+        val next = AmplitudeTable(table.size)
+        table.forEach { key, ar, ai -> next.add(transform(key), ar, ai) }
+        table = next
+    }
+
+    companion object {
+        /** Basis indices are Longs; one bit is kept clear for the empty-slot marker. */
+        const val MAX_QUBITS = 62
+
+        /** Squared magnitude below which an amplitude is treated as cancelled. */
+        const val NEGLIGIBLE = 1e-24
+
+        /** Key, real and imaginary part per slot. */
+        const val BYTES_PER_SLOT = 3L * 8
+
+        /** Worst-case bytes for [entries] amplitudes, including the table a gate builds next to it. */
+        fun tableBytes(entries: Long): Long = entries * 2 * 2 * BYTES_PER_SLOT
+    }
+}
+
+/**
+ * Long-keyed complex accumulator with linear probing, kept at most half full.
+ */
+internal class AmplitudeTable(expected: Int) {
+
+    var capacity: Int = Integer.highestOneBit(maxOf(expected, 2) * 2 - 1) shl 1
+        private set
+    var keys = LongArray(capacity).also { it.fill(EMPTY) }
+        private set
+    var re = DoubleArray(capacity)
+        private set
+    var im = DoubleArray(capacity)
+        private set
+    var size = 0
+        private set
+
+    fun find(key: Long): Int {
+        var slot = slotOf(key)
+        while (true) {
+            val k = keys[slot]
+            if (k == key) return slot
+            if (k == EMPTY) return -1
+            slot = (slot + 1) and (capacity - 1)
+        }
+    }
+
+    fun add(key: Long, r: Double, i: Double) {
+        if (2 * (size + 1) > capacity) grow()
+        var slot = slotOf(key)
+        while (true) {
+            val k = keys[slot]
+            if (k == key) {
+                re[slot] += r
+                im[slot] += i
+                return
+            }
+            if (k == EMPTY) {
+                keys[slot] = key
+                re[slot] = r
+                im[slot] = i
+                size++
+                return
+            }
+            slot = (slot + 1) and (capacity - 1)
+        }
+    }
+
+    inline fun forEach(body: (key: Long, re: Double, im: Double) -> Unit) {
+        for (slot in 0 until capacity) {
+            val key = keys[slot]
+            if (key != EMPTY) body(key, re[slot], im[slot])
+        }
+    }
+
+    fun withoutNegligible(): AmplitudeTable {
+        var dropped = 0
+        forEach { _, r, i -> if (r * r + i * i < SparseStateVector.NEGLIGIBLE) dropped++ }
+        if (dropped == 0) return this
+        val kept = AmplitudeTable(size - dropped)
+        forEach { key, r, i -> if (r * r + i * i >= SparseStateVector.NEGLIGIBLE) kept.add(key, r, i) }
+        return kept
+    }
+
+    private fun grow() {
+        val oldKeys = keys
+        val oldRe = re
+        val oldIm = im
+        capacity *= 2
+        keys = LongArray(capacity).also { it.fill(EMPTY) }
+        re = DoubleArray(capacity)
+        im = DoubleArray(capacity)
+        size = 0
+        for (slot in oldKeys.indices) {
+            if (oldKeys[slot] != EMPTY) add(oldKeys[slot], oldRe[slot], oldIm[slot])
+        }
+    }
+
+    private fun slotOf(key: Long): Int =
+        ((key * HASH_MULTIPLIER) ushr (Long.SIZE_BITS - Integer.numberOfTrailingZeros(capacity))).toInt()
+
+    companion object {
+        const val EMPTY = -1L
+        private const val HASH_MULTIPLIER = -0x61c8864680b583ebL
+    }
+}
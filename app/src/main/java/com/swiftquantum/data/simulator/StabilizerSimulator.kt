@@ -0,0 +1,60 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.Gate
+import com.swiftquantum.domain.model.GateType
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Local engine for Clifford circuits. Runs a [Circuit] on a [StabilizerTableau] in
+ * polynomial time and memory.
+ */
+@Singleton
+class StabilizerSimulator @Inject constructor() {
+
+    /** True when every gate is one the tableau can apply. */
+    fun supports(circuit: Circuit): Boolean = circuit.gates.all { isClifford(it) }
+
+    fun simulate(circuit: Circuit): StabilizerTableau {
+        val tableau = StabilizerTableau(circuit.numQubits)
+        circuit.gates.sortedBy { it.position }.forEach { gate ->
+            KernelExecutor.ensureActive()
+            applyGate(tableau, gate)
+        }
+        return tableau
+    }
+
+    fun applyGate(tableau: StabilizerTableau, gate: Gate) {
+        val operands = gate.resolveOperands()
+        if (operands == null) {
+            Timber.w("Skipping ${gate.type.displayName}: not enough qubits")
+            return
+        }
+        require(isClifford(gate)) { "${gate.type.displayName} is not a Clifford gate" }
+
+        val target = operands.target
+        when (gate.type) {
+            GateType.H -> tableau.applyH(target)
+            GateType.S -> tableau.applyS(target)
+            GateType.X -> tableau.applyX(target)
+            GateType.Y -> tableau.applyY(target)
+            GateType.Z -> tableau.applyZ(target)
+            GateType.CNOT -> tableau.applyCnot(operands.controls[0], target)
+            GateType.CZ -> tableau.applyCz(operands.controls[0], target)
+            GateType.SWAP -> tableau.applySwap(operands.targets[0], operands.targets[1])
+            else -> Unit
+        }
+    }
+
+    private fun isClifford(gate: Gate): Boolean {
+        val operands = gate.resolveOperands() ?: return true
+        return when (gate.type) {
+            GateType.H, GateType.S, GateType.X, GateType.Y, GateType.Z, GateType.SWAP ->
+                operands.controls.isEmpty()
+            GateType.CNOT, GateType.CZ -> operands.controls.size == 1
+            else -> false
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.ComplexNumber
+import com.swiftquantum.domain.model.MeasurementCounts
+import java.util.SplittableRandom
+
+/**
+ * Stabilizer state of n qubits in the Aaronson–Gottesman tableau form.
+ *
+ * Rows `0 until n` are destabilizers, rows `n until 2n` stabilizers and row 2n is scratch.
+ * Each row is a Pauli string packed 64 qubits per word, X and Z bits in separate arrays,
+ * with a sign bit; x = z = 1 means Y. Gates cost O(n), so width is bounded by memory
+ * rather than by 2^n.
+ */
+class StabilizerTableau(override val numQubits: Int) : SimulatedState {
+
+    private val words = (numQubits + 63) ushr 6
+    private val rows = 2 * numQubits + 1
+    private val x = LongArray(rows * words)
+    private val z = LongArray(rows * words)
+    private val r = BooleanArray(rows)
+
+    init {
+        require(numQubits >= 1) { "Stabilizer tableau needs at least one qubit, got $numQubits" }
+        for (q in 0 until numQubits) {
+            x[q * words + (q ushr 6)] = x[q * words + (q ushr 6)] or (1L shl q)
+            z[(q + numQubits) * words + (q ushr 6)] = z[(q + numQubits) * words + (q ushr 6)] or (1L shl q)
+        }
+    }
+
+    private constructor(source: StabilizerTableau) : this(source.numQubits) {
+        source.x.copyInto(x)
+        source.z.copyInto(z)
+        source.r.copyInto(r)
+    }
+
+    override val sizeBytes: Long
+        get() = tableauBytes(numQubits)
+
+    fun applyH(q: Int) = forEachRow(q) { i, p, bit ->
+        val xb = x[p] and bit
+        val zb = z[p] and bit
+        if (xb != 0L && zb != 0L) r[i] = !r[i]
+        x[p] = (x[p] and bit.inv()) or zb
+        z[p] = (z[p] and bit.inv()) or xb
+    }
+
+    fun applyS(q: Int) = forEachRow(q) { i, p, bit ->
+        val xb = x[p] and bit
+        if (xb != 0L && z[p] and bit != 0L) r[i] = !r[i]
+        z[p] = z[p] xor xb
+    }
+
+    fun applyX(q: Int) = forEachRow(q) { i, p, bit ->
+        if (z[p] and bit != 0L) r[i] = !r[i]
+    }
+
+    fun applyY(q: Int) = forEachRow(q) { i, p, bit ->
+        if ((x[p] xor z[p]) and bit != 0L) r[i] = !r[i]
+    }
+
+    fun applyZ(q: Int) = forEachRow(q) { i, p, bit ->
+        if (x[p] and bit != 0L) r[i] = !r[i]
+    }
+
+    fun applyCnot(control: Int, target: Int) {
+        for (i in 0 until rows - 1) {
+            val xc = bit(x, i, control)
+            val zc = bit(z, i, control)
+            val xt = bit(x, i, target)
+            val zt = bit(z, i, target)
+            if (xc && zt && xt == zc) r[i] = !r[i]
+            if (xc) flip(x, i, target)
+            if (zt) flip(z, i, control)
+        }
+    }
+
+    fun applyCz(q0: Int, q1: Int) {
+        applyH(q1)
+        applyCnot(q0, q1)
+        applyH(q1)
+    }
+
+    fun applySwap(q0: Int, q1: Int) {
+        for (i in 0 until rows - 1) {
+            if (bit(x, i, q0) != bit(x, i, q1)) {
+                flip(x, i, q0)
+                flip(x, i, q1)
+            }
+            if (bit(z, i, q0) != bit(z, i, q1)) {
+                flip(z, i, q0)
+                flip(z, i, q1)
+            }
+        }
+    }
+
+    /**
+     * The measurement distribution of a stabilizer state is uniform over `x0 + V`, where x0
+     * is any outcome and V is spanned by the X parts of the stabilizers. Each shot is x0
+     * plus a random combination of a basis of V, so sampling never touches 2^n states.
+     */
+    override fun sample(shots: Int, executor: KernelExecutor, seed: Long?): MeasurementCounts {
+        require(shots >= 0) { "Shots must be non-negative, got $shots" }
+        val random = seed?.let { SplittableRandom(it) } ?: SplittableRandom()
+        val origin = firstOutcome()
+        val basis = supportBasis()
+
+        val chunks = (shots + SHOT_CHUNK - 1) / SHOT_CHUNK
+        val streams = Array(chunks) { random.split() }
+        val outcomes = LongArray(shots * words)
+        val cost = (SHOT_CHUNK.toLong() * (basis.size + 1) * words).coerceAtMost(Int.MAX_VALUE.toLong()).toInt()
+        executor.forRange(chunks, cost) { from, to ->
+            for (chunk in from until to) {
+                val rng = streams[chunk]
+                for (shot in chunk * SHOT_CHUNK until minOf((chunk + 1) * SHOT_CHUNK, shots)) {
+                    val base = shot * words
+                    origin.copyInto(outcomes, base)
+                    var bits = 0L
+                    for (b in basis.indices) {
+                        if (b and 63 == 0) bits = rng.nextLong()
+                        if ((bits ushr (b and 63)) and 1L == 0L) continue
+                        val row = basis[b]
+                        for (w in 0 until words) outcomes[base + w] = outcomes[base + w] xor row[w]
+                    }
+                }
+            }
+        }
+        return ShotSampler.countOutcomes(numQubits, outcomes, shots)
+    }
+
+    /**
+     * Dense amplitudes up to [MAX_AMPLITUDE_QUBITS], built by projecting a basis state in the
+     * support onto the stabilizer group. The global phase makes that amplitude real and positive.
+     */
+    override fun amplitudes(): List<ComplexNumber>? {
+        if (numQubits > MAX_AMPLITUDE_QUBITS) return null
+        val dimension = 1 shl numQubits
+        val state = DoubleStateVector(numQubits)
+        var psi = state.amplitudes
+        val origin = firstOutcome()[0].toInt()
+        psi[0] = 0.0
+        psi[2 * origin] = 1.0
+
+        var image = DoubleArray(psi.size)
+        for (row in numQubits until 2 * numQubits) {
+            val xMask = x[row * words].toInt()
+            val zMask = z[row * words].toInt()
+            // (-1)^r * i^(number of Y factors)
+            val quarterTurns = Integer.bitCount(xMask and zMask) + if (r[row]) 2 else 0
+            val (pr, pi) = QUARTER_TURNS[quarterTurns and 3]
+            image.fill(0.0)
+            for (j in 0 until dimension) {
+                val sign = if (Integer.bitCount(j and zMask) and 1 == 0) 1.0 else -1.0
+                val t = 2 * (j xor xMask)
+                image[t] = sign * (pr * psi[2 * j] - pi * psi[2 * j + 1])
+                image[t + 1] = sign * (pr * psi[2 * j + 1] + pi * psi[2 * j])
+            }
+            // Project with (I + g) / 2
+            for (k in psi.indices) image[k] = (psi[k] + image[k]) / 2
+            val swap = psi
+            psi = image
+            image = swap
+        }
+
+        var norm = 0.0
+        for (v in psi) norm += v * v
+        val scale = 1.0 / kotlin.math.sqrt(norm)
+        for (k in psi.indices) state.amplitudes[k] = psi[k] * scale
+        return state.asComplexList()
+    }
+
+    /** One measurement outcome, taking 0 for every qubit whose outcome is random. */
+    private fun firstOutcome(): LongArray {
+        val copy = StabilizerTableau(this)
+        val outcome = LongArray(words)
+        for (q in 0 until numQubits) {
+            if (copy.measureZero(q)) outcome[q ushr 6] = outcome[q ushr 6] or (1L shl q)
+        }
+        return outcome
+    }
+
+    /** Row-reduced X parts of the stabilizers: a basis of the support's direction space. */
+    private fun supportBasis(): List<LongArray> {
+        val pending = (numQubits until 2 * numQubits)
+            .map { row -> x.copyOfRange(row * words, (row + 1) * words) }
+            .filter { row -> row.any { it != 0L } }
+            .toMutableList()
+        val basis = ArrayList<LongArray>()
+        for (q in 0 until numQubits) {
+            val w = q ushr 6
+            val bit = 1L shl q
+            val pivot = pending.indexOfFirst { it[w] and bit != 0L }
+            if (pivot < 0) continue
+            val row = pending.removeAt(pivot)
+            for (other in pending) {
+                if (other[w] and bit != 0L) {
+                    for (k in 0 until words) other[k] = other[k] xor row[k]
+                }
+            }
+            basis.add(row)
+        }
+        return basis
+    }
+
+    /** Measures [q] in the Z basis, choosing 0 when the outcome is random. */
+    private fun measureZero(q: Int): Boolean {
+        val n = numQubits
+        val p = (n until 2 * n).firstOrNull { bit(x, it, q) }
+        if (p != null) {
+            for (i in 0 until 2 * n) {
+                if (i != p && bit(x, i, q)) rowsum(i, p)
+            }
+            copyRow(p, p - n)
+            clearRow(p)
+            flip(z, p, q)
+            return false
+        }
+        val scratch = 2 * n
+        clearRow(scratch)
+        for (i in 0 until n) {
+            if (bit(x, i, q)) rowsum(scratch, i + n)
+        }
+        return r[scratch]
+    }
+
+    /** Left-multiplies row [h] by row [i], tracking the phase in mod-4 arithmetic. */
+    private fun rowsum(h: Int, i: Int) {
+        var sum = (if (r[h]) 2 else 0) + (if (r[i]) 2 else 0)
+        val hb = h * words
+        val ib = i * words
+        for (w in 0 until words) {
+            val x1 = x[ib + w]; val z1 = z[ib + w]
+            val x2 = x[hb + w]; val z2 = z[hb + w]
+            val plus = (x1 and z1.inv() and x2 and z2) or
+                (x1.inv() and z1 and x2 and z2.inv()) or
+                (x1 and z1 and x2.inv() and z2)
+            val minus = (x1 and z1.inv() and x2.inv() and z2) or
+                (x1.inv() and z1 and x2 and z2) or
+                (x1 and z1 and x2 and z2.inv())
+            sum += java.lang.Long.bitCount(plus) - java.lang.Long.bitCount(minus)
+            x[hb + w] = x2 xor x1
+            z[hb + w] = z2 xor z1
+        }
+        r[h] = Math.floorMod(sum, 4) == 2
+    }
+
+    private inline fun forEachRow(q: Int, body: (row: Int, position: Int, bit: Long) -> Unit) {
+        val w = q ushr 6
+        val bit = 1L shl q
+        for (i in 0 until rows - 1) body(i, i * words + w, bit)
+    }
+
+    private fun bit(bits: LongArray, row: Int, q: Int): Boolean =
+        (bits[row * words + (q ushr 6)] ushr q) and 1L != 0L
+
+    private fun flip(bits: LongArray, row: Int, q: Int) {
+        val p = row * words + (q ushr 6)
+        bits[p] = bits[p] xor (1L shl q)
+    }
+
+    private fun copyRow(from: Int, to: Int) {
+        x.copyInto(x, to * words, from * words, (from + 1) * words)
+        z.copyInto(z, to * words, from * words, (from + 1) * words)
+        r[to] = r[from]
+    }
+
+    private fun clearRow(row: Int) {
+        x.fill(0L, row * words, (row + 1) * words)
+        z.fill(0L, row * words, (row + 1) * words)
+        r[row] = false
+    }
+
+    companion object {
+        /** Widest state for which [amplitudes] expands the tableau into a dense vector. */
+        const val MAX_AMPLITUDE_QUBITS = 16
+
+        private const val SHOT_CHUNK = 1024
+
+        private val QUARTER_TURNS = arrayOf(1.0 to 0.0, 0.0 to 1.0, -1.0 to 0.0, 0.0 to -1.0)
+
+        /** Bytes held by the X and Z bit matrices of an n-qubit tableau. */
+        fun tableauBytes(numQubits: Int): Long {
+            val words = (numQubits + 63L) ushr 6
+            return 2L * (2L * numQubits + 1) * words * Long.SIZE_BYTES + (2L * numQubits + 1)
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.ComplexNumber
+import com.swiftquantum.domain.model.MeasurementCounts
+
+/**
+ * Dense n-qubit state on primitive arrays.
+ *
+ * Qubit q is bit q of the basis index. All kernels update the amplitudes in place.
+ */
+interface StateVector : SimulatedState {
+    val dimension: Int
+    val precision: Precision
+
+    fun probability(index: Int): Double
+
+    fun probabilities(): DoubleArray
+
+    fun setAmplitude(index: Int, re: Double, im: Double)
+
+    /** Boxes amplitudes on access only, so large states are not copied into the result. */
+    fun asComplexList(): List<ComplexNumber>
+
+    override fun amplitudes(): List<ComplexNumber> = asComplexList()
+
+    override fun sample(shots: Int, executor: KernelExecutor, seed: Long?): MeasurementCounts =
+        ShotSampler(executor, seed).sample(this, shots).toMeasurementCounts(numQubits)
+
+    /**
+     * Applies the 2x2 [matrix] to [target] on every basis pair whose [controlMask] bits equal
+     * [controlValue]; by default all controls must be set.
+     *
+     * Controlled kernels enumerate only the matching indices: with k controls they touch
+     * 2^(n-k) amplitudes rather than scanning all 2^n.
+     */
+    fun applyMatrix(target: Int, matrix: DoubleArray, controlMask: Int = 0, controlValue: Int = controlMask)
+
+    /**
+     * Applies the 4x4 [matrix], in the basis 2·b(q0) + b(q1) of [GateMatrices], to every
+     * group of four amplitudes that differ only in [q0] and [q1].
+     */
+    fun applyMatrix4(q0: Int, q1: Int, matrix: DoubleArray)
+
+    /** Bit flip on [target]; moves amplitudes instead of multiplying by the X matrix. */
+    fun applyX(target: Int, controlMask: Int = 0, controlValue: Int = controlMask)
+
+    /** Multiplies every amplitude whose [mask] bits equal [value] (by default, all set) by the phase (re, im). */
+    fun applyPhase(mask: Int, re: Double, im: Double, value: Int = mask)
+
+    /**
+     * Exchanges qubits [q0] and [q1] where the controls match, multiplying the moved
+     * amplitudes by (re, im). A phase of i gives iSWAP.
+     */
+    fun applySwap(
+        q0: Int,
+        q1: Int,
+        controlMask: Int = 0,
+        re: Double = 1.0,
+        im: Double = 0.0,
+        controlValue: Int = controlMask
+    )
+
+    /**
+     * Multiplies each amplitude by the [table] entry selected by its bits in [qubits], packed
+     * lowest qubit first (see [PhaseBatch]).
+     */
+    fun applyPhaseTable(qubits: Int, table: DoubleArray)
+
+    /**
+     * Runs every kernel in [batch] on one block of 2^[TileBatch.tileQubits] amplitudes before
+     * moving to the next, so each block is read from memory once for the whole batch.
+     */
+    fun applyTiles(batch: TileBatch)
+
+    /** Moves the amplitude at each physical index to its logical index under [permutation], in one pass. */
+    fun applyPermutation(permutation: LazyPermutation)
+
+    companion object {
+        /** Largest register whose interleaved amplitudes still fit in a single JVM array. */
+        const val MAX_QUBITS = 29
+
+        fun create(
+            numQubits: Int,
+            precision: Precision,
+            executor: KernelExecutor = KernelExecutor.serial()
+        ): StateVector = when (precision) {
+            Precision.SINGLE -> FloatStateVector(numQubits, executor)
+            Precision.DOUBLE -> DoubleStateVector(numQubits, executor)
+        }
+
+        fun requireSupported(numQubits: Int) {
+            require(numQubits in 1..MAX_QUBITS) {
+                "State vector supports 1..$MAX_QUBITS qubits, got $numQubits"
+            }
+        }
+
+        /** Places the low bits of [k] on the set bits of [mask], lowest first. */
+        fun scatterBits(k: Int, mask: Int): Int {
+            var index = 0
+            var rest = mask
+            var j = 0
+            while (rest != 0) {
+                val bit = rest and -rest
+                if ((k ushr j) and 1 != 0) index = index or bit
+                rest = rest xor bit
+                j++
+            }
+            return index
+        }
+
+        /**
+         * Byte lookup tables that pack the [mask] bits of an index: OR together
+         * `tables[b][(index ushr 8b) and 0xFF]` over all b.
+         */
+        fun gatherTables(mask: Int, numQubits: Int): Array<IntArray> {
+            val tables = Array((numQubits + 7) / 8) { IntArray(256) }
+            var j = 0
+            for (q in 0 until numQubits) {
+                if (mask and (1 shl q) == 0) continue
+                val table = tables[q / 8]
+                for (byte in 0 until 256) {
+                    if ((byte ushr (q % 8)) and 1 != 0) table[byte] = table[byte] or (1 shl j)
+                }
+                j++
+            }
+            return tables
+        }
+
+        /** Positions of the set bits of [mask], ascending. */
+        fun bitPositions(mask: Int): IntArray {
+            val positions = IntArray(Integer.bitCount(mask))
+            var rest = mask
+            for (j in positions.indices) {
+                positions[j] = Integer.numberOfTrailingZeros(rest)
+                rest = rest and (rest - 1)
+            }
+            return positions
+        }
+
+        /**
+         * Spreads [k] around zeros inserted at every one of [positions] (ascending), so
+         * `0 until (dimension shr positions.size)` enumerates exactly the indices with those bits clear.
+         */
+        fun insertZeroBits(k: Int, positions: IntArray): Int {
+            var i = k
+            for (bit in positions) i = insertZeroBit(i, bit)
+            return i
+        }
+
+        /** Spreads [k] around a zero inserted at [bit], enumerating indices with that bit clear. */
+        fun insertZeroBit(k: Int, bit: Int): Int {
+            val low = k and ((1 shl bit) - 1)
+            return ((k xor low) shl 1) or low
+        }
+    }
+}
+
+/**
+ * Floating-point width of the amplitudes, selected by `HybridEngineConfig.precision`.
+ */
+enum class Precision(val bytesPerAmplitude: Int) {
+    SINGLE(2 * Float.SIZE_BYTES),
+    DOUBLE(2 * Double.SIZE_BYTES);
+
+    /** Bytes needed for a dense state of [numQubits]. */
+    fun stateBytes(numQubits: Int): Long = bytesPerAmplitude.toLong() shl numQubits
+
+    companion object {
+        fun fromConfig(value: String?): Precision = when (value?.lowercase()) {
+            "float", "single", "float32" -> SINGLE
+            else -> DOUBLE
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.Gate
+import com.swiftquantum.domain.model.OptimizationLevel
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Gates a dense run has applied and the full passes over the state they took.
+ */
+class SweepStats {
+    var gates: Int = 0
+        private set
+    var sweeps: Int = 0
+        private set
+
+    /** Average gates per pass over the amplitudes, or null when no dense pass ran. */
+    val gatesPerSweep: Double?
+        get() = if (sweeps == 0) null else gates.toDouble() / sweeps
+
+    fun recordGate() {
+        gates++
+    }
+
+    fun recordSweep() {
+        sweeps++
+    }
+
+    /** Replaces [count] recorded sweeps with one, for kernels that shared a blocked pass. */
+    fun mergeSweeps(count: Int) {
+        sweeps -= count - 1
+    }
+}
+
+/**
+ * Work a dense run has recorded but not yet applied to the amplitudes.
+ *
+ * [OptimizationLevel.BASIC] and above fuse single-qubit gates on a wire into one 2x2 matrix.
+ * [OptimizationLevel.MAXIMUM] trades arithmetic for fewer sweeps, which only pays off when the
+ * run is memory-bound. It folds those matrices into the next one-control gate on the wire as a
+ * single 4x4 pass, and runs states wider than a cache tile blocked (see [BlockedStateVector]),
+ * moving the qubits upcoming gates act on into the tile first.
+ */
+class PendingGates(
+    numQubits: Int,
+    val stats: SweepStats = SweepStats(),
+    optimizationLevel: OptimizationLevel = OptimizationLevel.BASIC
+) {
+    val permutation = LazyPermutation(numQubits)
+    val phases = PhaseBatch()
+
+    /** Fused single-qubit matrix waiting on each physical qubit. */
+    val wires = arrayOfNulls<DoubleArray>(numQubits)
+
+    val fuseSingleQubit = optimizationLevel.value >= OptimizationLevel.BASIC.value
+    val fuseTwoQubit = optimizationLevel.value >= OptimizationLevel.MAXIMUM.value
+
+    /** Qubits per cache tile, or null when the run is not blocked. */
+    val tileQubits: Int? = TileBatch.DEFAULT_TILE_QUBITS.takeIf {
+        optimizationLevel.value >= OptimizationLevel.MAXIMUM.value && numQubits > it
+    }
+}
+
+/**
+ * Local state-vector engine. Runs a [Circuit] from |0...0⟩ on a primitive [StateVector],
+ * real-only while the gates allow it.
+ *
+ * Uncontrolled X and SWAP gates never touch the amplitudes: they are folded into a
+ * [LazyPermutation], later gates are rewritten onto physical qubits, and the data is
+ * permuted once when the caller needs it. Consecutive diagonal gates (Z, S, T, RZ, U1 and
+ * their controlled forms) are collected in a [PhaseBatch] and applied in one sweep, and runs
+ * of single-qubit gates on a wire are multiplied into one matrix.
+ *
+ * Pending work is only applied when a later gate shares a qubit with it. Phase terms on a
+ * qubit always precede that qubit's fused matrix.
+ */
+@Singleton
+class StateVectorSimulator @Inject constructor() {
+
+    /**
+     * Runs [circuit] from |0...0⟩. In double precision with [realAmplitudes], the leading gates
+     * that keep the state real (see [GateMatrices.isReal]) run on a [RealStateVector], which
+     * is copied to complex amplitudes at the first gate that is not.
+     */
+    fun simulate(
+        circuit: Circuit,
+        precision: Precision = Precision.DOUBLE,
+        executor: KernelExecutor = KernelExecutor.serial(),
+        stats: SweepStats = SweepStats(),
+        optimizationLevel: OptimizationLevel = OptimizationLevel.BASIC,
+        realAmplitudes: Boolean = true
+    ): StateVector = simulate(CompiledCircuit.of(circuit), precision, executor, stats, optimizationLevel, realAmplitudes)
+
+    /**
+     * Runs [program] from |0...0⟩. In double precision with [realAmplitudes], the leading gates
+     * that keep the state real (see [GateMatrices.isReal]) run on a [RealStateVector], which
+     * is copied to complex amplitudes at the first gate that is not.
+     */
+    fun simulate(
+        program: CompiledCircuit,
+        precision: Precision = Precision.DOUBLE,
+        executor: KernelExecutor = KernelExecutor.serial(),
+        stats: SweepStats = SweepStats(),
+        optimizationLevel: OptimizationLevel = OptimizationLevel.BASIC,
+        realAmplitudes: Boolean = true
+    ): StateVector {
+        val pending = PendingGates(program.numQubits, stats, optimizationLevel)
+        val realGates = if (realAmplitudes && precision == Precision.DOUBLE) program.realPrefix else 0
+        if (realGates == 0) {
+            val state = StateVector.create(program.numQubits, precision, executor)
+            run(state, program, pending)
+            return state
+        }
+        val real = RealStateVector(program.numQubits, executor)
+        run(real, program, pending, 0, realGates)
+        if (realGates == program.size) return real
+        Timber.d("Switching to complex amplitudes at ${program.type(realGates).displayName}")
+        val state = real.toComplex()
+        stats.recordSweep()
+        run(state, program, pending, realGates)
+        return state
+    }
+
+    /**
+     * Bytes of dense amplitudes [simulate] holds at its peak: half the complex state for a
+     * circuit that stays real, and both copies at once for one that turns complex part-way.
+     */
+    fun peakStateBytes(circuit: Circuit, precision: Precision, realAmplitudes: Boolean = true): Long {
+        val complex = precision.stateBytes(circuit.numQubits)
+        if (!realAmplitudes || precision != Precision.DOUBLE) return complex
+        val program = CompiledCircuit.of(circuit)
+        return when (program.realPrefix) {
+            0 -> complex
+            program.size -> complex / 2
+            else -> complex + complex / 2
+        }
+    }
+
+    /**
+     * Applies instructions [from] until [to] of [program] in order and flushes [pending]. When
+     * [PendingGates.tileQubits] is set, gates inside a cache tile are applied block by block, and
+     * qubits that the next gates keep pairing on are swapped into the tile first (see [localize]).
+     */
+    fun run(state: StateVector, program: CompiledCircuit, pending: PendingGates, from: Int = 0, to: Int = program.size) {
+        val tileQubits = pending.tileQubits
+        if (tileQubits == null) {
+            for (index in from until to) applyGate(state, program, index, pending)
+            flush(state, pending)
+            return
+        }
+        val blocked = BlockedStateVector(state, tileQubits, pending.stats)
+        for (index in from until to) {
+            localize(blocked, pending, program, index, to, tileQubits)
+            applyGate(blocked, program, index, pending)
+        }
+        flush(blocked, pending)
+        blocked.flushTiles()
+    }
+
+    /** Applies [gate] immediately. */
+    fun applyGate(state: StateVector, gate: Gate) {
+        val pending = PendingGates(state.numQubits, optimizationLevel = OptimizationLevel.NONE)
+        val program = CompiledCircuit.compile(state.numQubits, listOf(gate))
+        if (program.size == 1) applyGate(state, program, 0, pending)
+        flush(state, pending)
+    }
+
+    /**
+     * Applies instruction [index] of [program] to [state] as seen through [pending], which
+     * absorbs X, SWAP and diagonal gates. Call [flush] before reading [state].
+     */
+    fun applyGate(state: StateVector, program: CompiledCircuit, index: Int, pending: PendingGates) {
+        val permutation = pending.permutation
+        val stats = pending.stats
+        KernelExecutor.ensureActive()
+        stats.recordGate()
+        val logicalTarget = program.targets[index]
+        val controlMask = permutation.physicalMask(program.controlMasks[index].toInt())
+        // A flipped control fires when its stored bit is 0
+        val controlValue = controlMask and permutation.flips.inv()
+        val target = permutation.physical(logicalTarget)
+
+        when (val opcode = program.opcodes[index]) {
+            CompiledCircuit.OP_FLIP -> when {
+                controlMask == 0 -> permutation.flip(logicalTarget)
+                fusesIntoBlock(pending, controlMask, target) -> {
+                    applyBlock(state, pending, controlMask, controlValue, target, GateMatrices.X)
+                }
+                else -> {
+                    prepare(state, pending, controlMask or (1 shl target))
+                    state.applyX(target, controlMask, controlValue)
+                    stats.recordSweep()
+                }
+            }
+            CompiledCircuit.OP_SWAP, CompiledCircuit.OP_ISWAP -> {
+                val a = logicalTarget
+                val b = program.secondTargets[index]
+                if (opcode == CompiledCircuit.OP_SWAP && controlMask == 0) {
+                    permutation.swap(a, b)
+                    return
+                }
+                val pa = permutation.physical(a)
+                val pb = permutation.physical(b)
+                prepare(state, pending, controlMask or (1 shl pa) or (1 shl pb))
+                // The exchange kernel assumes both targets are stored the same way round
+                if (permutation.isFlipped(a) != permutation.isFlipped(b)) {
+                    permutation.materializeFlip(state, if (permutation.isFlipped(a)) a else b)
+                    stats.recordSweep()
+                }
+                val (re, im) = if (opcode == CompiledCircuit.OP_ISWAP) 0.0 to 1.0 else 1.0 to 0.0
+                state.applySwap(pa, pb, controlMask, re, im, controlValue)
+                stats.recordSweep()
+            }
+            else -> {
+                val stored = if (permutation.isFlipped(logicalTarget)) program.flippedMatrix(index) else program.matrix(index)
+                val wire = pending.wires[target]
+                val diagonal = opcode == CompiledCircuit.OP_PHASE
+                when {
+                    controlMask == 0 && pending.fuseSingleQubit && (wire != null || !diagonal) -> {
+                        pending.wires[target] = if (wire == null) stored else GateMatrices.multiply(stored, wire)
+                    }
+                    diagonal -> addPhases(state, pending, controlMask or (1 shl target), controlValue, target, stored)
+                    fusesIntoBlock(pending, controlMask, target) -> {
+                        applyBlock(state, pending, controlMask, controlValue, target, stored)
+                    }
+                    else -> {
+                        prepare(state, pending, controlMask or (1 shl target))
+                        state.applyMatrix(target, stored, controlMask, controlValue)
+                        stats.recordSweep()
+                    }
+                }
+            }
+        }
+    }
+
+    /** Applies everything [pending] still holds, leaving the amplitudes in logical order. */
+    fun flush(state: StateVector, pending: PendingGates) {
+        flushPhases(state, pending)
+        flushWires(state, pending, -1)
+        // A streaming swap pass per displaced pair beats one scattered pass when there are few
+        val swaps = pending.permutation.homingSwaps()
+        if (swaps.size <= MAX_HOMING_SWAPS) {
+            for ((p0, p1) in swaps) {
+                state.applySwap(p0, p1)
+                pending.permutation.exchange(p0, p1)
+                pending.stats.recordSweep()
+            }
+        }
+        if (!pending.permutation.isIdentity) {
+            state.applyPermutation(pending.permutation)
+            pending.stats.recordSweep()
+        }
+    }
+
+    /**
+     * When instruction [index] would pair amplitudes across tiles, swaps the qubits that it and
+     * the instructions after it (up to [end]) pair on into the low [tileQubits] physical bits, as
+     * many as fit in a tile. Each exchange costs one sweep, so only qubits the window pairs on
+     * more than once are moved; the rest run unblocked.
+     */
+    private fun localize(
+        state: StateVector,
+        pending: PendingGates,
+        program: CompiledCircuit,
+        index: Int,
+        end: Int,
+        tileQubits: Int
+    ) {
+        val permutation = pending.permutation
+        val tileMask = (1 shl tileQubits) - 1
+        if (permutation.physicalMask(pairedQubits(program, index, pending)) and tileMask.inv() == 0) return
+
+        val numQubits = pending.wires.size
+        val uses = IntArray(numQubits)
+        var window = 0
+        for (j in index until end) {
+            val paired = pairedQubits(program, j, pending)
+            if (Integer.bitCount(window or paired) > tileQubits) break
+            window = window or paired
+            var rest = paired
+            while (rest != 0) {
+                uses[Integer.numberOfTrailingZeros(rest)]++
+                rest = rest and (rest - 1)
+            }
+        }
+        val holder = IntArray(numQubits)
+        for (q in 0 until numQubits) holder[permutation.physical(q)] = q
+        val free = (0 until tileQubits).filter { window and (1 shl holder[it]) == 0 }.iterator()
+
+        // Phase terms are keyed by physical qubit
+        flushPhases(state, pending)
+        for (q in 0 until numQubits) {
+            val p = permutation.physical(q)
+            if (p < tileQubits || uses[q] < 2) continue
+            val slot = free.next()
+            state.applySwap(slot, p)
+            pending.stats.recordSweep()
+            permutation.exchange(slot, p)
+            val wire = pending.wires[slot]
+            pending.wires[slot] = pending.wires[p]
+            pending.wires[p] = wire
+        }
+    }
+
+    /** Mask of the logical qubits whose amplitude pairs instruction [index] mixes, as [applyGate] will apply it. */
+    private fun pairedQubits(program: CompiledCircuit, index: Int, pending: PendingGates): Int {
+        val controlMask = program.controlMasks[index].toInt()
+        val controlled = controlMask != 0
+        // A one-control gate may become a 4x4 block, which pairs on the control too
+        val controls = if (pending.fuseTwoQubit && Integer.bitCount(controlMask) == 1) controlMask else 0
+        val target = 1 shl program.targets[index]
+        return when (program.opcodes[index]) {
+            CompiledCircuit.OP_FLIP -> if (controlled) controls or target else 0
+            CompiledCircuit.OP_SWAP -> if (controlled) controls or target or (1 shl program.secondTargets[index]) else 0
+            CompiledCircuit.OP_ISWAP -> controls or target or (1 shl program.secondTargets[index])
+            // Phases never pair
+            CompiledCircuit.OP_PHASE -> 0
+            // Fused into the wire; paid for when a later gate flushes it
+            else -> if (!controlled && pending.fuseSingleQubit) 0 else controls or target
+        }
+    }
+
+    /** Records diag(m00, m11) on physical [target] where the controls in [mask] read [controlValue]. */
+    private fun addPhases(
+        state: StateVector,
+        pending: PendingGates,
+        mask: Int,
+        controlValue: Int,
+        target: Int,
+        matrix: DoubleArray
+    ) {
+        flushWires(state, pending, mask)
+        if (!pending.phases.fits(mask)) flushPhases(state, pending)
+        if (matrix[0] != 1.0 || matrix[1] != 0.0) pending.phases.add(mask, controlValue, matrix[0], matrix[1])
+        if (matrix[6] != 1.0 || matrix[7] != 0.0) pending.phases.add(mask, controlValue or (1 shl target), matrix[6], matrix[7])
+    }
+
+    /** True when a one-control gate can absorb the fused matrices waiting on its two qubits. */
+    private fun fusesIntoBlock(pending: PendingGates, controlMask: Int, target: Int): Boolean {
+        if (!pending.fuseTwoQubit || Integer.bitCount(controlMask) != 1) return false
+        val control = Integer.numberOfTrailingZeros(controlMask)
+        return pending.wires[control] != null || pending.wires[target] != null
+    }
+
+    /** Applies the [control]-controlled [matrix] together with both wires' fused matrices in one pass. */
+    private fun applyBlock(
+        state: StateVector,
+        pending: PendingGates,
+        controlMask: Int,
+        controlValue: Int,
+        target: Int,
+        matrix: DoubleArray
+    ) {
+        val control = Integer.numberOfTrailingZeros(controlMask)
+        val mask = controlMask or (1 shl target)
+        if (pending.phases.qubits and mask != 0) flushPhases(state, pending)
+        val before = GateMatrices.kron(
+            pending.wires[control] ?: GateMatrices.IDENTITY,
+            pending.wires[target] ?: GateMatrices.IDENTITY
+        )
+        pending.wires[control] = null
+        pending.wires[target] = null
+        val gate = GateMatrices.controlledOn(matrix, if (controlValue != 0) 1 else 0)
+        state.applyMatrix4(control, target, GateMatrices.multiply4(gate, before))
+        pending.stats.recordSweep()
+    }
+
+    /** Applies the pending work on [mask] qubits so a kernel can read them. */
+    private fun prepare(state: StateVector, pending: PendingGates, mask: Int) {
+        if (pending.phases.qubits and mask != 0) flushPhases(state, pending)
+        flushWires(state, pending, mask)
+    }
+
+    /** Applies the fused matrices on [mask] qubits, after any phase terms that precede them. */
+    private fun flushWires(state: StateVector, pending: PendingGates, mask: Int) {
+        for (q in pending.wires.indices) {
+            val wire = pending.wires[q] ?: continue
+            if (mask and (1 shl q) == 0) continue
+            if (pending.phases.qubits and (1 shl q) != 0) flushPhases(state, pending)
+            state.applyMatrix(q, wire)
+            pending.wires[q] = null
+            pending.stats.recordSweep()
+        }
+    }
+
+    private fun flushPhases(state: StateVector, pending: PendingGates) {
+        if (pending.phases.isEmpty()) return
+        pending.phases.applyTo(state)
+        pending.stats.recordSweep()
+    }
+
+    private companion object {
+        /** Swap passes that still cost less than one scattered permutation pass. */
+        const val MAX_HOMING_SWAPS = 3
+    }
+}
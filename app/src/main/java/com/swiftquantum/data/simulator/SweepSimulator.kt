@@ -0,0 +1,123 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.ParameterSweep
+import com.swiftquantum.domain.model.SweepPointResult
+import java.util.concurrent.ConcurrentLinkedQueue
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Runs one circuit structure over many parameter points.
+ *
+ * The circuit is compiled once; each point only rebuilds the matrices of its parameterized
+ * instructions (see [CompiledCircuit.withMatrices]) and runs into a state buffer that is reset
+ * and reused from point to point. Registers too small for parallel kernels spread batches of
+ * points over the cores instead, one buffer per concurrent chunk, so small VQE and QAOA scans
+ * use every core; wider registers run the points in turn with parallel kernels. Results are
+ * handed on from the calling thread only, so pool threads never wait on a slow consumer.
+ */
+@Singleton
+class SweepSimulator @Inject constructor(
+    private val stateVectorSimulator: StateVectorSimulator,
+    private val expectationSimulator: ExpectationSimulator
+) {
+
+    /** Heap held at once: a state and a rotation buffer per concurrent chunk. */
+    fun plannedBytes(numQubits: Int, parallel: Boolean): Long =
+        chunks(numQubits, KernelExecutor(parallel)) * 2 * Precision.DOUBLE.stateBytes(numQubits)
+
+    /**
+     * Evaluates every point of [sweep] on the ideal double-precision state, passing each result
+     * to [emit] on the calling thread in point order. Stops early once [emit] returns false.
+     */
+    fun sweep(
+        circuit: Circuit,
+        sweep: ParameterSweep,
+        options: SimulationOptions = SimulationOptions(),
+        emit: (SweepPointResult) -> Boolean
+    ) {
+        val validation = sweep.validate(circuit)
+        require(validation.isValid) { validation.errors.joinToString(", ") }
+        StateVector.requireSupported(circuit.numQubits)
+
+        val numQubits = circuit.numQubits
+        val bindings = ParameterBindings.of(circuit)
+        val points = sweep.points.map { it.toDoubleArray() }
+        val terms = sweep.observable?.terms
+        val groups = terms?.let { expectationSimulator.group(it, numQubits) }
+        val hasRotations = groups.orEmpty().any { group -> group.basis.any { it == 'X' || it == 'Y' } }
+
+        val executor = KernelExecutor(options.parallel)
+        val pointParallel = numQubits < POINT_PARALLEL_QUBITS
+        // Point-parallel chunks run serial kernels; otherwise the kernels take the cores
+        val kernels = if (pointParallel) KernelExecutor.serial() else executor
+        val caller = Thread.currentThread()
+        val buffers = ConcurrentLinkedQueue<Buffers>()
+
+        fun evaluate(index: Int, buffers: Buffers): SweepPointResult {
+            val state = buffers.state
+            val program = bindings.bind(points[index], buffers.matrices)
+            state.reset()
+            stateVectorSimulator.run(state, program, PendingGates(numQubits, optimizationLevel = options.optimizationLevel))
+
+            val expectation = if (terms != null) {
+                val termValues = expectationSimulator.expectations(state, terms, kernels, groups!!, buffers.scratch)
+                terms.indices.sumOf { terms[it].coefficient * termValues[it] }
+            } else {
+                null
+            }
+            val counts = if (sweep.shots > 0) {
+                state.sample(sweep.shots, kernels, options.seed?.let { it + index })
+            } else {
+                null
+            }
+            return SweepPointResult(index, expectation, counts)
+        }
+
+        val batch = if (pointParallel) chunks(numQubits, executor) * POINTS_PER_CHUNK else 1
+        val results = arrayOfNulls<SweepPointResult>(batch)
+        var start = 0
+        while (start < points.size) {
+            KernelExecutor.ensureActive()
+            val count = minOf(batch, points.size - start)
+            val first = start
+            executor.forRange(count, cost = KernelExecutor.PARALLEL_THRESHOLD) { from, to ->
+                val chunkBuffers = buffers.poll() ?: Buffers(
+                    DoubleStateVector(numQubits, kernels),
+                    if (hasRotations) DoubleStateVector(numQubits, kernels) else null,
+                    arrayOfNulls(bindings.instructions.size)
+                )
+                for (k in from until to) {
+                    if (caller.isInterrupted) break
+                    results[k] = evaluate(first + k, chunkBuffers)
+                }
+                buffers.offer(chunkBuffers)
+            }
+            KernelExecutor.ensureActive()
+            for (k in 0 until count) {
+                if (!emit(results[k]!!)) return
+                results[k] = null
+            }
+            start += count
+        }
+    }
+
+    private fun chunks(numQubits: Int, executor: KernelExecutor): Int =
+        if (numQubits < POINT_PARALLEL_QUBITS) executor.threads * KernelExecutor.CHUNKS_PER_THREAD else 1
+
+    /** Reusable state, rotation scratch and matrix slots of one chunk. */
+    private class Buffers(
+        val state: DoubleStateVector,
+        val scratch: DoubleStateVector?,
+        val matrices: Array<DoubleArray?>
+    )
+
+    private companion object {
+        /** Below this width one state is under [KernelExecutor.PARALLEL_THRESHOLD] amplitudes. */
+        const val POINT_PARALLEL_QUBITS = 14
+
+        /** Points each chunk of a batch evaluates before the calling thread emits the batch. */
+        const val POINTS_PER_CHUNK = 8
+    }
+}
@@ -0,0 +1,100 @@
+package com.swiftquantum.data.simulator
+
+/**
+ * Kernels whose amplitude pairs all lie inside one aligned block of 2^[tileQubits] amplitudes,
+ * queued so that [StateVector.applyTiles] can run all of them on a block while it is in cache.
+ *
+ * Controls and phase masks may read any qubit: above the tile they are constant across a block
+ * and only decide whether the block takes part.
+ */
+class TileBatch(val tileQubits: Int) {
+
+    /**
+     * One queued kernel. Within a block it enumerates `0 until` [count] with zeros inserted at
+     * [fixed] and [localValue] ORed in, on the blocks where [appliesTo] holds.
+     */
+    sealed class Op(pairMask: Int, mask: Int, value: Int, tileQubits: Int) {
+        private val localMask = (1 shl tileQubits) - 1
+        private val highMask = mask and localMask.inv()
+        private val highValue = value and highMask
+
+        val fixed: IntArray = StateVector.bitPositions((mask or pairMask) and localMask)
+        val localValue: Int = value and localMask
+        val count: Int = (1 shl tileQubits) shr fixed.size
+
+        fun appliesTo(base: Int): Boolean = base and highMask == highValue
+    }
+
+    class Matrix(val target: Int, val matrix: DoubleArray, controlMask: Int, controlValue: Int, tileQubits: Int) :
+        Op(1 shl target, controlMask, controlValue, tileQubits)
+
+    class Matrix4(val q0: Int, val q1: Int, val matrix: DoubleArray, tileQubits: Int) :
+        Op((1 shl q0) or (1 shl q1), 0, 0, tileQubits)
+
+    class Flip(val target: Int, controlMask: Int, controlValue: Int, tileQubits: Int) :
+        Op(1 shl target, controlMask, controlValue, tileQubits)
+
+    class Phase(val re: Double, val im: Double, mask: Int, value: Int, tileQubits: Int) :
+        Op(0, mask, value, tileQubits)
+
+    class Swap(
+        val q0: Int,
+        val q1: Int,
+        val re: Double,
+        val im: Double,
+        controlMask: Int,
+        controlValue: Int,
+        tileQubits: Int
+    ) : Op((1 shl q0) or (1 shl q1), controlMask, controlValue, tileQubits)
+
+    class PhaseTable(val qubits: Int, val table: DoubleArray, tileQubits: Int) : Op(0, 0, 0, tileQubits) {
+        /** Gather tables wide enough for the highest qubit in [qubits]. */
+        val gather: Array<IntArray> = StateVector.gatherTables(qubits, 32 - Integer.numberOfLeadingZeros(qubits))
+    }
+
+    private val queued = ArrayList<Op>()
+
+    val ops: List<Op>
+        get() = queued
+
+    val size: Int
+        get() = queued.size
+
+    fun isEmpty(): Boolean = queued.isEmpty()
+
+    /** True when every qubit in [pairMask] lies inside the tile. */
+    fun isLocal(pairMask: Int): Boolean = pairMask ushr tileQubits == 0
+
+    fun matrix(target: Int, matrix: DoubleArray, controlMask: Int, controlValue: Int) {
+        queued += Matrix(target, matrix, controlMask, controlValue, tileQubits)
+    }
+
+    fun matrix4(q0: Int, q1: Int, matrix: DoubleArray) {
+        queued += Matrix4(q0, q1, matrix, tileQubits)
+    }
+
+    fun flip(target: Int, controlMask: Int, controlValue: Int) {
+        queued += Flip(target, controlMask, controlValue, tileQubits)
+    }
+
+    fun phase(mask: Int, re: Double, im: Double, value: Int) {
+        queued += Phase(re, im, mask, value, tileQubits)
+    }
+
+    fun swap(q0: Int, q1: Int, controlMask: Int, re: Double, im: Double, controlValue: Int) {
+        queued += Swap(q0, q1, re, im, controlMask, controlValue, tileQubits)
+    }
+
+    fun phaseTable(qubits: Int, table: DoubleArray) {
+        queued += PhaseTable(qubits, table, tileQubits)
+    }
+
+    fun clear() {
+        queued.clear()
+    }
+
+    companion object {
+        /** 2^14 amplitudes: 256 KB in double precision, the L2 size of most phone cores. */
+        const val DEFAULT_TILE_QUBITS = 14
+    }
+}
@@ -0,0 +1,221 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.BasisKeys
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.MeasurementCounts
+import com.swiftquantum.domain.model.NoiseModel
+import java.util.SplittableRandom
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.math.sqrt
+
+/**
+ * Noisy simulation by Monte Carlo wave-function trajectories.
+ *
+ * Each trajectory runs the circuit on its own pure state and, after every gate, applies to the
+ * qubits that gate touched a random Pauli with the depolarizing probability, then amplitude
+ * damping and dephasing over the gate's duration as quantum jumps. Idle qubits do not decay.
+ * Shots are split across trajectories and every measured bit is flipped with the readout error
+ * rate. Averaged over trajectories this reproduces the density-matrix result.
+ *
+ * Trajectories run in rounds of one per core, so at most that many states are alive at once.
+ */
+@Singleton
+class TrajectorySimulator @Inject constructor() {
+
+    /** Ideal final state, noisy counts and the mean overlap of trajectories with the ideal state. */
+    class Result(
+        val idealState: DoubleStateVector,
+        val counts: MeasurementCounts,
+        val fidelity: Double,
+        val trajectories: Int
+    )
+
+    /** Heap of the ideal state plus one trajectory per worker. */
+    fun plannedBytes(numQubits: Int, executor: KernelExecutor): Long =
+        Precision.DOUBLE.stateBytes(numQubits) * (executor.threads + 1)
+
+    /**
+     * Trajectories for [shots]: [NoiseModel.trajectories] when set, else one per shot up to
+     * [MAX_TRAJECTORIES], fewer for long or wide circuits but never under [MIN_TRAJECTORIES].
+     */
+    fun trajectoryCount(numQubits: Int, gates: Int, shots: Int, noise: NoiseModel): Int {
+        noise.trajectories?.let { return it.coerceIn(1, shots.coerceAtLeast(1)) }
+        val byWork = WORK_BUDGET / (gates.coerceAtLeast(1).toLong() shl numQubits)
+        return minOf(shots.toLong(), MAX_TRAJECTORIES.toLong(), byWork.coerceAtLeast(MIN_TRAJECTORIES.toLong()))
+            .toInt()
+            .coerceAtLeast(1)
+    }
+
+    fun simulate(
+        circuit: Circuit,
+        shots: Int,
+        noise: NoiseModel,
+        executor: KernelExecutor = KernelExecutor.serial(),
+        seed: Long? = null
+    ): Result {
+        val numQubits = circuit.numQubits
+        StateVector.requireSupported(numQubits)
+        val channels = NoiseChannels.of(noise)
+        val program = CompiledCircuit.of(circuit)
+
+        val ideal = DoubleStateVector(numQubits, executor)
+        run(ideal, program, null, null)
+
+        val count = trajectoryCount(numQubits, program.size, shots, noise)
+        val random = seed?.let { SplittableRandom(it) } ?: SplittableRandom()
+        val streams = Array(count) { random.split() }
+        val readout = random.split()
+        val outcomes = arrayOfNulls<MeasurementCounts>(count)
+        val overlaps = DoubleArray(count)
+        val cost = (program.size.toLong() shl numQubits).coerceAtMost(Int.MAX_VALUE.toLong()).toInt()
+
+        var start = 0
+        while (start < count) {
+            KernelExecutor.ensureActive()
+            val round = minOf(executor.threads, count - start)
+            val first = start
+            executor.forRange(round, cost) { from, to ->
+                for (t in first + from until first + to) {
+                    val rng = streams[t]
+                    val state = DoubleStateVector(numQubits)
+                    run(state, program, channels, rng)
+                    overlaps[t] = overlap(ideal, state)
+                    val share = shots / count + if (t < shots % count) 1 else 0
+                    outcomes[t] = state.sample(share, KernelExecutor.serial(), rng.nextLong())
+                }
+            }
+            start += round
+        }
+
+        return Result(
+            idealState = ideal,
+            counts = merge(numQubits, outcomes.requireNoNulls(), noise.readoutErrorRate, readout),
+            fidelity = overlaps.average(),
+            trajectories = count
+        )
+    }
+
+    /** Runs [program] on [state], with noise after each gate when [channels] is set. */
+    private fun run(
+        state: DoubleStateVector,
+        program: CompiledCircuit,
+        channels: NoiseChannels?,
+        rng: SplittableRandom?
+    ) {
+        for (index in 0 until program.size) {
+            KernelExecutor.ensureActive()
+            val controlMask = program.controlMasks[index].toInt()
+            val target = program.targets[index]
+            when (val opcode = program.opcodes[index]) {
+                CompiledCircuit.OP_FLIP -> state.applyX(target, controlMask)
+                CompiledCircuit.OP_SWAP, CompiledCircuit.OP_ISWAP -> {
+                    val im = if (opcode == CompiledCircuit.OP_ISWAP) 1.0 else 0.0
+                    state.applySwap(target, program.secondTargets[index], controlMask, 1.0 - im, im)
+                }
+                else -> state.applyMatrix(target, program.matrix(index), controlMask)
+            }
+            if (channels == null || rng == null) continue
+
+            var qubits = program.qubitMask(index)
+            val duration = channels.relaxation(java.lang.Long.bitCount(qubits))
+            while (qubits != 0L) {
+                val qubit = java.lang.Long.numberOfTrailingZeros(qubits)
+                qubits = qubits and (qubits - 1)
+                if (rng.nextDouble() < channels.depolarizing) {
+                    state.applyMatrix(qubit, PAULIS[rng.nextInt(PAULIS.size)])
+                }
+                if (duration.damping > 0.0) damp(state, qubit, duration.damping, rng)
+                if (rng.nextDouble() < duration.phaseFlip) state.applyMatrix(qubit, GateMatrices.Z)
+            }
+        }
+    }
+
+    /** One amplitude-damping step: a decay to |0> with probability gamma·P(1), else the no-jump branch. */
+    private fun damp(state: DoubleStateVector, qubit: Int, gamma: Double, rng: SplittableRandom) {
+        val a = state.amplitudes
+        val bit = 1 shl qubit
+        val half = state.dimension shr 1
+        var excited = 0.0
+        for (k in 0 until half) {
+            val i = StateVector.insertZeroBit(k, qubit) or bit
+            excited += a[2 * i] * a[2 * i] + a[2 * i + 1] * a[2 * i + 1]
+        }
+        if (excited == 0.0) return
+
+        if (rng.nextDouble() < gamma * excited) {
+            val scale = 1.0 / sqrt(excited)
+            for (k in 0 until half) {
+                val i0 = StateVector.insertZeroBit(k, qubit)
+                val i1 = i0 or bit
+                a[2 * i0] = a[2 * i1] * scale
+                a[2 * i0 + 1] = a[2 * i1 + 1] * scale
+                a[2 * i1] = 0.0
+                a[2 * i1 + 1] = 0.0
+            }
+        } else {
+            val scale = 1.0 / sqrt(1.0 - gamma * excited)
+            val excitedScale = sqrt(1.0 - gamma) * scale
+            for (k in 0 until half) {
+                val i0 = StateVector.insertZeroBit(k, qubit)
+                val i1 = i0 or bit
+                a[2 * i0] *= scale
+                a[2 * i0 + 1] *= scale
+                a[2 * i1] *= excitedScale
+                a[2 * i1 + 1] *= excitedScale
+            }
+        }
+    }
+
+    /** |<ideal|state>|². */
+    private fun overlap(ideal: DoubleStateVector, state: DoubleStateVector): Double {
+        val a = ideal.amplitudes
+        val b = state.amplitudes
+        var re = 0.0
+        var im = 0.0
+        for (i in 0 until ideal.dimension) {
+            re += a[2 * i] * b[2 * i] + a[2 * i + 1] * b[2 * i + 1]
+            im += a[2 * i] * b[2 * i + 1] - a[2 * i + 1] * b[2 * i]
+        }
+        return re * re + im * im
+    }
+
+    /** Pools trajectory counts, flipping each measured bit with probability [readoutError]. */
+    private fun merge(
+        numQubits: Int,
+        outcomes: Array<MeasurementCounts>,
+        readoutError: Double,
+        rng: SplittableRandom
+    ): MeasurementCounts {
+        val totals = HashMap<Long, Int>()
+        for (counts in outcomes) {
+            for (position in 0 until counts.size) {
+                val index = counts.basisKeys.indexAt(position)
+                val count = counts.countAt(position)
+                if (readoutError == 0.0) {
+                    totals.merge(index, count, Int::plus)
+                    continue
+                }
+                repeat(count) {
+                    var measured = index
+                    for (q in 0 until numQubits) {
+                        if (rng.nextDouble() < readoutError) measured = measured xor (1L shl q)
+                    }
+                    totals.merge(measured, 1, Int::plus)
+                }
+            }
+        }
+        val indices = totals.keys.toLongArray().also { it.sort() }
+        return MeasurementCounts(BasisKeys.ofSorted(numQubits, indices), IntArray(indices.size) { totals.getValue(indices[it]) })
+    }
+
+    private companion object {
+        val PAULIS = arrayOf(GateMatrices.X, GateMatrices.Y, GateMatrices.Z)
+
+        const val MAX_TRAJECTORIES = 256
+        const val MIN_TRAJECTORIES = 16
+
+        /** Gate applications times amplitudes all trajectories may spend together: 2^29. */
+        const val WORK_BUDGET = 1L shl 29
+    }
+}
@@ -64,6 +64,33 @@ object UseCaseModule {
         return RunSimulationUseCase(quantumRepository, billingRepository)
     }
 
+    @Provides
+    @ViewModelScoped
+    fun provideComputeExpectationUseCase(
+        quantumRepository: QuantumRepository,
+        billingRepository: BillingRepository
+    ): ComputeExpectationUseCase {
+        return ComputeExpectationUseCase(quantumRepository, billingRepository)
+    }
+
+    @Provides
+    @ViewModelScoped
+    fun provideComputeGradientUseCase(
+        quantumRepository: QuantumRepository,
+        billingRepository: BillingRepository
+    ): ComputeGradientUseCase {
+        return ComputeGradientUseCase(quantumRepository, billingRepository)
+    }
+
+    @Provides
+    @ViewModelScoped
+    fun provideRunParameterSweepUseCase(
+        quantumRepository: QuantumRepository,
+        billingRepository: BillingRepository
+    ): RunParameterSweepUseCase {
+        return RunParameterSweepUseCase(quantumRepository, billingRepository)
+    }
+
     @Provides
     @ViewModelScoped
     fun provideSaveCircuitUseCase(quantumRepository: QuantumRepository): SaveCircuitUseCase {
@@ -8,8 +8,8 @@ data class ExecutionResult(
     val circuitId: String? = null,
     val status: ExecutionStatus = ExecutionStatus.PENDING,
     val backend: ExecutionBackend = ExecutionBackend.RUST_SIMULATOR,
-    val counts: Map<String, Int> = emptyMap(),
-    val probabilities: Map<String, Double> = emptyMap(),
+    val counts: MeasurementCounts = MeasurementCounts.EMPTY,
+    val probabilities: MeasurementProbabilities = MeasurementProbabilities.EMPTY,
     val stateVector: List<ComplexNumber>? = null,
     val shots: Int = 1024,
     val executionTimeMs: Long = 0,
@@ -22,17 +22,14 @@ data class ExecutionResult(
         get() = status == ExecutionStatus.COMPLETED && error == null
 
     val totalCounts: Int
-        get() = counts.values.sum()
+        get() = counts.total
 
     fun getProbability(state: String): Double {
         return probabilities[state] ?: (counts[state]?.toDouble()?.div(totalCounts) ?: 0.0)
     }
 
     fun getTopResults(limit: Int = 10): List<Pair<String, Double>> {
-        return probabilities.entries
-            .sortedByDescending { it.value }
-            .take(limit)
-            .map { it.key to it.value }
+        return probabilities.top(limit)
     }
 }
 
@@ -94,7 +91,9 @@ data class ExecutionMetadata(
     val queuePosition: Int? = null,
     val estimatedWaitTime: Long? = null,
     val hardwareBackend: String? = null,
-    val calibrationData: String? = null
+    val calibrationData: String? = null,
+    val localBackend: String? = null, // Engine of a local run, e.g. "mps"
+    val approximate: Boolean = false // Local auto run fell back to MPS; see fidelity
 )
 
 @Serializable
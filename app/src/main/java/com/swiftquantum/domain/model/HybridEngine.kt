@@ -92,7 +92,25 @@ data class HybridEngineConfig(
     val parallelShots: Boolean = true,
 
     @SerialName("precision")
-    val precision: String = "double" // "float" or "double"
+    val precision: String = "double", // "float" or "double"
+
+    @SerialName("seed")
+    val seed: Long? = null, // Fixed sampling seed for reproducible local runs
+
+    @SerialName("local_backend")
+    val localBackend: String = "auto", // "auto", "state_vector", "stabilizer", "sparse", "mps", "disk", "compressed" or "density_matrix"
+
+    @SerialName("max_bond_dimension")
+    val maxBondDimension: Int = 64, // Bond cap for the local MPS engine
+
+    @SerialName("compression_error_bound")
+    val compressionErrorBound: Double = 0.0, // Lossy rounding per amplitude part; 0 is lossless
+
+    @SerialName("disk_cache_enabled")
+    val diskCacheEnabled: Boolean = false, // Keep cached local results in app storage too
+
+    @SerialName("noise_model")
+    val noiseModel: NoiseModel? = null // Hardware-like noise for local runs; null runs ideal
 ) {
     companion object {
         fun default() = HybridEngineConfig()
@@ -137,7 +155,22 @@ data class EnginePerformanceMetrics(
     val optimizationTimeMs: Long? = null,
 
     @SerialName("cache_hit")
-    val cacheHit: Boolean = false
+    val cacheHit: Boolean = false,
+
+    @SerialName("threads_used")
+    val threadsUsed: Int? = null,
+
+    @SerialName("parallel_speedup")
+    val parallelSpeedup: Double? = null,
+
+    @SerialName("truncation_error")
+    val truncationError: Double? = null,
+
+    @SerialName("gates_per_sweep")
+    val gatesPerSweep: Double? = null,
+
+    @SerialName("approximate")
+    val approximate: Boolean = false // Local auto run fell back to MPS; see truncationError
 ) {
     val memoryUsedMB: Double
         get() = memoryUsedBytes / (1024.0 * 1024.0)
@@ -158,6 +191,66 @@ data class EnginePerformanceMetrics(
         }
 }
 
+/**
+ * Device noise applied by the local trajectory simulator
+ */
+@Serializable
+data class NoiseModel(
+    @SerialName("t1_us")
+    val t1Us: Double? = null, // Energy relaxation time; null disables amplitude damping
+
+    @SerialName("t2_us")
+    val t2Us: Double? = null, // Dephasing time, at most 2 * t1; null disables dephasing
+
+    @SerialName("gate_error_rate")
+    val gateErrorRate: Double = 0.0, // Depolarizing probability per qubit per gate
+
+    @SerialName("readout_error_rate")
+    val readoutErrorRate: Double = 0.0, // Probability each measured bit is flipped
+
+    @SerialName("single_qubit_gate_ns")
+    val singleQubitGateNs: Double = 35.0,
+
+    @SerialName("multi_qubit_gate_ns")
+    val multiQubitGateNs: Double = 300.0,
+
+    @SerialName("trajectories")
+    val trajectories: Int? = null // Null picks a count from the shots
+) {
+    val isIdeal: Boolean
+        get() = t1Us == null && t2Us == null && gateErrorRate == 0.0 && readoutErrorRate == 0.0
+}
+
+/**
+ * Hit counts and size of the on-device result cache
+ */
+@Serializable
+data class ResultCacheStats(
+    @SerialName("memory_hits")
+    val memoryHits: Long = 0,
+
+    @SerialName("disk_hits")
+    val diskHits: Long = 0,
+
+    @SerialName("misses")
+    val misses: Long = 0,
+
+    @SerialName("entries")
+    val entries: Int = 0,
+
+    @SerialName("memory_bytes")
+    val memoryBytes: Long = 0,
+
+    @SerialName("disk_bytes")
+    val diskBytes: Long = 0
+) {
+    val lookups: Long
+        get() = memoryHits + diskHits + misses
+
+    val hitRate: Double
+        get() = if (lookups == 0L) 0.0 else (memoryHits + diskHits).toDouble() / lookups
+}
+
 /**
  * Request for hybrid engine execution
  */
@@ -195,9 +288,9 @@ data class HybridExecutionResult(
 
     val status: ExecutionStatus = ExecutionStatus.COMPLETED,
 
-    val counts: Map<String, Int> = emptyMap(),
+    val counts: MeasurementCounts = MeasurementCounts.EMPTY,
 
-    val probabilities: Map<String, Double> = emptyMap(),
+    val probabilities: MeasurementProbabilities = MeasurementProbabilities.EMPTY,
 
     @SerialName("state_vector")
     val stateVector: List<ComplexNumber>? = null,
@@ -286,6 +379,14 @@ data class EngineBenchmarkEntry(
     val error: String? = null
 )
 
+/**
+ * Queue a local run waits in: interactive runs start before any queued batch run
+ */
+enum class ExecutionPriority {
+    INTERACTIVE,
+    BATCH
+}
+
 /**
  * Engine status information
  */
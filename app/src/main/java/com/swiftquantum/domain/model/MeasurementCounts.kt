@@ -0,0 +1,239 @@
+package com.swiftquantum.domain.model
+
+import kotlinx.serialization.KSerializer
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.builtins.MapSerializer
+import kotlinx.serialization.builtins.serializer
+import kotlinx.serialization.descriptors.SerialDescriptor
+import kotlinx.serialization.encoding.Decoder
+import kotlinx.serialization.encoding.Encoder
+import java.util.AbstractMap.SimpleImmutableEntry
+
+/**
+ * Outcome keys of a measurement, stored as basis indices in ascending order.
+ *
+ * Qubit q is bit q of the index, so index i reads as `i.toString(2).padStart(numQubits, '0')`.
+ * Bitstrings are only built when a key is read. Keys that are not plain bitstrings (hex
+ * labels, registers wider than 63 qubits) are kept as sorted strings instead.
+ */
+class BasisKeys private constructor(
+    val numQubits: Int,
+    private val indices: LongArray,
+    private val labels: Array<String>?
+) {
+    val size: Int
+        get() = labels?.size ?: indices.size
+
+    /** Basis index at [position], or -1 for string-labelled outcomes. */
+    fun indexAt(position: Int): Long = if (labels != null) -1L else indices[position]
+
+    fun keyAt(position: Int): String =
+        labels?.get(position) ?: indices[position].toString(2).padStart(numQubits, '0')
+
+    /** Position of [key], or a negative value when absent. */
+    fun find(key: String): Int {
+        if (labels != null) return labels.binarySearch(key)
+        val index = parseBitstring(key) ?: return -1
+        return indices.binarySearch(index)
+    }
+
+    companion object {
+        val EMPTY = BasisKeys(0, LongArray(0), null)
+
+        /** Wraps indices that are already sorted ascending and distinct. */
+        fun ofSorted(numQubits: Int, indices: LongArray) = BasisKeys(numQubits, indices, null)
+
+        /**
+         * Builds keys from equal-width bitstring labels. Returns the keys and, for each sorted
+         * position, the position of the label in [keys].
+         */
+        fun parse(keys: List<String>): Pair<BasisKeys, IntArray> {
+            val parsed = keys.map { parseBitstring(it) }
+            val width = keys.firstOrNull()?.length ?: 0
+            if (parsed.any { it == null } || keys.any { it.length != width }) {
+                val order = keys.indices.sortedBy { keys[it] }.toIntArray()
+                return BasisKeys(0, LongArray(0), Array(order.size) { keys[order[it]] }) to order
+            }
+            val order = keys.indices.sortedBy { parsed[it] }.toIntArray()
+            return BasisKeys(width, LongArray(order.size) { parsed[order[it]]!! }, null) to order
+        }
+
+        private fun parseBitstring(key: String): Long? {
+            if (key.isEmpty() || key.length > Long.SIZE_BITS - 1) return null
+            var index = 0L
+            for (c in key) {
+                index = when (c) {
+                    '0' -> index shl 1
+                    '1' -> (index shl 1) or 1L
+                    else -> return null
+                }
+            }
+            return index
+        }
+    }
+}
+
+/**
+ * Read-only `Map<String, V>` view over [BasisKeys] and a primitive value array.
+ */
+sealed class OutcomeMap<V : Any>(val basisKeys: BasisKeys) : AbstractMap<String, V>() {
+
+    protected abstract fun valueAt(position: Int): V
+
+    /** Value used to rank outcomes, read without boxing. */
+    protected abstract fun weightAt(position: Int): Double
+
+    val numQubits: Int
+        get() = basisKeys.numQubits
+
+    override val size: Int
+        get() = basisKeys.size
+
+    override fun get(key: String): V? {
+        val position = basisKeys.find(key)
+        return if (position < 0) null else valueAt(position)
+    }
+
+    override fun containsKey(key: String): Boolean = basisKeys.find(key) >= 0
+
+    override val entries: Set<Map.Entry<String, V>>
+        get() = object : AbstractSet<Map.Entry<String, V>>() {
+            override val size: Int
+                get() = this@OutcomeMap.size
+
+            override fun iterator(): Iterator<Map.Entry<String, V>> = object : Iterator<Map.Entry<String, V>> {
+                private var position = 0
+
+                override fun hasNext() = position < size
+
+                override fun next(): Map.Entry<String, V> {
+                    if (!hasNext()) throw NoSuchElementException()
+                    val entry = SimpleImmutableEntry(basisKeys.keyAt(position), valueAt(position))
+                    position++
+                    return entry
+                }
+            }
+        }
+
+    /** The [limit] largest outcomes in descending order; only their keys are formatted. */
+    fun top(limit: Int): List<Pair<String, V>> {
+        val best = IntArray(minOf(limit, size).coerceAtLeast(0))
+        var filled = 0
+        for (position in 0 until size) {
+            val weight = weightAt(position)
+            if (filled == best.size && (filled == 0 || weight <= weightAt(best[filled - 1]))) continue
+            var slot = if (filled < best.size) filled++ else filled - 1
+            while (slot > 0 && weightAt(best[slot - 1]) < weight) {
+                best[slot] = best[slot - 1]
+                slot--
+            }
+            best[slot] = position
+        }
+        return List(filled) { basisKeys.keyAt(best[it]) to valueAt(best[it]) }
+    }
+}
+
+/**
+ * Shot counts per measured basis state.
+ */
+@Serializable(with = MeasurementCountsSerializer::class)
+class MeasurementCounts(
+    basisKeys: BasisKeys,
+    private val counts: IntArray
+) : OutcomeMap<Int>(basisKeys) {
+
+    init {
+        require(counts.size == basisKeys.size) { "Expected ${basisKeys.size} counts, got ${counts.size}" }
+    }
+
+    val total: Int
+        get() = counts.sum()
+
+    fun countAt(position: Int): Int = counts[position]
+
+    override fun valueAt(position: Int): Int = counts[position]
+
+    override fun weightAt(position: Int): Double = counts[position].toDouble()
+
+    /** Relative frequencies over [shots], sharing these keys. */
+    fun toProbabilities(shots: Int = total): MeasurementProbabilities {
+        val scale = if (shots > 0) 1.0 / shots else 0.0
+        return MeasurementProbabilities(basisKeys, DoubleArray(counts.size) { counts[it] * scale })
+    }
+
+    companion object {
+        val EMPTY = MeasurementCounts(BasisKeys.EMPTY, IntArray(0))
+
+        fun from(map: Map<String, Int>): MeasurementCounts {
+            if (map is MeasurementCounts) return map
+            val labels = map.keys.toList()
+            val (keys, order) = BasisKeys.parse(labels)
+            return MeasurementCounts(keys, IntArray(order.size) { map.getValue(labels[order[it]]) })
+        }
+    }
+}
+
+/**
+ * Outcome probabilities per basis state.
+ */
+@Serializable(with = MeasurementProbabilitiesSerializer::class)
+class MeasurementProbabilities(
+    basisKeys: BasisKeys,
+    private val probabilities: DoubleArray
+) : OutcomeMap<Double>(basisKeys) {
+
+    init {
+        require(probabilities.size == basisKeys.size) {
+            "Expected ${basisKeys.size} probabilities, got ${probabilities.size}"
+        }
+    }
+
+    fun probabilityAt(position: Int): Double = probabilities[position]
+
+    override fun valueAt(position: Int): Double = probabilities[position]
+
+    override fun weightAt(position: Int): Double = probabilities[position]
+
+    companion object {
+        val EMPTY = MeasurementProbabilities(BasisKeys.EMPTY, DoubleArray(0))
+
+        fun from(map: Map<String, Double>): MeasurementProbabilities {
+            if (map is MeasurementProbabilities) return map
+            val labels = map.keys.toList()
+            val (keys, order) = BasisKeys.parse(labels)
+            return MeasurementProbabilities(keys, DoubleArray(order.size) { map.getValue(labels[order[it]]) })
+        }
+    }
+}
+
+/**
+ * Reads and writes counts as the `{"bitstring": count}` object used by the API.
+ */
+object MeasurementCountsSerializer : KSerializer<MeasurementCounts> {
+    private val delegate = MapSerializer(String.serializer(), Int.serializer())
+
+    override val descriptor: SerialDescriptor = delegate.descriptor
+
+    override fun serialize(encoder: Encoder, value: MeasurementCounts) {
+        encoder.encodeSerializableValue(delegate, value)
+    }
+
+    override fun deserialize(decoder: Decoder): MeasurementCounts =
+        MeasurementCounts.from(decoder.decodeSerializableValue(delegate))
+}
+
+/**
+ * Reads and writes probabilities as the `{"bitstring": probability}` object used by the API.
+ */
+object MeasurementProbabilitiesSerializer : KSerializer<MeasurementProbabilities> {
+    private val delegate = MapSerializer(String.serializer(), Double.serializer())
+
+    override val descriptor: SerialDescriptor = delegate.descriptor
+
+    override fun serialize(encoder: Encoder, value: MeasurementProbabilities) {
+        encoder.encodeSerializableValue(delegate, value)
+    }
+
+    override fun deserialize(decoder: Decoder): MeasurementProbabilities =
+        MeasurementProbabilities.from(decoder.decodeSerializableValue(delegate))
+}
@@ -0,0 +1,99 @@
+package com.swiftquantum.domain.model
+
+import kotlinx.serialization.SerialName
+import kotlinx.serialization.Serializable
+
+/**
+ * Weighted Pauli string. [pauli] has one of I, X, Y, Z per qubit with qubit 0 rightmost, the
+ * same order as measurement keys; qubits past its length are I.
+ */
+@Serializable
+data class PauliTerm(
+    val coefficient: Double = 1.0,
+    val pauli: String
+) {
+    /** Pauli acting on [qubit]. */
+    fun on(qubit: Int): Char = if (qubit < pauli.length) pauli[pauli.length - 1 - qubit] else 'I'
+
+    /** Qubits the term acts on non-trivially. */
+    val weight: Int
+        get() = pauli.count { it != 'I' }
+}
+
+/**
+ * Observable as a real-weighted sum of Pauli strings, such as a VQE energy
+ */
+@Serializable
+data class Hamiltonian(
+    val terms: List<PauliTerm>
+) {
+    fun validate(numQubits: Int): CircuitValidationResult {
+        val errors = mutableListOf<String>()
+        if (terms.isEmpty()) errors.add("The observable has no terms")
+        terms.forEach { term ->
+            if (term.pauli.any { it !in PAULI_LABELS }) {
+                errors.add("${term.pauli} is not a Pauli string of I, X, Y and Z")
+            } else if (term.pauli.dropLast(numQubits).any { it != 'I' }) {
+                errors.add("${term.pauli} acts on more than $numQubits qubits")
+            }
+        }
+        return CircuitValidationResult(isValid = errors.isEmpty(), errors = errors)
+    }
+
+    companion object {
+        private const val PAULI_LABELS = "IXYZ"
+
+        private val TERM = Regex(
+            """\s*([+-])?\s*(\d+(?:\.\d*)?(?:[eE][+-]?\d+)?|\.\d+(?:[eE][+-]?\d+)?)?\s*\*?\s*([IXYZ]+)\s*"""
+        )
+
+        fun of(pauli: String): Hamiltonian = Hamiltonian(listOf(PauliTerm(1.0, pauli)))
+
+        /** Parses sums such as `0.5 * ZZ - 1.2 XI + IZ`; a missing coefficient is 1. */
+        fun parse(text: String): Hamiltonian {
+            val terms = mutableListOf<PauliTerm>()
+            var position = 0
+            while (position < text.length) {
+                val match = TERM.matchAt(text, position)
+                    ?: throw IllegalArgumentException("Cannot read a Pauli term at \"${text.substring(position).trim()}\"")
+                val (sign, number, pauli) = match.destructured
+                require(sign.isNotEmpty() || terms.isEmpty()) { "Missing + or - before $pauli" }
+                val magnitude = number.ifEmpty { "1" }.toDouble()
+                terms += PauliTerm(if (sign == "-") -magnitude else magnitude, pauli)
+                position = match.range.last + 1
+            }
+            require(terms.isNotEmpty()) { "The observable has no terms" }
+            return Hamiltonian(terms)
+        }
+    }
+}
+
+/**
+ * Exact ⟨ψ|H|ψ⟩ of a circuit's final state
+ */
+@Serializable
+data class ExpectationResult(
+    val value: Double,
+
+    @SerialName("term_values")
+    val termValues: List<Double>, // ⟨P⟩ of each term, unweighted, in the observable's order
+
+    @SerialName("basis_groups")
+    val basisGroups: Int, // Qubit-wise commuting groups, one basis rotation each
+
+    @SerialName("execution_time_ms")
+    val executionTimeMs: Long
+)
+
+/**
+ * ⟨ψ|H|ψ⟩ of a circuit's final state and its derivative with respect to each free angle
+ */
+@Serializable
+data class GradientResult(
+    val value: Double,
+
+    val gradient: List<Double>, // One entry per angle, in the order of a ParameterSweep point
+
+    @SerialName("execution_time_ms")
+    val executionTimeMs: Long
+)
@@ -0,0 +1,62 @@
+package com.swiftquantum.domain.model
+
+import kotlinx.serialization.Serializable
+
+/**
+ * Many parameter points for one circuit structure, as in a VQE or QAOA landscape scan.
+ *
+ * Each point holds one value per free angle of the circuit, taken over its parameterized gates
+ * in position order: theta for the rotations and their controlled forms, lambda for U1, phi
+ * and lambda for U2, and theta, phi and lambda for U3. The angles stored on the gates are
+ * ignored.
+ */
+@Serializable
+data class ParameterSweep(
+    val points: List<List<Double>>,
+    val shots: Int = 0, // Counts sampled per point; 0 skips sampling
+    val observable: Hamiltonian? = null
+) {
+    fun validate(circuit: Circuit): CircuitValidationResult {
+        val errors = mutableListOf<String>()
+        val expected = parameterCount(circuit)
+        if (points.isEmpty()) errors.add("The sweep has no points")
+        if (expected == 0) errors.add("The circuit has no parameterized gates")
+        points.withIndex().firstOrNull { it.value.size != expected }?.let { (index, point) ->
+            errors.add("Point $index has ${point.size} values; the circuit has $expected angles")
+        }
+        if (shots < 0) errors.add("Shots cannot be negative")
+        if (shots == 0 && observable == null) errors.add("The sweep needs shots or an observable")
+        observable?.validate(circuit.numQubits)?.let { errors.addAll(it.errors) }
+        return CircuitValidationResult(isValid = errors.isEmpty(), errors = errors)
+    }
+
+    companion object {
+        /** Angles a point sets on a gate of [type]. */
+        fun angleCount(type: GateType): Int = when (type) {
+            GateType.U2 -> 2
+            GateType.U3 -> 3
+            else -> if (type.hasParameters) 1 else 0
+        }
+
+        /** Values each point of a sweep over [circuit] must hold. */
+        fun parameterCount(circuit: Circuit): Int = circuit.gates.sumOf { angleCount(it.type) }
+
+        /** Parameters for a gate of [type] from [values], starting at [offset]. */
+        fun parametersFor(type: GateType, values: DoubleArray, offset: Int): GateParameters = when (type) {
+            GateType.U1 -> GateParameters.forU1(values[offset])
+            GateType.U2 -> GateParameters.forU2(values[offset], values[offset + 1])
+            GateType.U3 -> GateParameters.forU3(values[offset], values[offset + 1], values[offset + 2])
+            else -> GateParameters.forRotation(values[offset])
+        }
+    }
+}
+
+/**
+ * Outcome of one sweep point; results arrive in point order, tagged with [index]
+ */
+@Serializable
+data class SweepPointResult(
+    val index: Int,
+    val expectation: Double? = null, // ⟨H⟩ when the sweep has an observable
+    val counts: MeasurementCounts? = null // When the sweep samples shots
+)
@@ -7,6 +7,7 @@ import com.swiftquantum.domain.model.HybridEngineConfig
 import com.swiftquantum.domain.model.HybridEngineType
 import com.swiftquantum.domain.model.HybridExecutionResult
 import com.swiftquantum.domain.model.OptimizationLevel
+import com.swiftquantum.domain.model.ResultCacheStats
 
 /**
  * Repository interface for Hybrid Engine operations
@@ -49,4 +50,14 @@ interface HybridEngineRepository {
      * Get status of a specific engine
      */
     suspend fun getEngineStatus(engineType: HybridEngineType): Result<EngineStatus>
+
+    /**
+     * Get hit rates of the on-device result cache
+     */
+    suspend fun getResultCacheStats(): Result<ResultCacheStats>
+
+    /**
+     * Drop every cached on-device result
+     */
+    suspend fun clearResultCache(): Result<Unit>
 }
@@ -2,7 +2,14 @@ package com.swiftquantum.domain.repository
 
 import com.swiftquantum.domain.model.Circuit
 import com.swiftquantum.domain.model.ExecutionBackend
+import com.swiftquantum.domain.model.ExecutionPriority
 import com.swiftquantum.domain.model.ExecutionResult
+import com.swiftquantum.domain.model.ExpectationResult
+import com.swiftquantum.domain.model.GradientResult
+import com.swiftquantum.domain.model.Hamiltonian
+import com.swiftquantum.domain.model.HybridEngineConfig
+import com.swiftquantum.domain.model.ParameterSweep
+import com.swiftquantum.domain.model.SweepPointResult
 import kotlinx.coroutines.flow.Flow
 
 interface QuantumRepository {
@@ -29,6 +36,38 @@ interface QuantumRepository {
     // Local Simulation (Rust-based)
     suspend fun runLocalSimulation(
         circuit: Circuit,
-        shots: Int = 1024
+        shots: Int = 1024,
+        config: HybridEngineConfig? = null,
+        priority: ExecutionPriority = ExecutionPriority.INTERACTIVE
     ): Result<ExecutionResult>
+
+    /**
+     * Exact ⟨ψ|H|ψ⟩ of the circuit's ideal final state, without sampling shots
+     */
+    suspend fun computeExpectation(
+        circuit: Circuit,
+        hamiltonian: Hamiltonian,
+        config: HybridEngineConfig? = null
+    ): Result<ExpectationResult>
+
+    /**
+     * ⟨H⟩ and its gradient over every free angle, at [parameters] in ParameterSweep point order
+     * or, when null, at the angles stored on the gates
+     */
+    suspend fun computeGradient(
+        circuit: Circuit,
+        hamiltonian: Hamiltonian,
+        parameters: List<Double>? = null,
+        config: HybridEngineConfig? = null
+    ): Result<GradientResult>
+
+    /**
+     * Evaluates the circuit at every point of the sweep, streaming each result as it finishes
+     */
+    fun runParameterSweep(
+        circuit: Circuit,
+        sweep: ParameterSweep,
+        config: HybridEngineConfig? = null,
+        priority: ExecutionPriority = ExecutionPriority.BATCH
+    ): Flow<SweepPointResult>
 }
@@ -3,10 +3,18 @@ package com.swiftquantum.domain.usecase
 import com.swiftquantum.domain.model.Circuit
 import com.swiftquantum.domain.model.ExecutionBackend
 import com.swiftquantum.domain.model.ExecutionResult
-import com.swiftquantum.domain.model.UserTier
+import com.swiftquantum.domain.model.ExpectationResult
+import com.swiftquantum.domain.model.GradientResult
+import com.swiftquantum.domain.model.Hamiltonian
+import com.swiftquantum.domain.model.HybridEngineConfig
+import com.swiftquantum.domain.model.ParameterSweep
+import com.swiftquantum.domain.model.SweepPointResult
 import com.swiftquantum.domain.repository.BillingRepository
 import com.swiftquantum.domain.repository.QuantumRepository
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emitAll
 import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flow
 import javax.inject.Inject
 
 class RunSimulationUseCase @Inject constructor(
@@ -16,7 +24,8 @@ class RunSimulationUseCase @Inject constructor(
     suspend operator fun invoke(
         circuit: Circuit,
         shots: Int = 1024,
-        backend: ExecutionBackend = ExecutionBackend.RUST_SIMULATOR
+        backend: ExecutionBackend = ExecutionBackend.RUST_SIMULATOR,
+        config: HybridEngineConfig? = null
     ): Result<ExecutionResult> {
         // Validate circuit
         val validation = circuit.validate()
@@ -46,13 +55,120 @@ class RunSimulationUseCase @Inject constructor(
         val validatedShots = shots.coerceIn(1, 100000)
 
         return if (backend == ExecutionBackend.RUST_SIMULATOR) {
-            quantumRepository.runLocalSimulation(circuit, validatedShots)
+            quantumRepository.runLocalSimulation(circuit, validatedShots, config)
         } else {
             quantumRepository.runSimulation(circuit, validatedShots, backend)
         }
     }
 }
 
+/**
+ * Exact expectation value of an observable on a circuit, computed locally
+ */
+class ComputeExpectationUseCase @Inject constructor(
+    private val quantumRepository: QuantumRepository,
+    private val billingRepository: BillingRepository
+) {
+    suspend operator fun invoke(
+        circuit: Circuit,
+        hamiltonian: Hamiltonian,
+        config: HybridEngineConfig? = null
+    ): Result<ExpectationResult> {
+        val validation = circuit.validate()
+        if (!validation.isValid) {
+            return Result.failure(IllegalArgumentException(validation.errors.joinToString(", ")))
+        }
+        val observableValidation = hamiltonian.validate(circuit.numQubits)
+        if (!observableValidation.isValid) {
+            return Result.failure(IllegalArgumentException(observableValidation.errors.joinToString(", ")))
+        }
+
+        val userTier = billingRepository.getUserTier().first()
+        if (circuit.numQubits > userTier.maxQubits) {
+            return Result.failure(
+                IllegalArgumentException(
+                    "Your ${userTier.name} tier allows up to ${userTier.maxQubits} qubits. " +
+                    "Upgrade to simulate ${circuit.numQubits} qubits."
+                )
+            )
+        }
+
+        return quantumRepository.computeExpectation(circuit, hamiltonian, config)
+    }
+}
+
+/**
+ * Gradient of an observable over a circuit's angles, for local variational training
+ */
+class ComputeGradientUseCase @Inject constructor(
+    private val quantumRepository: QuantumRepository,
+    private val billingRepository: BillingRepository
+) {
+    suspend operator fun invoke(
+        circuit: Circuit,
+        hamiltonian: Hamiltonian,
+        parameters: List<Double>? = null,
+        config: HybridEngineConfig? = null
+    ): Result<GradientResult> {
+        val validation = circuit.validate()
+        if (!validation.isValid) {
+            return Result.failure(IllegalArgumentException(validation.errors.joinToString(", ")))
+        }
+        val observableValidation = hamiltonian.validate(circuit.numQubits)
+        if (!observableValidation.isValid) {
+            return Result.failure(IllegalArgumentException(observableValidation.errors.joinToString(", ")))
+        }
+        val expected = ParameterSweep.parameterCount(circuit)
+        if (parameters != null && parameters.size != expected) {
+            return Result.failure(
+                IllegalArgumentException("Got ${parameters.size} parameters; the circuit has $expected angles")
+            )
+        }
+
+        val userTier = billingRepository.getUserTier().first()
+        if (circuit.numQubits > userTier.maxQubits) {
+            return Result.failure(
+                IllegalArgumentException(
+                    "Your ${userTier.name} tier allows up to ${userTier.maxQubits} qubits. " +
+                    "Upgrade to simulate ${circuit.numQubits} qubits."
+                )
+            )
+        }
+
+        return quantumRepository.computeGradient(circuit, hamiltonian, parameters, config)
+    }
+}
+
+/**
+ * Landscape scan of a parameterized circuit, streamed point by point
+ */
+class RunParameterSweepUseCase @Inject constructor(
+    private val quantumRepository: QuantumRepository,
+    private val billingRepository: BillingRepository
+) {
+    operator fun invoke(
+        circuit: Circuit,
+        sweep: ParameterSweep,
+        config: HybridEngineConfig? = null
+    ): Flow<SweepPointResult> = flow {
+        val validation = circuit.validate()
+        require(validation.isValid) { validation.errors.joinToString(", ") }
+        val sweepValidation = sweep.validate(circuit)
+        require(sweepValidation.isValid) { sweepValidation.errors.joinToString(", ") }
+
+        val userTier = billingRepository.getUserTier().first()
+        require(circuit.numQubits <= userTier.maxQubits) {
+            "Your ${userTier.name} tier allows up to ${userTier.maxQubits} qubits. " +
+                "Upgrade to simulate ${circuit.numQubits} qubits."
+        }
+
+        // Validate shots; 0 leaves sampling off
+        val validatedSweep = if (sweep.shots > 0) sweep.copy(shots = sweep.shots.coerceIn(1, 100000)) else sweep
+
+        emitAll(quantumRepository.runParameterSweep(circuit, validatedSweep, config))
+    }
+}
+
 class SaveCircuitUseCase @Inject constructor(
     private val quantumRepository: QuantumRepository
 ) {
@@ -51,13 +51,11 @@ fun ResultHistogram(
     animated: Boolean = true
 ) {
     val sortedResults = remember(result) {
-        result.probabilities.entries
-            .sortedByDescending { it.value }
-            .take(maxBarsToShow)
+        result.getTopResults(maxBarsToShow)
     }
 
     val maxProbability = remember(sortedResults) {
-        sortedResults.maxOfOrNull { it.value } ?: 1.0
+        sortedResults.maxOfOrNull { it.second } ?: 1.0
     }
 
     var animationTriggered by remember { mutableStateOf(false) }
@@ -280,9 +278,7 @@ fun ProbabilityTable(
     maxRows: Int = 10
 ) {
     val sortedResults = remember(result) {
-        result.probabilities.entries
-            .sortedByDescending { it.value }
-            .take(maxRows)
+        result.getTopResults(maxRows)
     }
 
     Surface(
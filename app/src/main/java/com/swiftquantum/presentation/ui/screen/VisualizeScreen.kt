@@ -415,12 +415,10 @@ private fun HistogramTab(result: ExecutionResult?) {
     }
 
     val sortedProbabilities = remember(result) {
-        result.probabilities.entries
-            .sortedByDescending { it.value }
-            .take(16)
+        result.getTopResults(16)
     }
 
-    val maxProbability = sortedProbabilities.maxOfOrNull { it.value } ?: 1.0
+    val maxProbability = sortedProbabilities.maxOfOrNull { it.second } ?: 1.0
 
     LazyColumn(
         modifier = Modifier.fillMaxSize(),
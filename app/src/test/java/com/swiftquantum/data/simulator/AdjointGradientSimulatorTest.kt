@@ -0,0 +1,108 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.Gate
+import com.swiftquantum.domain.model.GateParameters
+import com.swiftquantum.domain.model.GateType
+import com.swiftquantum.domain.model.Hamiltonian
+import com.swiftquantum.domain.model.ParameterSweep
+import com.swiftquantum.domain.model.PauliTerm
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import kotlin.random.Random
+
+/**
+ * Adjoint gradients must match central differences of the exact expectation value for every
+ * parameterized gate type, including the controlled rotations and U1, U2 and U3.
+ */
+class AdjointGradientSimulatorTest {
+
+    private val simulator = AdjointGradientSimulator(StateVectorSimulator())
+    private val options = SimulationOptions(parallel = false)
+
+    private val hamiltonian = Hamiltonian(
+        listOf(
+            PauliTerm(1.0, "XYZ"),
+            PauliTerm(0.5, "IZZ"),
+            PauliTerm(-0.3, "XXI"),
+            PauliTerm(0.7, "YIY")
+        )
+    )
+
+    @Test
+    fun `RX gradient matches central differences`() = assertMatches(GateType.RX)
+
+    @Test
+    fun `RY gradient matches central differences`() = assertMatches(GateType.RY)
+
+    @Test
+    fun `RZ gradient matches central differences`() = assertMatches(GateType.RZ)
+
+    @Test
+    fun `CRX gradient matches central differences`() = assertMatches(GateType.CRX)
+
+    @Test
+    fun `CRY gradient matches central differences`() = assertMatches(GateType.CRY)
+
+    @Test
+    fun `CRZ gradient matches central differences`() = assertMatches(GateType.CRZ)
+
+    @Test
+    fun `U1 gradient matches central differences`() = assertMatches(GateType.U1)
+
+    @Test
+    fun `U2 gradient matches central differences`() = assertMatches(GateType.U2)
+
+    @Test
+    fun `U3 gradient matches central differences`() = assertMatches(GateType.U3)
+
+    private fun assertMatches(type: GateType) {
+        val circuit = circuitWith(type, Random(type.ordinal))
+        val parameters = ParameterBindings.of(circuit).initialValues
+        val result = simulator.gradient(circuit, hamiltonian, parameters, options)
+        assertEquals(ParameterSweep.parameterCount(circuit), result.gradient.size)
+
+        for (k in parameters.indices) {
+            val plus = parameters.copyOf().also { it[k] += STEP }
+            val minus = parameters.copyOf().also { it[k] -= STEP }
+            val expected = (value(circuit, plus) - value(circuit, minus)) / (2 * STEP)
+            assertEquals("$type angle $k", expected, result.gradient[k], TOLERANCE)
+        }
+    }
+
+    private fun value(circuit: Circuit, parameters: DoubleArray): Double =
+        simulator.gradient(circuit, hamiltonian, parameters, options).value
+
+    /**
+     * An entangled, complex state with the gate under test on three different wires, so its
+     * gradient depends on where it sits.
+     */
+    private fun circuitWith(type: GateType, random: Random): Circuit {
+        val gates = mutableListOf<Gate>()
+        fun add(gateType: GateType, target: Int, control: Int? = null, parameters: GateParameters? = null) {
+            gates += TestCircuits.gate(gateType, target, control, parameters, position = gates.size)
+        }
+        fun angles() = GateParameters(
+            theta = random.nextDouble(-3.0, 3.0),
+            phi = random.nextDouble(-3.0, 3.0),
+            lambda = random.nextDouble(-3.0, 3.0)
+        )
+
+        for (q in 0 until NUM_QUBITS) add(GateType.H, q)
+        add(GateType.CNOT, 1, control = 0)
+        add(GateType.S, 2)
+        for (q in 0 until NUM_QUBITS) {
+            val control = if (type.qubitCount == 2) (q + 1) % NUM_QUBITS else null
+            add(type, q, control, angles())
+            add(GateType.CNOT, (q + 2) % NUM_QUBITS, control = q)
+            add(GateType.RY, (q + 1) % NUM_QUBITS, parameters = angles())
+        }
+        return Circuit(name = type.name, numQubits = NUM_QUBITS, gates = gates)
+    }
+
+    private companion object {
+        const val NUM_QUBITS = 3
+        const val STEP = 1e-5
+        const val TOLERANCE = 1e-7
+    }
+}
@@ -0,0 +1,66 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.GateParameters
+import com.swiftquantum.domain.model.GateType
+import com.swiftquantum.domain.model.OptimizationLevel
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import kotlin.random.Random
+
+/**
+ * Cache-blocked runs ([OptimizationLevel.MAXIMUM]) must leave the same state as unblocked ones
+ * ([OptimizationLevel.BASIC]), whichever qubits the gates act on.
+ */
+class CacheBlockingTest {
+
+    private val simulator = StateVectorSimulator()
+
+    @Test
+    fun `only maximum optimization blocks wide states`() {
+        assertEquals(TileBatch.DEFAULT_TILE_QUBITS, PendingGates(NUM_QUBITS, optimizationLevel = OptimizationLevel.MAXIMUM).tileQubits)
+        assertNull(PendingGates(NUM_QUBITS, optimizationLevel = OptimizationLevel.AGGRESSIVE).tileQubits)
+        assertNull(PendingGates(TileBatch.DEFAULT_TILE_QUBITS, optimizationLevel = OptimizationLevel.MAXIMUM).tileQubits)
+    }
+
+    @Test
+    fun `blocked runs match unblocked runs on every target`() {
+        for (target in 0 until NUM_QUBITS) assertSameState(circuitOn(NUM_QUBITS, target, GATES_PER_TARGET))
+    }
+
+    @Test
+    fun `blocked runs match unblocked runs on complex layers`() {
+        assertSameState(TestCircuits.rotationLayers(NUM_QUBITS, layers = 4, random = Random(3)))
+    }
+
+    private fun assertSameState(circuit: Circuit) {
+        val reference = simulator.simulate(circuit, optimizationLevel = OptimizationLevel.BASIC).asComplexList()
+        val result = simulator.simulate(circuit, optimizationLevel = OptimizationLevel.MAXIMUM).asComplexList()
+        for (i in reference.indices) {
+            assertEquals(circuit.name, reference[i].real, result[i].real, TOLERANCE)
+            assertEquals(circuit.name, reference[i].imaginary, result[i].imaginary, TOLERANCE)
+        }
+    }
+
+    /** Controlled rotations with varying controls, so wire fusion cannot collapse them. */
+    private fun circuitOn(numQubits: Int, target: Int, count: Int): Circuit {
+        val gates = (0 until count).map { i ->
+            TestCircuits.gate(
+                GateType.CRY,
+                target,
+                control = (target + 1 + i % (numQubits - 1)) % numQubits,
+                parameters = GateParameters(theta = 0.1 * (i + 1)),
+                position = i
+            )
+        }
+        return Circuit(name = "target $target", numQubits = numQubits, gates = gates)
+    }
+
+    private companion object {
+        /** Two qubits above the tile, so gates land both inside and outside it. */
+        const val NUM_QUBITS = TileBatch.DEFAULT_TILE_QUBITS + 2
+        const val GATES_PER_TARGET = 16
+        const val TOLERANCE = 1e-12
+    }
+}
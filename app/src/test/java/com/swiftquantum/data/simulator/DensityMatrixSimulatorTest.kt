@@ -0,0 +1,78 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.GateType
+import com.swiftquantum.domain.model.NoiseModel
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.math.abs
+import kotlin.math.exp
+import kotlin.random.Random
+
+/**
+ * The density matrix must match the T1 and T2 closed forms exactly, and trajectory sampling of
+ * the same noise must converge to its distribution.
+ */
+class DensityMatrixSimulatorTest {
+
+    private val simulator = DensityMatrixSimulator(StateVectorSimulator())
+
+    @Test
+    fun `excited state decays with T1`() {
+        val circuit = chain(GateType.X, List(IDLE_GATES) { GateType.Z })
+        val state = simulator.simulate(circuit, NoiseModel(t1Us = T1_US, singleQubitGateNs = GATE_NS)).state
+
+        assertEquals(exp(-(IDLE_GATES + 1) * GATE_US / T1_US), state.probability(1), EXACT)
+        assertEquals(1.0, state.trace(), EXACT)
+    }
+
+    @Test
+    fun `superposition dephases with T2`() {
+        val circuit = chain(GateType.H, List(IDLE_GATES) { GateType.Z } + GateType.H)
+        val state = simulator.simulate(circuit, NoiseModel(t2Us = T2_US, singleQubitGateNs = GATE_NS)).state
+
+        // Dephasing after the last H no longer moves the populations
+        assertEquals((1 + exp(-(IDLE_GATES + 1) * GATE_US / T2_US)) / 2, state.probability(0), EXACT)
+    }
+
+    @Test
+    fun `trajectories converge to the density matrix`() {
+        val circuit = TestCircuits.rotationLayers(4, layers = 3, random = Random(5))
+        val noise = NoiseModel(
+            t1Us = 20.0,
+            t2Us = 15.0,
+            gateErrorRate = 0.03,
+            readoutErrorRate = 0.05,
+            trajectories = TRAJECTORIES
+        )
+        val exact = simulator.simulate(circuit, noise).state
+        val counts = TrajectorySimulator().simulate(circuit, SHOTS, noise, KernelExecutor.serial(), SEED).counts
+
+        var variation = 0.0
+        for (index in 0 until (1 shl circuit.numQubits)) {
+            val key = index.toString(2).padStart(circuit.numQubits, '0')
+            variation += abs(exact.probability(index) - (counts[key] ?: 0) / SHOTS.toDouble())
+        }
+        assertTrue("total variation ${variation / 2}", variation / 2 < MAX_VARIATION)
+    }
+
+    private fun chain(first: GateType, rest: List<GateType>): Circuit {
+        val gates = (listOf(first) + rest).mapIndexed { position, type -> TestCircuits.gate(type, 0, position = position) }
+        return Circuit(name = "chain", numQubits = 1, gates = gates)
+    }
+
+    private companion object {
+        const val EXACT = 1e-9
+        const val GATE_NS = 100.0
+        const val GATE_US = GATE_NS / 1000
+        const val IDLE_GATES = 200
+        const val T1_US = 50.0
+        const val T2_US = 30.0
+
+        const val TRAJECTORIES = 40000
+        const val SHOTS = 200000
+        const val SEED = 5L
+        const val MAX_VARIATION = 0.005
+    }
+}
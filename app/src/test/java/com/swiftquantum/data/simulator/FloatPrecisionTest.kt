@@ -0,0 +1,67 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.data.api.QASMApi
+import com.swiftquantum.data.repository.QASMRepositoryImpl
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.parseQASMToCircuit
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.lang.reflect.Proxy
+import kotlin.math.abs
+import kotlin.math.hypot
+
+/**
+ * Single-precision runs must stay close to double precision on every built-in QASM template.
+ */
+class FloatPrecisionTest {
+
+    private val simulator = StateVectorSimulator()
+
+    @Test
+    fun `float matches double on the built-in templates`() {
+        val templates = runBlocking { QASMRepositoryImpl(offlineApi()).getTemplates(null) }.getOrThrow()
+        assertTrue(templates.map { it.id }.containsAll(listOf("deutsch_jozsa", "grover_2", "qft_3", "vqe_ansatz")))
+
+        for (template in templates) {
+            val circuit = template.code.parseQASMToCircuit().circuit
+            assertNotNull(template.id, circuit)
+            assertAgrees(circuit!!.copy(name = template.id))
+        }
+    }
+
+    private fun assertAgrees(circuit: Circuit) {
+        val reference = simulator.simulate(circuit, Precision.DOUBLE).asComplexList()
+        val single = simulator.simulate(circuit, Precision.SINGLE).asComplexList()
+
+        var maxError = 0.0
+        var variation = 0.0
+        var overlapRe = 0.0
+        var overlapIm = 0.0
+        for (i in reference.indices) {
+            val a = reference[i]
+            val b = single[i]
+            maxError = maxOf(maxError, hypot(a.real - b.real, a.imaginary - b.imaginary))
+            variation += abs(a.probability - b.probability)
+            // <a|b>
+            overlapRe += a.real * b.real + a.imaginary * b.imaginary
+            overlapIm += a.real * b.imaginary - a.imaginary * b.real
+        }
+
+        assertTrue("${circuit.name}: amplitude error $maxError", maxError <= TOLERANCE)
+        assertTrue("${circuit.name}: total variation ${variation / 2}", variation / 2 <= TOLERANCE)
+        assertEquals(circuit.name, 1.0, overlapRe * overlapRe + overlapIm * overlapIm, TOLERANCE)
+    }
+
+    /** An API whose every call fails, so the repository falls back to its built-in templates. */
+    private fun offlineApi(): QASMApi = Proxy.newProxyInstance(
+        QASMApi::class.java.classLoader,
+        arrayOf(QASMApi::class.java)
+    ) { _, method, _ -> throw IllegalStateException("offline: ${method.name}") } as QASMApi
+
+    private companion object {
+        const val TOLERANCE = 1e-5
+    }
+}
@@ -0,0 +1,90 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.Gate
+import com.swiftquantum.domain.model.GateParameters
+import com.swiftquantum.domain.model.GateType
+import com.swiftquantum.domain.model.NoiseModel
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * The exact density-matrix engine against trajectory sampling on the same noisy circuits.
+ *
+ * Each layer is a rotation on every qubit followed by a CNOT ladder, so noise reaches every
+ * qubit and neither engine can skip work. The density matrix costs 4^n per gate and the
+ * trajectories 2^n each, so the crossover sits near 2^n trajectories.
+ */
+class NoiseEngineBenchmarkTest {
+
+    private val densityMatrixSimulator = DensityMatrixSimulator(StateVectorSimulator())
+    private val trajectorySimulator = TrajectorySimulator()
+
+    @Test
+    fun `trajectory fidelity tracks the exact fidelity across widths`() {
+        for (numQubits in WIDTHS) {
+            val circuit = layered(numQubits, LAYERS)
+            val exact = densityMatrixSimulator.simulate(circuit, NOISE, KernelExecutor.serial())
+            val estimate = trajectorySimulator.simulate(circuit, SHOTS, NOISE.copy(trajectories = SHOTS), KernelExecutor.serial(), SEED)
+            assertEquals("$numQubits qubits", exact.fidelity, estimate.fidelity, FIDELITY_TOLERANCE)
+        }
+    }
+
+    @Test
+    fun `density matrix wins narrow and trajectories win wide`() {
+        val narrow = layered(WIDTHS.first(), LAYERS)
+        assertTrue(densityMatrixMillis(narrow) < trajectoryMillis(narrow))
+
+        val wide = layered(WIDTHS.last(), LAYERS)
+        assertTrue(trajectoryMillis(wide) < densityMatrixMillis(wide))
+    }
+
+    private fun densityMatrixMillis(circuit: Circuit): Double =
+        bestMillis { densityMatrixSimulator.simulate(circuit, NOISE, KernelExecutor.serial()) }
+
+    private fun trajectoryMillis(circuit: Circuit): Double = bestMillis {
+        trajectorySimulator.simulate(circuit, TIMED_TRAJECTORIES, NOISE.copy(trajectories = TIMED_TRAJECTORIES), KernelExecutor.serial(), SEED)
+    }
+
+    /** Fastest of [TIMED_RUNS] runs after one warm-up run, so JIT compilation is not timed. */
+    private inline fun bestMillis(block: () -> Unit): Double {
+        block()
+        var best = Double.MAX_VALUE
+        repeat(TIMED_RUNS) {
+            val start = System.nanoTime()
+            block()
+            best = minOf(best, (System.nanoTime() - start) / 1e6)
+        }
+        return best
+    }
+
+    private fun layered(numQubits: Int, layers: Int): Circuit {
+        val gates = ArrayList<Gate>()
+        for (layer in 0 until layers) {
+            for (q in 0 until numQubits) {
+                val parameters = GateParameters(theta = 0.3 + 0.1 * (layer + q))
+                gates += TestCircuits.gate(GateType.RY, q, parameters = parameters, position = gates.size)
+            }
+            for (q in 1 until numQubits) gates += TestCircuits.gate(GateType.CNOT, q, control = q - 1, position = gates.size)
+        }
+        return Circuit(name = "noisy ladder $numQubits", numQubits = numQubits, gates = gates)
+    }
+
+    private companion object {
+        val WIDTHS = listOf(2, 4, 6, 8, 10)
+        const val LAYERS = 4
+        const val SHOTS = 1024
+        const val SEED = 7L
+
+        /** A quarter of 2^10, so the widest circuit is well past the crossover. */
+        const val TIMED_TRAJECTORIES = 256
+        const val TIMED_RUNS = 3
+
+        /** About three standard errors of the mean overlap over [SHOTS] trajectories. */
+        const val FIDELITY_TOLERANCE = 0.04
+
+        /** A mid-range superconducting device. */
+        val NOISE = NoiseModel(t1Us = 100.0, t2Us = 80.0, gateErrorRate = 0.001, readoutErrorRate = 0.02)
+    }
+}
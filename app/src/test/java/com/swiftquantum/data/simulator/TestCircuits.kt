@@ -0,0 +1,45 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.Gate
+import com.swiftquantum.domain.model.GateParameters
+import com.swiftquantum.domain.model.GateType
+import kotlin.math.PI
+import kotlin.random.Random
+
+/** Small circuits shared by the simulator tests. */
+object TestCircuits {
+
+    fun gate(
+        type: GateType,
+        target: Int,
+        control: Int? = null,
+        parameters: GateParameters? = null,
+        position: Int
+    ) = Gate(
+        type = type,
+        targetQubits = listOf(target),
+        controlQubits = listOfNotNull(control),
+        parameters = parameters,
+        position = position
+    )
+
+    /** Layers of random single-qubit rotations on every qubit, each followed by a CNOT ladder. */
+    fun rotationLayers(numQubits: Int, layers: Int, random: Random): Circuit {
+        val types = listOf(GateType.RX, GateType.RY, GateType.RZ, GateType.U3)
+        val gates = mutableListOf<Gate>()
+        repeat(layers) {
+            for (q in 0 until numQubits) {
+                val type = types[random.nextInt(types.size)]
+                val parameters = GateParameters(
+                    theta = random.nextDouble(-PI, PI),
+                    phi = random.nextDouble(-PI, PI),
+                    lambda = random.nextDouble(-PI, PI)
+                )
+                gates += gate(type, q, parameters = parameters, position = gates.size)
+            }
+            for (q in 1 until numQubits) gates += gate(GateType.CNOT, q, control = q - 1, position = gates.size)
+        }
+        return Circuit(name = "rotations $numQubits", numQubits = numQubits, gates = gates)
+    }
+}
@@ -0,0 +1,75 @@
+package com.swiftquantum.data.simulator
+
+import com.swiftquantum.domain.model.Circuit
+import com.swiftquantum.domain.model.GateType
+import com.swiftquantum.domain.model.MeasurementCounts
+import com.swiftquantum.domain.model.NoiseModel
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import kotlin.math.exp
+
+/**
+ * Trajectory sampling must reproduce the closed forms of readout error, amplitude damping and
+ * dephasing. Noise follows every gate, so n gates of [GATE_NS] idle a qubit for n·0.1 µs.
+ */
+class TrajectorySimulatorTest {
+
+    private val simulator = TrajectorySimulator()
+
+    @Test
+    fun `readout error flips each bit independently`() {
+        val circuit = Circuit(name = "X on q0", numQubits = 2, gates = listOf(TestCircuits.gate(GateType.X, 0, position = 0)))
+        val counts = run(circuit, NoiseModel(readoutErrorRate = 0.1))
+
+        // Keys read qubit 1 first
+        assertEquals(0.81, fraction(counts, "01"), TOLERANCE)
+        assertEquals(0.09, fraction(counts, "00"), TOLERANCE)
+        assertEquals(0.09, fraction(counts, "11"), TOLERANCE)
+        assertEquals(0.01, fraction(counts, "10"), TOLERANCE)
+    }
+
+    @Test
+    fun `excited state decays with T1`() {
+        // X, then idle Z gates that leave |1> alone
+        val circuit = chain(GateType.X, List(IDLE_GATES) { GateType.Z })
+        val counts = run(circuit, NoiseModel(t1Us = T1_US, singleQubitGateNs = GATE_NS))
+
+        val expected = exp(-(IDLE_GATES + 1) * GATE_US / T1_US)
+        assertEquals(expected, fraction(counts, "1"), TOLERANCE)
+    }
+
+    @Test
+    fun `superposition dephases with T2`() {
+        // H, idle, H maps the decaying coherence onto the |0> population
+        val circuit = chain(GateType.H, List(IDLE_GATES) { GateType.Z } + GateType.H)
+        val counts = run(circuit, NoiseModel(t2Us = T2_US, singleQubitGateNs = GATE_NS))
+
+        // Dephasing after the last H no longer moves the populations
+        val expected = (1 + exp(-(IDLE_GATES + 1) * GATE_US / T2_US)) / 2
+        assertEquals(expected, fraction(counts, "0"), TOLERANCE)
+    }
+
+    private fun run(circuit: Circuit, noise: NoiseModel): MeasurementCounts =
+        simulator.simulate(circuit, SHOTS, noise.copy(trajectories = SHOTS), KernelExecutor.serial(), SEED).counts
+
+    private fun chain(first: GateType, rest: List<GateType>): Circuit {
+        val gates = (listOf(first) + rest).mapIndexed { position, type -> TestCircuits.gate(type, 0, position = position) }
+        return Circuit(name = "chain", numQubits = 1, gates = gates)
+    }
+
+    private fun fraction(counts: MeasurementCounts, key: String): Double = (counts[key] ?: 0) / SHOTS.toDouble()
+
+    private companion object {
+        const val SHOTS = 20000
+        const val SEED = 17L
+
+        /** About four standard errors at [SHOTS]. */
+        const val TOLERANCE = 0.015
+
+        const val GATE_NS = 100.0
+        const val GATE_US = GATE_NS / 1000
+        const val IDLE_GATES = 200
+        const val T1_US = 50.0
+        const val T2_US = 30.0
+    }
+}